@@ -3,9 +3,15 @@ import toast from 'react-hot-toast';
 import { Search, Check, X, Clock, Calendar, User, ChevronUp, ChevronDown, Filter } from 'lucide-react';
 import { useAuth } from '../../../../Context/AuthContext';
 import type { Appointment } from '../../../../api/types';
-import { getDoctorAppointments, updateAppointmentStatus } from '../../../../api/appointmentService';
+import { getDoctorAppointmentsPage, updateAppointmentStatus } from '../../../../api/appointmentService';
 import './Appointment.css';
 
+const PAGE_SIZE = 50;
+
+// The status filter is applied by the server, so it covers appointments not loaded yet
+const statusParam = (statusFilter: string) =>
+  statusFilter === 'ALL' ? undefined : [statusFilter as Appointment['status']];
+
 const AppointmentDoc: React.FC = () => {
   const { user } = useAuth();
   const [allAppointments, setAllAppointments] = useState<Appointment[]>([]);
@@ -14,22 +20,40 @@ const AppointmentDoc: React.FC = () => {
   const [statusFilter, setStatusFilter] = useState('ALL');
   const [isLoading, setIsLoading] = useState(true);
   const [sortConfig, setSortConfig] = useState<{ key: keyof Appointment; direction: 'ascending' | 'descending' } | null>(null);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  const [isLoadingMore, setIsLoadingMore] = useState(false);
 
   // --- Data Fetching ---
   const fetchAppointments = useCallback(async () => {
     if (!user) return;
     setIsLoading(true);
     try {
-      const appointments = await getDoctorAppointments();
-      setAllAppointments(appointments);
-      setFilteredAppointments(appointments);
+      const page = await getDoctorAppointmentsPage({ status: statusParam(statusFilter), size: PAGE_SIZE });
+      setAllAppointments(page.appointments);
+      setFilteredAppointments(page.appointments);
+      setNextCursor(page.nextCursor);
     } catch (error) {
       toast.error('Failed to fetch appointments.');
       console.error('Error fetching appointments:', error);
     } finally {
       setIsLoading(false);
     }
-  }, [user]);
+  }, [user, statusFilter]);
+
+  const loadMore = async () => {
+    if (!nextCursor) return;
+    setIsLoadingMore(true);
+    try {
+      const page = await getDoctorAppointmentsPage({ status: statusParam(statusFilter), cursor: nextCursor, size: PAGE_SIZE });
+      setAllAppointments(prev => [...prev, ...page.appointments]);
+      setNextCursor(page.nextCursor);
+    } catch (error) {
+      toast.error('Failed to fetch more appointments.');
+      console.error('Error fetching appointments:', error);
+    } finally {
+      setIsLoadingMore(false);
+    }
+  };
 
   useEffect(() => {
     fetchAppointments();
@@ -270,6 +294,13 @@ const AppointmentDoc: React.FC = () => {
           </tbody>
         </table>
       </div>
+      {nextCursor && (
+        <div className="doctor-appointments__load-more">
+          <button className="action-btn complete-btn" onClick={loadMore} disabled={isLoadingMore}>
+            {isLoadingMore ? 'Loading...' : 'Load more appointments'}
+          </button>
+        </div>
+      )}
     </div>
   );
 };
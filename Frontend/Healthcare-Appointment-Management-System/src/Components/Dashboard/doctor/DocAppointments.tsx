@@ -5,9 +5,15 @@ import toast from 'react-hot-toast';
 import { Search, Check, X, Clock, Calendar, User } from 'lucide-react';
 import { useAuth } from '../../../Context/AuthContext';
 import type { Appointment } from '../../../api/types';
-import { getDoctorAppointments, updateAppointmentStatus } from '../../../api/appointmentService';
+import { getDoctorAppointmentsPage, updateAppointmentStatus } from '../../../api/appointmentService';
 import './Doc_Appointment.css';
 
+const PAGE_SIZE = 50;
+
+// The status filter is applied by the server, so it covers appointments not loaded yet
+const statusParam = (statusFilter: string) =>
+  statusFilter === 'ALL' ? undefined : [statusFilter as Appointment['status']];
+
 const DocAppointments: React.FC = () => {
   const { user } = useAuth();
   const navigate = useNavigate();
@@ -16,22 +22,41 @@ const DocAppointments: React.FC = () => {
   const [searchTerm, setSearchTerm] = useState('');
   const [statusFilter, setStatusFilter] = useState('ALL');
   const [isLoading, setIsLoading] = useState(true);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  const [isLoadingMore, setIsLoadingMore] = useState(false);
 
-  // Fetch appointments
+  // Fetch the first page of appointments
   const fetchAppointments = useCallback(async () => {
     if (!user) return;
     setIsLoading(true);
     try {
-      const appointmentsData = await getDoctorAppointments();
-      setAppointments(appointmentsData);
-      setFilteredAppointments(appointmentsData);
+      const page = await getDoctorAppointmentsPage({ status: statusParam(statusFilter), size: PAGE_SIZE });
+      setAppointments(page.appointments);
+      setFilteredAppointments(page.appointments);
+      setNextCursor(page.nextCursor);
     } catch (error) {
       toast.error('Failed to fetch appointments.');
       console.error('Error fetching appointments:', error);
     } finally {
       setIsLoading(false);
     }
-  }, [user]);
+  }, [user, statusFilter]);
+
+  // Append the next page
+  const loadMore = async () => {
+    if (!nextCursor) return;
+    setIsLoadingMore(true);
+    try {
+      const page = await getDoctorAppointmentsPage({ status: statusParam(statusFilter), cursor: nextCursor, size: PAGE_SIZE });
+      setAppointments(prev => [...prev, ...page.appointments]);
+      setNextCursor(page.nextCursor);
+    } catch (error) {
+      toast.error('Failed to fetch more appointments.');
+      console.error('Error fetching appointments:', error);
+    } finally {
+      setIsLoadingMore(false);
+    }
+  };
 
   useEffect(() => {
     fetchAppointments();
@@ -229,6 +254,13 @@ const DocAppointments: React.FC = () => {
           </tbody>
         </table>
       </div>
+      {nextCursor && (
+        <div className="load-more-container">
+          <button className="btn-load-more" onClick={loadMore} disabled={isLoadingMore}>
+            {isLoadingMore ? 'Loading...' : 'Load more appointments'}
+          </button>
+        </div>
+      )}
     </div>
   );
 };
@@ -1,5 +1,5 @@
 import axiosInstance from "../utils/axios";
-import type { Appointment, BookAppointmentPayload, UpdateAppointmentPayload, UpdateAppointmentStatusPayload } from "./types";
+import type { Appointment, AppointmentFeedParams, AppointmentPage, BookAppointmentPayload, UpdateAppointmentPayload, UpdateAppointmentStatusPayload } from "./types";
 
 /**
  * Books a new appointment for the logged-in patient.
@@ -10,10 +10,15 @@ const bookAppointment = async (payload: BookAppointmentPayload): Promise<Appoint
 };
 
 /**
- * Fetches all appointments for the currently logged-in doctor.
+ * Fetches one page of the logged-in doctor's appointments, past and future unless a
+ * date window is given. Pass the page's nextCursor back to get the following page.
  */
-const getDoctorAppointments = async (): Promise<Appointment[]> => {
-  const response = await axiosInstance.get('/api/appointments/doctor');
+const getDoctorAppointmentsPage = async (params: AppointmentFeedParams = {}): Promise<AppointmentPage> => {
+  const response = await axiosInstance.get('/api/appointments/doctor', {
+    params,
+    // Repeated status=... rather than status[]=...
+    paramsSerializer: { indexes: null },
+  });
   return response.data.data;
 };
 
@@ -67,4 +72,4 @@ const cancelPatientAppointment = async (appointmentId: number): Promise<Appointm
     return response.data.data;
 };
 
-export { bookAppointment, getDoctorAppointments, updateAppointmentStatus, getUpcomingPatientAppointments, getPatientAppointmentHistory, updateAppointmentReason, cancelPatientAppointment };
\ No newline at end of file
+export { bookAppointment, getDoctorAppointmentsPage, updateAppointmentStatus, getUpcomingPatientAppointments, getPatientAppointmentHistory, updateAppointmentReason, cancelPatientAppointment };
\ No newline at end of file
@@ -264,6 +264,26 @@ export interface Appointment {
   reason: string;
 }
 
+/**
+ * One page of the doctor's appointment feed.
+ */
+export interface AppointmentPage {
+  appointments: Appointment[];
+  // Pass back as "cursor" for the next page; null on the last page
+  nextCursor: string | null;
+}
+
+/**
+ * Query parameters of the doctor's appointment feed.
+ */
+export interface AppointmentFeedParams {
+  from?: string;
+  to?: string;
+  status?: Appointment['status'][];
+  cursor?: string;
+  size?: number;
+}
+
 /**
  * Represents a notification object received from the backend.
  */
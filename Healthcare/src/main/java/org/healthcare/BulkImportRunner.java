@@ -0,0 +1,54 @@
+package org.healthcare;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.healthcare.dto.ImportReportDto;
+import org.healthcare.service.BulkImportService;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Command-line bulk import. Runs only when started with --import.file, then exits:
+ *
+ *   java -jar HealthCare.jar --spring.main.web-application-type=none --import.file=patients.csv
+ *
+ * Files ending in .json are read as a JSON array, anything else as CSV.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class BulkImportRunner implements ApplicationRunner {
+
+    private final BulkImportService bulkImportService;
+    private final ApplicationContext applicationContext;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!args.containsOption("import.file")) {
+            return;
+        }
+        Path file = Path.of(args.getOptionValues("import.file").get(0));
+        ImportReportDto report;
+        try (InputStream input = Files.newInputStream(file)) {
+            report = file.getFileName().toString().toLowerCase().endsWith(".json")
+                    ? bulkImportService.importJson(input)
+                    : bulkImportService.importCsv(input);
+        }
+
+        log.info("Imported {} of {} rows from {} in {} ms ({} rows/s), {} failed",
+                report.getImported(), report.getTotalRows(), file, report.getElapsedMs(),
+                report.getRowsPerSecond(), report.getFailed());
+        report.getErrors().forEach(error ->
+                log.warn("Row {} ({}): {}", error.getRow(), error.getEmail(), error.getMessage()));
+
+        int exitCode = report.getFailed() == 0 ? 0 : 1;
+        System.exit(SpringApplication.exit(applicationContext, () -> exitCode));
+    }
+}
@@ -0,0 +1,150 @@
+package org.healthcare.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.healthcare.events.DoctorDirectoryChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Enumeration;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Fully serialized, and optionally gzip-compressed, bodies of read-only public responses.
+ * A hit is written straight to the servlet output stream: no DTOs, no ApiResponse, no
+ * Jackson and no compression on the request thread.
+ *
+ * Entries are keyed by URL and by the version of the data they were built from, so a
+ * request can never be served bytes older than the data it sees, whatever order change
+ * listeners run in. Change events then drop the superseded entries.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResponseBodyCache {
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${response-cache.max-entries:1000}")
+    private long maxEntries;
+
+    // Smaller bodies are sent as is; gzip would barely shrink them
+    @Value("${response-cache.gzip-min-bytes:1024}")
+    private int gzipMinBytes;
+
+    private Cache<String, Entry> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "responseBodyCache");
+    }
+
+    /**
+     * Serializes the value once per URL and version.
+     * @param version Changes whenever the data behind the response changes.
+     */
+    public void writeValue(HttpServletRequest request, HttpServletResponse response, String version,
+                           Supplier<?> value) throws IOException {
+        write(request, response, version, () -> {
+            try {
+                return objectMapper.writeValueAsBytes(value.get());
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize cached response", e);
+            }
+        });
+    }
+
+    /**
+     * Like writeValue, for bodies that are already JSON.
+     */
+    public void write(HttpServletRequest request, HttpServletResponse response, String version,
+                      Supplier<byte[]> json) throws IOException {
+        String key = request.getRequestURI() + (request.getQueryString() != null ? "?" + request.getQueryString() : "") + "#" + version;
+        Entry entry = cache.get(key, k -> Entry.of(json.get(), gzipMinBytes));
+
+        boolean gzip = entry.gzipped() != null && acceptsGzip(request);
+        // The two encodings are different representations, so they get different strong ETags
+        String etag = gzip ? entry.etag().replaceFirst("\"$", "-gzip\"") : entry.etag();
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+        byte[] body = gzip ? entry.gzipped() : entry.body();
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDoctorDirectoryChanged(DoctorDirectoryChangedEvent event) {
+        cache.invalidateAll();
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        Enumeration<String> headers = request.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+        while (headers.hasMoreElements()) {
+            for (String coding : headers.nextElement().split(",")) {
+                String[] parts = coding.trim().split(";");
+                if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                    return parts.length < 2 || !parts[1].replace(" ", "").equalsIgnoreCase("q=0");
+                }
+            }
+        }
+        return false;
+    }
+
+    private record Entry(byte[] body, byte[] gzipped, String etag) {
+
+        static Entry of(byte[] body, int gzipMinBytes) {
+            return new Entry(body, body.length >= gzipMinBytes ? gzip(body) : null, etag(body));
+        }
+
+        private static byte[] gzip(byte[] body) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+
+        private static String etag(byte[] body) {
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+                return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16)) + "\"";
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.healthcare.controller;
+
+import org.healthcare.dto.ImportReportDto;
+import org.healthcare.service.BulkImportService;
+import org.healthcare.response.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@Slf4j
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminImportController {
+
+    private final BulkImportService bulkImportService;
+
+    /**
+     * Bulk-imports patients and doctors. The body is streamed, so files of any size can be sent.
+     * Send text/csv with a header row, or application/json with an array of objects;
+     * both use the field names of ImportUserRowDto.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<ApiResponse<ImportReportDto>> importUsers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        ImportReportDto report = MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType))
+                ? bulkImportService.importJson(body)
+                : bulkImportService.importCsv(body);
+        log.info("Bulk import finished: {} of {} rows imported, {} failed, {} rows/s",
+                report.getImported(), report.getTotalRows(), report.getFailed(), report.getRowsPerSecond());
+        return ResponseEntity.ok(ApiResponse.success(report));
+    }
+}
@@ -3,16 +3,24 @@ package org.healthcare.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.healthcare.dto.AppointmentDto;
+import org.healthcare.dto.AppointmentPageDto;
 import org.healthcare.dto.BookAppointmentDto;
+import org.healthcare.dto.HoldSlotDto;
+import org.healthcare.dto.SlotHoldDto;
 import org.healthcare.dto.UpdateAppointmentStatusDto;
+import org.healthcare.metrics.QueryBudget;
+import org.healthcare.models.Appointment;
 import org.healthcare.models.User;
 import org.healthcare.response.ApiResponse;
 import org.healthcare.service.AppointmentService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -31,11 +39,43 @@ public class AppointmentController {
         return new ResponseEntity<>(ApiResponse.success(appointment), HttpStatus.CREATED);
     }
 
+    /**
+     * Holds a free slot for a few minutes while the patient completes the booking. Book
+     * with the returned holdId before expiresAt to keep the slot.
+     */
+    @PostMapping("/holds")
+    public ResponseEntity<ApiResponse<SlotHoldDto>> holdSlot(
+            @AuthenticationPrincipal User patientUser,
+            @Valid @RequestBody HoldSlotDto holdDetails) {
+        SlotHoldDto hold = appointmentService.holdSlot(patientUser, holdDetails);
+        return new ResponseEntity<>(ApiResponse.success(hold), HttpStatus.CREATED);
+    }
+
+    @DeleteMapping("/holds/{holdId}")
+    public ResponseEntity<ApiResponse<String>> releaseHold(
+            @AuthenticationPrincipal User patientUser,
+            @PathVariable String holdId) {
+        appointmentService.releaseHold(patientUser, holdId);
+        return ResponseEntity.ok(ApiResponse.success("Hold released."));
+    }
+
+    /**
+     * The doctor's appointments, past and future, or within from/to, in date and time order.
+     * Repeat status to filter on several. Pass nextCursor back for the next page; it is null
+     * on the last one.
+     */
     @GetMapping("/doctor")
     @PreAuthorize("hasRole('DOCTOR')")
-    public ResponseEntity<ApiResponse<List<AppointmentDto>>> getDoctorAppointments(@AuthenticationPrincipal User doctorUser) {
-        List<AppointmentDto> appointments = appointmentService.getAppointmentsForDoctor(doctorUser);
-        return ResponseEntity.ok(ApiResponse.success(appointments));
+    @QueryBudget(2)
+    public ResponseEntity<ApiResponse<AppointmentPageDto>> getDoctorAppointments(
+            @AuthenticationPrincipal User doctorUser,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) List<Appointment.Status> status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        AppointmentPageDto page = appointmentService.getAppointmentsForDoctor(doctorUser, from, to, status, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(page));
     }
 
     @PatchMapping("/{appointmentId}/status")
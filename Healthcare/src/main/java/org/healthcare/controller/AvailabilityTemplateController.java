@@ -0,0 +1,84 @@
+package org.healthcare.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.healthcare.dto.availability.AvailabilityExceptionDto;
+import org.healthcare.dto.availability.AvailabilityTemplateDto;
+import org.healthcare.dto.availability.CreateAvailabilityExceptionDto;
+import org.healthcare.dto.availability.CreateAvailabilityTemplateDto;
+import org.healthcare.models.User;
+import org.healthcare.response.ApiResponse;
+import org.healthcare.service.AvailabilityTemplateService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Weekly recurring availability and the days off that suspend it. Slots are generated
+ * from these automatically; see SlotMaterializer.
+ */
+@RestController
+@RequestMapping("/api/doctors/availability")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('DOCTOR')")
+public class AvailabilityTemplateController {
+
+    private final AvailabilityTemplateService templateService;
+
+    @PostMapping("/templates")
+    public ResponseEntity<ApiResponse<AvailabilityTemplateDto>> createTemplate(
+            @AuthenticationPrincipal User doctorUser,
+            @Valid @RequestBody CreateAvailabilityTemplateDto createDto) {
+        AvailabilityTemplateDto template = templateService.createTemplate(doctorUser, createDto);
+        return new ResponseEntity<>(ApiResponse.success(template), HttpStatus.CREATED);
+    }
+
+    @GetMapping("/templates")
+    public ResponseEntity<ApiResponse<List<AvailabilityTemplateDto>>> getTemplates(
+            @AuthenticationPrincipal User doctorUser) {
+        return ResponseEntity.ok(ApiResponse.success(templateService.getTemplates(doctorUser)));
+    }
+
+    @PutMapping("/templates/{templateId}")
+    public ResponseEntity<ApiResponse<AvailabilityTemplateDto>> updateTemplate(
+            @AuthenticationPrincipal User doctorUser,
+            @PathVariable Long templateId,
+            @Valid @RequestBody CreateAvailabilityTemplateDto updateDto) {
+        AvailabilityTemplateDto template = templateService.updateTemplate(doctorUser, templateId, updateDto);
+        return ResponseEntity.ok(ApiResponse.success(template));
+    }
+
+    @DeleteMapping("/templates/{templateId}")
+    public ResponseEntity<ApiResponse<String>> deleteTemplate(
+            @AuthenticationPrincipal User doctorUser,
+            @PathVariable Long templateId) {
+        templateService.deleteTemplate(doctorUser, templateId);
+        return ResponseEntity.ok(ApiResponse.success("Availability template deleted successfully."));
+    }
+
+    @PostMapping("/exceptions")
+    public ResponseEntity<ApiResponse<AvailabilityExceptionDto>> addException(
+            @AuthenticationPrincipal User doctorUser,
+            @Valid @RequestBody CreateAvailabilityExceptionDto createDto) {
+        AvailabilityExceptionDto exception = templateService.addException(doctorUser, createDto);
+        return new ResponseEntity<>(ApiResponse.success(exception), HttpStatus.CREATED);
+    }
+
+    @GetMapping("/exceptions")
+    public ResponseEntity<ApiResponse<List<AvailabilityExceptionDto>>> getExceptions(
+            @AuthenticationPrincipal User doctorUser) {
+        return ResponseEntity.ok(ApiResponse.success(templateService.getExceptions(doctorUser)));
+    }
+
+    @DeleteMapping("/exceptions/{exceptionId}")
+    public ResponseEntity<ApiResponse<String>> deleteException(
+            @AuthenticationPrincipal User doctorUser,
+            @PathVariable Long exceptionId) {
+        templateService.deleteException(doctorUser, exceptionId);
+        return ResponseEntity.ok(ApiResponse.success("Availability exception deleted successfully."));
+    }
+}
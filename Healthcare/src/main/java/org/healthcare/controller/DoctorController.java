@@ -3,20 +3,39 @@ package org.healthcare.controller;
 import org.healthcare.dto.ChangePasswordDto;
 import org.healthcare.dto.DoctorProfileDto;
 import org.healthcare.dto.UpdateDoctorProfileDto;
-import org.healthcare.dto.DoctorPublicProfileDto;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.healthcare.cache.ResponseBodyCache;
+import org.healthcare.dto.DoctorDirectoryPageDto;
+import org.healthcare.directory.CachedResponse;
+import org.healthcare.directory.DoctorDirectory;
+import org.healthcare.directory.DoctorFacetIndex;
+import org.healthcare.directory.DoctorLeaderboard;
+import org.healthcare.directory.DoctorSearchIndex;
 import org.healthcare.dto.DoctorDto;
+import org.healthcare.dto.DoctorFacetResultDto;
+import org.healthcare.dto.availability.EarliestSlotDto;
+import org.healthcare.dto.availability.FreeSlotDto;
+import org.healthcare.metrics.QueryBudget;
+import org.healthcare.scheduling.EarliestSlotIndex;
+import org.healthcare.service.DoctorAvailabilityService;
 import org.healthcare.service.DoctorService;
 import org.healthcare.response.ApiResponse;
 import org.healthcare.models.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/doctors")
@@ -25,13 +44,26 @@ import java.util.List;
 public class DoctorController {
 
     private final DoctorService doctorService;
+    private final DoctorDirectory doctorDirectory;
+    private final DoctorLeaderboard doctorLeaderboard;
+    private final DoctorSearchIndex doctorSearchIndex;
+    private final DoctorFacetIndex doctorFacetIndex;
+    private final ResponseBodyCache responseBodyCache;
+    private final DoctorAvailabilityService availabilityService;
+    private final EarliestSlotIndex earliestSlotIndex;
 
+    /**
+     * Read from the in-memory leaderboard and serialized once per leaderboard version.
+     */
     @GetMapping("/top-rated")
-    public ResponseEntity<ApiResponse<List<DoctorDto>>> getTopRatedDoctors() {
-        log.info("Request received for /api/doctors/top-rated");
-        List<DoctorDto> topDoctors = doctorService.getTopRatedDoctors();
-        log.info("Successfully fetched {} top-rated doctors.", topDoctors.size());
-        return ResponseEntity.ok(ApiResponse.success(topDoctors));
+    @QueryBudget(0)
+    public void getTopRatedDoctors(
+            @RequestParam(defaultValue = "3") int limit,
+            @RequestParam(required = false) String specialization,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        responseBodyCache.writeValue(request, response, doctorLeaderboard.getVersionTag(),
+                () -> ApiResponse.success(doctorLeaderboard.top(limit, specialization)));
     }
 
     @GetMapping("/me")
@@ -59,9 +91,93 @@ public class DoctorController {
         return ResponseEntity.ok(ApiResponse.success("Password changed successfully."));
     }
 
+    /**
+     * Serves the public directory from its in-memory snapshot, already serialized. A client
+     * that sends back the ETag it already has gets a 304 without any database or
+     * serialization work.
+     */
     @GetMapping("/all")
-    public ResponseEntity<ApiResponse<List<DoctorPublicProfileDto>>> getAllDoctors() {
-        List<DoctorPublicProfileDto> doctors = doctorService.getAllDoctorsForPatients();
-        return ResponseEntity.ok(ApiResponse.success(doctors));
+    @QueryBudget(0)
+    public void getAllDoctors(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        CachedResponse snapshot = doctorDirectory.current().getAllDoctorsResponse();
+        responseBodyCache.write(request, response, snapshot.getEtag(), snapshot::getBody);
+    }
+
+    /**
+     * Paged, filterable directory for clients that cannot take the whole of /all.
+     * Follow nextCursor until it is null.
+     */
+    @GetMapping("/directory")
+    @QueryBudget(2)
+    public ResponseEntity<ApiResponse<DoctorDirectoryPageDto>> getDoctorDirectory(
+            @RequestParam(required = false) String specialization,
+            @RequestParam(required = false) Integer minExp,
+            @RequestParam(required = false) Float minRating,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate availableOn,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        DoctorDirectoryPageDto page = doctorService.getDoctorDirectoryPage(specialization, minExp, minRating, availableOn, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(page));
+    }
+
+    /**
+     * Search by name, specialization or qualification; also suits typeahead, since the last
+     * word matches as a prefix. Answered from memory.
+     */
+    @GetMapping("/search")
+    @QueryBudget(0)
+    public ResponseEntity<ApiResponse<List<DoctorDto>>> searchDoctors(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(ApiResponse.success(doctorSearchIndex.search(q, limit)));
+    }
+
+    /**
+     * Combined filters with a count for every facet value, answered from the bitmap index.
+     * Repeat a parameter to select several values of one facet, e.g.
+     * ?specialization=Cardiology&specialization=Neurology&rating=4.5-5&availability=next-7-days
+     */
+    @GetMapping("/facets")
+    @QueryBudget(0)
+    public ResponseEntity<ApiResponse<DoctorFacetResultDto>> filterDoctors(
+            @RequestParam(required = false) List<String> specialization,
+            @RequestParam(required = false) List<String> experience,
+            @RequestParam(required = false) List<String> rating,
+            @RequestParam(required = false) List<String> availability,
+            @RequestParam(defaultValue = "20") int limit) {
+        Map<String, List<String>> selected = new HashMap<>();
+        selected.put(DoctorFacetIndex.SPECIALIZATION, specialization);
+        selected.put(DoctorFacetIndex.EXPERIENCE, experience);
+        selected.put(DoctorFacetIndex.RATING, rating);
+        selected.put(DoctorFacetIndex.AVAILABILITY, availability);
+        return ResponseEntity.ok(ApiResponse.success(doctorFacetIndex.filter(selected, limit)));
+    }
+
+    /**
+     * Whoever is free first: the earliest bookable slot of each of the first doctors with
+     * one, optionally within a specialization and a date range. Answered from memory.
+     */
+    @GetMapping("/earliest-slots")
+    @QueryBudget(0)
+    public ResponseEntity<ApiResponse<List<EarliestSlotDto>>> getEarliestSlots(
+            @RequestParam(required = false) String specialization,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "10") int count) {
+        return ResponseEntity.ok(ApiResponse.success(earliestSlotIndex.earliest(specialization, from, to, count)));
+    }
+
+    /**
+     * The doctor's earliest bookable slots of the given length, answered from the slot calendar.
+     */
+    @GetMapping("/{doctorId}/free-slots")
+    @QueryBudget(0)
+    public ResponseEntity<ApiResponse<List<FreeSlotDto>>> getNextFreeSlots(
+            @PathVariable Long doctorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(defaultValue = "5") int count,
+            @RequestParam(defaultValue = "30") int minutes) {
+        List<FreeSlotDto> slots = availabilityService.getNextFreeSlots(doctorId, from != null ? from : LocalDate.now(), count, minutes);
+        return ResponseEntity.ok(ApiResponse.success(slots));
     }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package org.healthcare.controller;
 import lombok.RequiredArgsConstructor;
 import org.healthcare.dto.PatientForDoctorDto;
 import org.healthcare.dto.PatientHistoryDto;
+import org.healthcare.metrics.QueryBudget;
 import org.healthcare.models.User;
 import org.healthcare.response.ApiResponse;
 import org.healthcare.service.DoctorPatientService;
@@ -21,12 +22,14 @@ public class DoctorPatientController {
     private final DoctorPatientService doctorPatientService;
 
     @GetMapping("/patients")
+    @QueryBudget(2)
     public ResponseEntity<ApiResponse<List<PatientForDoctorDto>>> getMyPatients(@AuthenticationPrincipal User doctorUser) {
         List<PatientForDoctorDto> patients = doctorPatientService.getAssociatedPatients(doctorUser);
         return ResponseEntity.ok(ApiResponse.success(patients));
     }
 
     @GetMapping("/patients/{patientId}/history")
+    @QueryBudget(4)
     public ResponseEntity<ApiResponse<PatientHistoryDto>> getPatientHistory(
             @AuthenticationPrincipal User doctorUser,
             @PathVariable Long patientId) {
@@ -0,0 +1,30 @@
+package org.healthcare.controller;
+
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/internal")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class InternalMetricsController {
+
+    private static final String PROMETHEUS_TEXT = "text/plain;version=0.0.4;charset=utf-8";
+
+    private final PrometheusMeterRegistry prometheusMeterRegistry;
+
+    /**
+     * All application meters in Prometheus text format: per-route request histograms
+     * (http_server_requests_seconds), per service method histograms and error counts
+     * (service_method_seconds, service_method_errors_total), plus the cache and pool meters.
+     */
+    @GetMapping(value = "/metrics", produces = PROMETHEUS_TEXT)
+    public ResponseEntity<String> metrics() {
+        return ResponseEntity.ok(prometheusMeterRegistry.scrape());
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.healthcare.dto.AppointmentDto;
 import org.healthcare.dto.UpdateAppointmentDto;
+import org.healthcare.metrics.QueryBudget;
 import org.healthcare.models.User;
 import org.healthcare.response.ApiResponse;
 import org.healthcare.service.AppointmentService;
@@ -23,12 +24,14 @@ public class PatientAppointmentController {
     private final AppointmentService appointmentService;
 
     @GetMapping("/upcoming")
+    @QueryBudget(2)
     public ResponseEntity<ApiResponse<List<AppointmentDto>>> getUpcomingAppointments(@AuthenticationPrincipal User patientUser) {
         List<AppointmentDto> appointments = appointmentService.getUpcomingAppointmentsForPatient(patientUser);
         return ResponseEntity.ok(ApiResponse.success(appointments));
     }
 
     @GetMapping("/history")
+    @QueryBudget(2)
     public ResponseEntity<ApiResponse<List<AppointmentDto>>> getAppointmentHistory(@AuthenticationPrincipal User patientUser) {
         List<AppointmentDto> appointments = appointmentService.getAppointmentHistoryForPatient(patientUser);
         return ResponseEntity.ok(ApiResponse.success(appointments));
@@ -2,6 +2,7 @@ package org.healthcare.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.healthcare.dto.ConsultationDto;
+import org.healthcare.metrics.QueryBudget;
 import org.healthcare.models.User;
 import org.healthcare.response.ApiResponse;
 import org.healthcare.service.ConsultationService;
@@ -21,6 +22,7 @@ public class PatientConsultationController {
     private final ConsultationService consultationService;
 
     @GetMapping
+    @QueryBudget(2)
     public ResponseEntity<ApiResponse<List<ConsultationDto>>> getAllMyConsultations(@AuthenticationPrincipal User patientUser) {
         List<ConsultationDto> consultations = consultationService.getAllConsultationsForPatient(patientUser);
         return ResponseEntity.ok(ApiResponse.success(consultations));
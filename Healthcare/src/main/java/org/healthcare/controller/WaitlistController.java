@@ -0,0 +1,50 @@
+package org.healthcare.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.healthcare.dto.JoinWaitlistDto;
+import org.healthcare.dto.WaitlistEntryDto;
+import org.healthcare.models.User;
+import org.healthcare.response.ApiResponse;
+import org.healthcare.service.WaitlistService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Waiting for a slot with a fully booked doctor. When one frees up it is held for the
+ * patient, who gets a notification with the hold to book it with.
+ */
+@RestController
+@RequestMapping("/api/waitlist")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('PATIENT')")
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<WaitlistEntryDto>> joinWaitlist(
+            @AuthenticationPrincipal User patientUser,
+            @Valid @RequestBody JoinWaitlistDto joinDetails) {
+        WaitlistEntryDto entry = waitlistService.joinWaitlist(patientUser, joinDetails);
+        return new ResponseEntity<>(ApiResponse.success(entry), HttpStatus.CREATED);
+    }
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<WaitlistEntryDto>>> getMyWaitlist(@AuthenticationPrincipal User patientUser) {
+        return ResponseEntity.ok(ApiResponse.success(waitlistService.getMyWaitlist(patientUser)));
+    }
+
+    @DeleteMapping("/{waitlistId}")
+    public ResponseEntity<ApiResponse<String>> leaveWaitlist(
+            @PathVariable Long waitlistId,
+            @AuthenticationPrincipal User patientUser) {
+        waitlistService.leaveWaitlist(waitlistId, patientUser);
+        return ResponseEntity.ok(ApiResponse.success("You have left the waitlist."));
+    }
+}
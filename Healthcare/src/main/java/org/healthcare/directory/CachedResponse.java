@@ -0,0 +1,14 @@
+package org.healthcare.directory;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A fully serialized response body and its strong ETag.
+ */
+@Getter
+@AllArgsConstructor
+public class CachedResponse {
+    private final byte[] body;
+    private final String etag;
+}
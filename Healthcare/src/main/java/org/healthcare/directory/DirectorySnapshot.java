@@ -0,0 +1,22 @@
+package org.healthcare.directory;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.healthcare.dto.DoctorPublicProfileDto;
+
+import java.util.SortedMap;
+
+/**
+ * One immutable version of the public doctor directory. Readers take a reference to the
+ * current snapshot and never see it change; updates build a new snapshot.
+ */
+@Getter
+@AllArgsConstructor
+public class DirectorySnapshot {
+    private final long version;
+    // Keyed and ordered by doctor id
+    private final SortedMap<Long, DoctorPublicProfileDto> doctors;
+    // Each doctor's serialized JSON, reused by later snapshots when the doctor is unchanged
+    private final SortedMap<Long, byte[]> fragments;
+    private final CachedResponse allDoctorsResponse;
+}
@@ -0,0 +1,150 @@
+package org.healthcare.directory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.healthcare.dto.DoctorPublicProfileDto;
+import org.healthcare.events.DoctorDirectoryChangedEvent;
+import org.healthcare.service.DoctorService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * In-memory copy of the public doctor directory behind /api/doctors/all. The response
+ * is serialized once per change, with a strong ETag, so serving them touches neither the database nor the serializer.
+ *
+ * When a doctor changes, only that doctor is reloaded and re-serialized; the response is
+ * then reassembled from the per-doctor fragments. The whole directory is reloaded at
+ * startup, after bulk changes, and daily, when the oldest slots drop out of "upcoming".
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class DoctorDirectory {
+
+    private final DoctorService doctorService;
+    private final ObjectMapper objectMapper;
+
+    private volatile DirectorySnapshot snapshot;
+
+    public DirectorySnapshot current() {
+        DirectorySnapshot current = snapshot;
+        return current != null ? current : rebuild();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${directory.rebuild-cron:0 0 0 * * *}")
+    public synchronized DirectorySnapshot rebuild() {
+        SortedMap<Long, DoctorPublicProfileDto> doctors = new TreeMap<>();
+        for (DoctorPublicProfileDto doctor : doctorService.getAllDoctorsForPatients()) {
+            doctors.put(doctor.getId(), doctor);
+        }
+        SortedMap<Long, byte[]> fragments = new TreeMap<>();
+        doctors.forEach((id, doctor) -> fragments.put(id, serialize(doctor)));
+
+        DirectorySnapshot rebuilt = publish(doctors, fragments);
+        log.info("Doctor directory rebuilt: version {}, {} doctors", rebuilt.getVersion(), doctors.size());
+        return rebuilt;
+    }
+
+    /**
+     * Runs after the change has committed, so the reload sees it.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onDoctorDirectoryChanged(DoctorDirectoryChangedEvent event) {
+        if (event.getDoctorId() == null || snapshot == null) {
+            rebuild();
+            return;
+        }
+        SortedMap<Long, DoctorPublicProfileDto> doctors = new TreeMap<>(snapshot.getDoctors());
+        SortedMap<Long, byte[]> fragments = new TreeMap<>(snapshot.getFragments());
+        Optional<DoctorPublicProfileDto> doctor = doctorService.getDoctorForPatients(event.getDoctorId());
+        if (doctor.isPresent()) {
+            doctors.put(event.getDoctorId(), doctor.get());
+            fragments.put(event.getDoctorId(), serialize(doctor.get()));
+        } else {
+            doctors.remove(event.getDoctorId());
+            fragments.remove(event.getDoctorId());
+        }
+        DirectorySnapshot refreshed = publish(doctors, fragments);
+        log.debug("Doctor directory refreshed for doctor {}: version {}", event.getDoctorId(), refreshed.getVersion());
+    }
+
+    private DirectorySnapshot publish(SortedMap<Long, DoctorPublicProfileDto> doctors, SortedMap<Long, byte[]> fragments) {
+        DirectorySnapshot previous = snapshot;
+        long version = previous != null ? previous.getVersion() + 1 : 1;
+
+        byte[] allDoctorsData = joinArray(fragments.values());
+        DirectorySnapshot next = new DirectorySnapshot(version,
+                Collections.unmodifiableSortedMap(doctors),
+                Collections.unmodifiableSortedMap(fragments),
+                envelope(allDoctorsData, previous != null ? previous.getAllDoctorsResponse() : null));
+        snapshot = next;
+        return next;
+    }
+
+    /**
+     * Wraps the data in the ApiResponse success envelope. If the data is byte-for-byte what
+     * the previous snapshot served, the previous response (timestamp and ETag) is kept, so a
+     * rebuild that changes nothing does not invalidate clients' caches.
+     */
+    private CachedResponse envelope(byte[] data, CachedResponse previous) {
+        String etag = etag(data);
+        if (previous != null && previous.getEtag().equals(etag)) {
+            return previous;
+        }
+        ByteArrayOutputStream body = new ByteArrayOutputStream(data.length + 64);
+        body.writeBytes(("{\"success\":true,\"timestamp\":\"" + Instant.now() + "\",\"data\":").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(data);
+        body.write('}');
+        return new CachedResponse(body.toByteArray(), etag);
+    }
+
+    private static byte[] joinArray(Iterable<byte[]> elements) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write('[');
+        boolean first = true;
+        for (byte[] element : elements) {
+            if (!first) {
+                out.write(',');
+            }
+            out.writeBytes(element);
+            first = false;
+        }
+        out.write(']');
+        return out.toByteArray();
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize doctor directory", e);
+        }
+    }
+
+    private static String etag(byte[] data) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(data);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
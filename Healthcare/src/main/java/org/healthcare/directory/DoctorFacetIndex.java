@@ -0,0 +1,353 @@
+package org.healthcare.directory;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.healthcare.dto.DoctorDto;
+import org.healthcare.dto.DoctorFacetResultDto;
+import org.healthcare.events.DoctorDirectoryChangedEvent;
+import org.healthcare.models.Doctor;
+import org.healthcare.repository.DoctorAvailabilityRepository;
+import org.healthcare.repository.DoctorRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Bitmap index for combined doctor filters with facet counts. Doctors are numbered
+ * densely and every facet value (a specialization, an experience range, a rating range,
+ * "available in the next 7 days") holds one bit per doctor. Values selected within a
+ * facet are OR-ed, facets are AND-ed, and each count is the cardinality of an
+ * intersection, computed word by word without building the intersection.
+ *
+ * Bitmaps are never modified once published: an update copies the few bitmaps it touches
+ * and swaps in a new state, so filters run without locks against a consistent view.
+ * At 50k doctors a bitmap is about 6 KB, so plain words are used rather than a
+ * compressed format.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class DoctorFacetIndex {
+
+    public static final String SPECIALIZATION = "specialization";
+    public static final String EXPERIENCE = "experience";
+    public static final String RATING = "rating";
+    public static final String AVAILABILITY = "availability";
+    public static final String NEXT_7_DAYS = "next-7-days";
+
+    private static final List<String> FACETS = List.of(SPECIALIZATION, EXPERIENCE, RATING, AVAILABILITY);
+
+    private static final int AVAILABILITY_WINDOW_DAYS = 7;
+    private static final int MAX_LIMIT = 100;
+
+    private static final Comparator<Entry> BY_RATING =
+            Comparator.comparing(Entry::rating).thenComparing(Entry::id, Comparator.reverseOrder());
+
+    private final DoctorRepository doctorRepository;
+    private final DoctorAvailabilityRepository availabilityRepository;
+
+    // Writer-side bookkeeping; guarded by this
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+
+    private volatile State state = new State(new Entry[0], 0, new long[0], Map.of());
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${directory.rebuild-cron:0 0 0 * * *}")
+    public void rebuild() {
+        LocalDate today = LocalDate.now();
+        Set<Long> availableSoon = new HashSet<>(availabilityRepository.findDoctorIdsAvailableBetween(
+                today, today.plusDays(AVAILABILITY_WINDOW_DAYS - 1)));
+        load(doctorRepository.findAll(), availableSoon);
+    }
+
+    /**
+     * Replaces the whole index.
+     * @param availableSoon Ids of the doctors with a free slot in the next 7 days.
+     */
+    public synchronized void load(List<Doctor> doctors, Set<Long> availableSoon) {
+        Entry[] entries = new Entry[Math.max(16, doctors.size())];
+        long[] live = new long[words(entries.length)];
+        Map<String, Map<String, long[]>> facets = new HashMap<>();
+        ordinals.clear();
+        for (int ordinal = 0; ordinal < doctors.size(); ordinal++) {
+            Entry entry = Entry.of(doctors.get(ordinal), availableSoon.contains(doctors.get(ordinal).getId()));
+            entries[ordinal] = entry;
+            ordinals.put(entry.id(), ordinal);
+            int bit = ordinal;
+            live[bit >>> 6] |= 1L << bit;
+            entry.values().forEach((facet, value) -> {
+                long[] bitmap = facets.computeIfAbsent(facet, key -> new HashMap<>())
+                        .computeIfAbsent(value, key -> new long[words(entries.length)]);
+                bitmap[bit >>> 6] |= 1L << bit;
+            });
+        }
+        state = new State(entries, doctors.size(), live, freeze(facets));
+        log.info("Doctor facet index loaded with {} doctors", doctors.size());
+    }
+
+    /**
+     * Runs after the change has committed, so the reload sees it.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDoctorDirectoryChanged(DoctorDirectoryChangedEvent event) {
+        if (event.getDoctorId() == null) {
+            rebuild();
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        doctorRepository.findById(event.getDoctorId()).ifPresentOrElse(
+                doctor -> put(doctor, availabilityRepository.existsByDoctorIdAndDateBetweenAndIsAvailableTrue(
+                        doctor.getId(), today, today.plusDays(AVAILABILITY_WINDOW_DAYS - 1))),
+                () -> remove(event.getDoctorId()));
+    }
+
+    public synchronized void put(Doctor doctor, boolean availableSoon) {
+        State current = state;
+        Entry entry = Entry.of(doctor, availableSoon);
+        Integer existing = ordinals.get(entry.id());
+        int ordinal = existing != null ? existing : current.size();
+        Entry previous = existing != null ? current.entries()[ordinal] : null;
+
+        Entry[] entries = current.entries();
+        if (ordinal == entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+        } else if (existing != null) {
+            entries = entries.clone();
+        }
+        entries[ordinal] = entry;
+        ordinals.put(entry.id(), ordinal);
+        long[] live = Arrays.copyOf(current.live(), words(entries.length));
+        live[ordinal >>> 6] |= 1L << ordinal;
+        state = new State(entries, Math.max(current.size(), ordinal + 1), live,
+                move(current.facets(), ordinal, previous != null ? previous.values() : Map.of(), entry.values(), entries.length));
+    }
+
+    public synchronized void remove(Long doctorId) {
+        Integer ordinal = ordinals.remove(doctorId);
+        if (ordinal == null) {
+            return;
+        }
+        State current = state;
+        Entry[] entries = current.entries().clone();
+        Entry previous = entries[ordinal];
+        entries[ordinal] = null;
+        long[] live = current.live().clone();
+        live[ordinal >>> 6] &= ~(1L << ordinal);
+        state = new State(entries, current.size(), live, move(current.facets(), ordinal, previous.values(), Map.of(), entries.length));
+    }
+
+    /**
+     * @param selected facet -> selected values; facets left out or empty do not filter.
+     * @param limit How many of the matching doctors to return, best rated first.
+     */
+    public DoctorFacetResultDto filter(Map<String, ? extends Collection<String>> selected, int limit) {
+        if (limit < 0 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 0 and " + MAX_LIMIT + ".");
+        }
+        State current = state;
+        int words = current.live().length;
+
+        // One bitmap per filtering facet: the OR of its selected values
+        Map<String, long[]> filters = new HashMap<>();
+        selected.forEach((facet, values) -> {
+            if (values == null || values.isEmpty()) {
+                return;
+            }
+            if (!FACETS.contains(facet)) {
+                throw new IllegalArgumentException("Unknown facet: " + facet);
+            }
+            Map<String, long[]> facetValues = current.facets().getOrDefault(facet, Map.of());
+            long[] union = new long[words];
+            for (String value : values) {
+                long[] bitmap = facetValues.get(value);
+                if (bitmap != null) {
+                    for (int i = 0; i < bitmap.length && i < words; i++) {
+                        union[i] |= bitmap[i];
+                    }
+                }
+            }
+            filters.put(facet, union);
+        });
+
+        // Counts for a facet ignore that facet's own selection, so the other values stay choosable
+        Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+        for (String facet : FACETS) {
+            long[] others = intersect(current.live(), filters, facet);
+            Map<String, Integer> valueCounts = new TreeMap<>();
+            current.facets().getOrDefault(facet, Map.of())
+                    .forEach((value, bitmap) -> valueCounts.put(value, andCardinality(others, bitmap)));
+            counts.put(facet, valueCounts);
+        }
+
+        long[] matches = intersect(current.live(), filters, null);
+        int total = 0;
+        PriorityQueue<Entry> best = new PriorityQueue<>(limit + 1, BY_RATING);
+        for (int i = 0; i < matches.length; i++) {
+            long word = matches[i];
+            total += Long.bitCount(word);
+            while (word != 0 && limit > 0) {
+                Entry entry = current.entries()[(i << 6) + Long.numberOfTrailingZeros(word)];
+                word &= word - 1;
+                best.add(entry);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+        List<Entry> top = new ArrayList<>(best);
+        top.sort(BY_RATING.reversed());
+        return DoctorFacetResultDto.builder()
+                .total(total)
+                .doctors(top.stream().map(Entry::toDto).toList())
+                .facets(counts)
+                .build();
+    }
+
+    /**
+     * AND of the live doctors and every filter except the one for the excluded facet.
+     * Bitmaps may be shorter than the live one; missing words are zero.
+     */
+    private static long[] intersect(long[] live, Map<String, long[]> filters, String excludedFacet) {
+        long[] result = live.clone();
+        for (Map.Entry<String, long[]> filter : filters.entrySet()) {
+            if (filter.getKey().equals(excludedFacet)) {
+                continue;
+            }
+            long[] bitmap = filter.getValue();
+            for (int i = 0; i < result.length; i++) {
+                result[i] &= i < bitmap.length ? bitmap[i] : 0;
+            }
+        }
+        return result;
+    }
+
+    private static int andCardinality(long[] filter, long[] bitmap) {
+        int count = 0;
+        for (int i = 0, words = Math.min(filter.length, bitmap.length); i < words; i++) {
+            count += Long.bitCount(filter[i] & bitmap[i]);
+        }
+        return count;
+    }
+
+    private static boolean isEmpty(long[] bitmap) {
+        for (long word : bitmap) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copies the facet maps, and only the bitmaps whose bit for this doctor changes.
+     */
+    private static Map<String, Map<String, long[]>> move(Map<String, Map<String, long[]>> facets, int ordinal,
+                                                          Map<String, String> from, Map<String, String> to, int capacity) {
+        Map<String, Map<String, long[]>> next = new HashMap<>(facets);
+        Set<String> changedFacets = new HashSet<>(from.keySet());
+        changedFacets.addAll(to.keySet());
+        for (String facet : changedFacets) {
+            String oldValue = from.get(facet);
+            String newValue = to.get(facet);
+            if (oldValue != null && oldValue.equals(newValue)) {
+                continue;
+            }
+            Map<String, long[]> values = new HashMap<>(next.getOrDefault(facet, Map.of()));
+            if (oldValue != null) {
+                long[] bitmap = Arrays.copyOf(values.get(oldValue), words(capacity));
+                bitmap[ordinal >>> 6] &= ~(1L << ordinal);
+                if (isEmpty(bitmap)) {
+                    values.remove(oldValue);
+                } else {
+                    values.put(oldValue, bitmap);
+                }
+            }
+            if (newValue != null) {
+                long[] bitmap = Arrays.copyOf(values.getOrDefault(newValue, new long[0]), words(capacity));
+                bitmap[ordinal >>> 6] |= 1L << ordinal;
+                values.put(newValue, bitmap);
+            }
+            next.put(facet, Map.copyOf(values));
+        }
+        return Map.copyOf(next);
+    }
+
+    private static Map<String, Map<String, long[]>> freeze(Map<String, Map<String, long[]>> facets) {
+        Map<String, Map<String, long[]>> frozen = new HashMap<>();
+        facets.forEach((facet, values) -> frozen.put(facet, Map.copyOf(values)));
+        return Map.copyOf(frozen);
+    }
+
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    static String experienceBucket(int exp) {
+        if (exp < 5) {
+            return "0-4";
+        }
+        if (exp < 10) {
+            return "5-9";
+        }
+        return exp < 20 ? "10-19" : "20-plus";
+    }
+
+    static String ratingBucket(float rating) {
+        if (rating < 3) {
+            return "0-3";
+        }
+        if (rating < 4) {
+            return "3-4";
+        }
+        return rating < 4.5f ? "4-4.5" : "4.5-5";
+    }
+
+    /**
+     * @param size Ordinals handed out so far; entries may be longer, with spare room.
+     */
+    private record State(Entry[] entries, int size, long[] live, Map<String, Map<String, long[]>> facets) {
+    }
+
+    private record Entry(long id, String name, String specialization, float rating, int exp, Map<String, String> values) {
+
+        static Entry of(Doctor doctor, boolean availableSoon) {
+            Map<String, String> values = new HashMap<>();
+            if (doctor.getSpecialization() != null && !doctor.getSpecialization().isBlank()) {
+                values.put(SPECIALIZATION, doctor.getSpecialization());
+            }
+            values.put(EXPERIENCE, experienceBucket(doctor.getExp()));
+            values.put(RATING, ratingBucket(doctor.getRating()));
+            if (availableSoon) {
+                values.put(AVAILABILITY, NEXT_7_DAYS);
+            }
+            return new Entry(doctor.getId(), doctor.getName(), doctor.getSpecialization(),
+                    doctor.getRating(), doctor.getExp(), Map.copyOf(values));
+        }
+
+        DoctorDto toDto() {
+            return DoctorDto.builder()
+                    .id(id)
+                    .name(name)
+                    .specialization(specialization)
+                    .rating(rating)
+                    .exp(exp)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package org.healthcare.directory;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.healthcare.dto.DoctorDto;
+import org.healthcare.events.DoctorDirectoryChangedEvent;
+import org.healthcare.models.Doctor;
+import org.healthcare.repository.DoctorRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Doctors ordered by rating (highest first, then by id), overall and per specialization,
+ * kept in skip lists so the top N is read by walking N entries without touching the
+ * database. Loaded from the table at startup; a changed doctor is moved in place, while a
+ * full reload is built off to the side and swapped in whole. The version behind the ETag
+ * only moves when what the leaderboard serves changes, not on every directory event:
+ * bookings and availability edits publish those too.
+ *
+ * Writers are serialized. Readers never block: while a doctor is being moved they may
+ * briefly miss that doctor, but never see them twice.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class DoctorLeaderboard {
+
+    private static final Comparator<Entry> ORDER =
+            Comparator.comparing(Entry::rating, Comparator.reverseOrder()).thenComparing(Entry::id);
+
+    private static final int MAX_LIMIT = 100;
+
+    private final DoctorRepository doctorRepository;
+
+    private volatile Rankings rankings = new Rankings();
+
+    // Identifies the leaderboard's content for ETags; the start time keeps it unique across restarts
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong version = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        List<Doctor> doctors = doctorRepository.findAll();
+        Rankings rebuilt = new Rankings();
+        doctors.forEach(doctor -> rebuilt.put(Entry.of(doctor)));
+        if (rebuilt.byId.equals(rankings.byId)) {
+            return;
+        }
+        rankings = rebuilt;
+        version.incrementAndGet();
+        log.info("Doctor leaderboard loaded with {} doctors", doctors.size());
+    }
+
+    /**
+     * Runs after the change has committed, so the reload sees it.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onDoctorDirectoryChanged(DoctorDirectoryChangedEvent event) {
+        if (event.getDoctorId() == null) {
+            rebuild();
+            return;
+        }
+        Rankings current = rankings;
+        Entry next = doctorRepository.findById(event.getDoctorId()).map(Entry::of).orElse(null);
+        if (Objects.equals(current.byId.get(event.getDoctorId()), next)) {
+            return;
+        }
+        current.remove(event.getDoctorId());
+        if (next != null) {
+            current.put(next);
+        }
+        version.incrementAndGet();
+    }
+
+    /**
+     * The highest rated doctors, optionally within one specialization.
+     * @param limit How many to return.
+     * @param specialization Exact specialization, or null for all doctors.
+     */
+    public List<DoctorDto> top(int limit, String specialization) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT + ".");
+        }
+        Rankings current = rankings;
+        NavigableSet<Entry> ranking = specialization == null ? current.overall : current.bySpecialization.get(specialization);
+        if (ranking == null) {
+            return List.of();
+        }
+        List<DoctorDto> top = new ArrayList<>(limit);
+        Iterator<Entry> entries = ranking.iterator();
+        while (top.size() < limit && entries.hasNext()) {
+            top.add(entries.next().toDto());
+        }
+        return top;
+    }
+
+    public String getVersionTag() {
+        return epoch + "-" + version.get();
+    }
+
+    private static final class Rankings {
+        private final NavigableSet<Entry> overall = new ConcurrentSkipListSet<>(ORDER);
+        private final Map<String, NavigableSet<Entry>> bySpecialization = new ConcurrentHashMap<>();
+        private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+
+        void put(Entry entry) {
+            byId.put(entry.id(), entry);
+            if (entry.specialization() != null) {
+                bySpecialization.computeIfAbsent(entry.specialization(), key -> new ConcurrentSkipListSet<>(ORDER)).add(entry);
+            }
+            overall.add(entry);
+        }
+
+        void remove(Long doctorId) {
+            Entry entry = byId.remove(doctorId);
+            if (entry == null) {
+                return;
+            }
+            overall.remove(entry);
+            if (entry.specialization() != null) {
+                NavigableSet<Entry> ranking = bySpecialization.get(entry.specialization());
+                if (ranking != null) {
+                    ranking.remove(entry);
+                }
+            }
+        }
+    }
+
+    private record Entry(long id, float rating, String name, String specialization, int exp) {
+
+        static Entry of(Doctor doctor) {
+            return new Entry(doctor.getId(), doctor.getRating(), doctor.getName(), doctor.getSpecialization(), doctor.getExp());
+        }
+
+        DoctorDto toDto() {
+            return DoctorDto.builder()
+                    .id(id)
+                    .name(name)
+                    .specialization(specialization)
+                    .rating(rating)
+                    .exp(exp)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,457 @@
+package org.healthcare.directory;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.healthcare.dto.DoctorDto;
+import org.healthcare.events.DoctorDirectoryChangedEvent;
+import org.healthcare.models.Doctor;
+import org.healthcare.repository.DoctorRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over doctors' name, specialization and qualification for the public
+ * search endpoint. Every query word must match (AND); the last word also matches as a
+ * prefix, for typeahead, and words of four letters or more tolerate one typo. Matches in
+ * the name weigh more than in the specialization, which weigh more than in the
+ * qualification, and the total is boosted by rating.
+ *
+ * Doctors are numbered densely and each term's posting list is a sorted int array, so a
+ * query scores its candidates in flat arrays rather than maps. Posting lists are replaced,
+ * never modified, so searches need no locks; writers are serialized. A full reload is
+ * built off to the side and swapped in whole.
+ *
+ * Typos are found with a deletion index: every term is also filed under each variant
+ * with one letter removed, so a misspelt word meets its term through a shared variant
+ * instead of being compared against the whole vocabulary.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class DoctorSearchIndex {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final byte NAME_WEIGHT = 3;
+    private static final byte SPECIALIZATION_WEIGHT = 2;
+    private static final byte QUALIFICATION_WEIGHT = 1;
+
+    private static final float EXACT_MATCH = 1.0f;
+    private static final float PREFIX_MATCH = 0.8f;
+    private static final float TYPO_MATCH = 0.6f;
+    // A 5-star doctor scores up to half as much again as an unrated one with the same matches
+    private static final float RATING_BOOST = 0.5f;
+
+    private static final int MIN_TYPO_LENGTH = 4;
+    // Bounds the work of a one-letter prefix; terms are taken in alphabetical order
+    private static final int MAX_PREFIX_TERMS = 64;
+    private static final int MAX_LIMIT = 50;
+
+    private static final Comparator<Ranked> BY_RELEVANCE = Comparator.comparingDouble(Ranked::score)
+            .thenComparing(ranked -> ranked.entry().rating())
+            .thenComparing(ranked -> -ranked.entry().id());
+
+    private final DoctorRepository doctorRepository;
+
+    private volatile Index index = new Index(new Entry[0]);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        load(doctorRepository.findAll());
+    }
+
+    /**
+     * Replaces the whole index. Builds posting lists in one pass instead of growing them
+     * doctor by doctor.
+     */
+    public synchronized void load(List<Doctor> doctors) {
+        Entry[] loaded = new Entry[doctors.size()];
+        Map<String, List<int[]>> terms = new TreeMap<>();
+        for (int ordinal = 0; ordinal < loaded.length; ordinal++) {
+            loaded[ordinal] = Entry.of(doctors.get(ordinal));
+            for (Map.Entry<String, Byte> term : loaded[ordinal].terms().entrySet()) {
+                terms.computeIfAbsent(term.getKey(), key -> new ArrayList<>()).add(new int[]{ordinal, term.getValue()});
+            }
+        }
+
+        Index built = new Index(loaded);
+        terms.forEach((term, docs) -> {
+            int[] docOrdinals = new int[docs.size()];
+            byte[] weights = new byte[docs.size()];
+            for (int i = 0; i < docs.size(); i++) {
+                docOrdinals[i] = docs.get(i)[0];
+                weights[i] = (byte) docs.get(i)[1];
+            }
+            addTerm(built, term, new Postings(docOrdinals, weights));
+        });
+        for (int ordinal = 0; ordinal < loaded.length; ordinal++) {
+            built.ordinals.put(loaded[ordinal].id(), ordinal);
+        }
+        built.size = loaded.length;
+        index = built;
+        log.info("Doctor search index loaded with {} doctors and {} terms", loaded.length, built.postings.size());
+    }
+
+    /**
+     * Runs after the change has committed, so the reload sees it.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDoctorDirectoryChanged(DoctorDirectoryChangedEvent event) {
+        if (event.getDoctorId() == null) {
+            rebuild();
+            return;
+        }
+        doctorRepository.findById(event.getDoctorId())
+                .ifPresentOrElse(this::put, () -> remove(event.getDoctorId()));
+    }
+
+    public synchronized void put(Doctor doctor) {
+        Index current = index;
+        Entry entry = Entry.of(doctor);
+        Integer existing = current.ordinals.get(entry.id());
+        int ordinal;
+        if (existing != null) {
+            ordinal = existing;
+            removeTerms(current, ordinal, current.entries[ordinal]);
+        } else {
+            ordinal = current.size++;
+            if (ordinal == current.entries.length) {
+                current.entries = Arrays.copyOf(current.entries, Math.max(16, ordinal * 2));
+            }
+            current.ordinals.put(entry.id(), ordinal);
+        }
+        current.entries[ordinal] = entry;
+        for (Map.Entry<String, Byte> term : entry.terms().entrySet()) {
+            Postings termPostings = current.postings.get(term.getKey());
+            if (termPostings == null) {
+                addTerm(current, term.getKey(), new Postings(new int[]{ordinal}, new byte[]{term.getValue()}));
+            } else {
+                current.postings.put(term.getKey(), termPostings.with(ordinal, term.getValue()));
+            }
+        }
+    }
+
+    public synchronized void remove(Long doctorId) {
+        Index current = index;
+        Integer ordinal = current.ordinals.remove(doctorId);
+        if (ordinal != null) {
+            removeTerms(current, ordinal, current.entries[ordinal]);
+            current.entries[ordinal] = null;
+        }
+    }
+
+    /**
+     * @param query Free text as typed by the user.
+     * @param limit Maximum number of results, up to 50.
+     * @return The best matching doctors, most relevant first.
+     */
+    public List<DoctorDto> search(String query, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT + ".");
+        }
+        List<String> words = tokenize(query);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        Index current = index;
+        Entry[] docs = current.entries;
+
+        // Per word, each doctor's best match; the word with the fewest postings drives the scan
+        float[][] wordScores = new float[words.size()][];
+        List<Postings> driver = null;
+        int driverIndex = 0;
+        int driverSize = Integer.MAX_VALUE;
+        for (int w = 0; w < words.size(); w++) {
+            Map<Postings, Float> matched = matchTerms(current, words.get(w), w == words.size() - 1);
+            if (matched.isEmpty()) {
+                return List.of();
+            }
+            float[] scores = new float[docs.length];
+            int matchedSize = 0;
+            for (Map.Entry<Postings, Float> term : matched.entrySet()) {
+                Postings p = term.getKey();
+                float quality = term.getValue();
+                for (int i = 0; i < p.ordinals.length; i++) {
+                    int ordinal = p.ordinals[i];
+                    if (ordinal < scores.length) {
+                        scores[ordinal] = Math.max(scores[ordinal], quality * p.weights[i]);
+                    }
+                }
+                matchedSize += p.ordinals.length;
+            }
+            wordScores[w] = scores;
+            if (matchedSize < driverSize) {
+                driver = new ArrayList<>(matched.keySet());
+                driverIndex = w;
+                driverSize = matchedSize;
+            }
+        }
+
+        PriorityQueue<Ranked> best = new PriorityQueue<>(limit + 1, BY_RELEVANCE);
+        float[] driverScores = wordScores[driverIndex];
+        for (Postings p : driver) {
+            for (int ordinal : p.ordinals) {
+                if (ordinal >= driverScores.length || driverScores[ordinal] == 0) {
+                    continue;
+                }
+                float total = 0;
+                for (float[] scores : wordScores) {
+                    if (scores[ordinal] == 0) {
+                        total = 0;
+                        break;
+                    }
+                    total += scores[ordinal];
+                }
+                // A doctor may sit in several of the driver's terms; score them once
+                driverScores[ordinal] = 0;
+                Entry entry = docs[ordinal];
+                if (total == 0 || entry == null) {
+                    continue;
+                }
+                double score = total * (1 + RATING_BOOST * entry.rating() / 5);
+                if (best.size() == limit && score < best.peek().score()) {
+                    continue;
+                }
+                best.add(new Ranked(entry, score));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+        List<Ranked> ranked = new ArrayList<>(best);
+        ranked.sort(BY_RELEVANCE.reversed());
+        return ranked.stream().map(r -> r.entry().toDto()).toList();
+    }
+
+    private static Map<Postings, Float> matchTerms(Index index, String word, boolean isLast) {
+        Map<Postings, Float> matched = new HashMap<>();
+        Postings exact = index.postings.get(word);
+        if (exact != null) {
+            matched.put(exact, EXACT_MATCH);
+        }
+        if (isLast) {
+            int expanded = 0;
+            for (Postings prefixed : index.postings.subMap(word, false, word + Character.MAX_VALUE, false).values()) {
+                matched.put(prefixed, PREFIX_MATCH);
+                if (++expanded == MAX_PREFIX_TERMS) {
+                    break;
+                }
+            }
+        }
+        if (word.length() >= MIN_TYPO_LENGTH) {
+            Set<String> candidates = new HashSet<>();
+            for (String variant : variants(word)) {
+                candidates.addAll(index.deletions.getOrDefault(variant, Set.of()));
+            }
+            for (String candidate : candidates) {
+                Postings typo = index.postings.get(candidate);
+                if (typo != null && !matched.containsKey(typo) && isOneEditAway(word, candidate)) {
+                    matched.put(typo, TYPO_MATCH);
+                }
+            }
+        }
+        return matched;
+    }
+
+    private static void addTerm(Index index, String term, Postings termPostings) {
+        index.postings.put(term, termPostings);
+        for (String variant : variants(term)) {
+            index.deletions.computeIfAbsent(variant, key -> ConcurrentHashMap.newKeySet()).add(term);
+        }
+    }
+
+    private static void removeTerms(Index index, int ordinal, Entry entry) {
+        for (String term : entry.terms().keySet()) {
+            Postings current = index.postings.get(term);
+            if (current == null) {
+                continue;
+            }
+            Postings remaining = current.without(ordinal);
+            if (remaining.ordinals.length > 0) {
+                index.postings.put(term, remaining);
+                continue;
+            }
+            index.postings.remove(term);
+            for (String variant : variants(term)) {
+                Set<String> terms = index.deletions.get(variant);
+                if (terms != null) {
+                    terms.remove(term);
+                    if (terms.isEmpty()) {
+                        index.deletions.remove(variant);
+                    }
+                }
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        List<String> words = new ArrayList<>();
+        for (String word : NON_WORD.split(folded)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * The word itself and every string with one character removed.
+     */
+    private static Set<String> variants(String word) {
+        Set<String> variants = new HashSet<>(word.length() + 1);
+        variants.add(word);
+        for (int i = 0; i < word.length(); i++) {
+            variants.add(word.substring(0, i) + word.substring(i + 1));
+        }
+        return variants;
+    }
+
+    /**
+     * True if one insertion, deletion, substitution or swap of adjacent letters turns a into b.
+     */
+    static boolean isOneEditAway(String a, String b) {
+        int lengthDifference = a.length() - b.length();
+        if (Math.abs(lengthDifference) > 1) {
+            return false;
+        }
+        int prefix = 0;
+        while (prefix < a.length() && prefix < b.length() && a.charAt(prefix) == b.charAt(prefix)) {
+            prefix++;
+        }
+        if (lengthDifference > 0) {
+            return a.substring(prefix + 1).equals(b.substring(prefix));
+        }
+        if (lengthDifference < 0) {
+            return a.substring(prefix).equals(b.substring(prefix + 1));
+        }
+        if (prefix == a.length()) {
+            return true;
+        }
+        if (a.substring(prefix + 1).equals(b.substring(prefix + 1))) {
+            return true;
+        }
+        return prefix + 1 < a.length()
+                && a.charAt(prefix) == b.charAt(prefix + 1)
+                && a.charAt(prefix + 1) == b.charAt(prefix)
+                && a.substring(prefix + 2).equals(b.substring(prefix + 2));
+    }
+
+    /**
+     * The doctors that have a term, by ascending position, with the weight of the best
+     * field the term appears in for each.
+     */
+    /**
+     * Everything a search reads, published together so a reload never shows half an index.
+     */
+    private static final class Index {
+        private final NavigableMap<String, Postings> postings = new ConcurrentSkipListMap<>();
+        // term, and each of its one-deletion variants -> terms
+        private final Map<String, Set<String>> deletions = new ConcurrentHashMap<>();
+        // doctor id -> position in entries; positions of removed doctors are not reused
+        private final Map<Long, Integer> ordinals = new ConcurrentHashMap<>();
+        private volatile Entry[] entries;
+        private int size;
+
+        private Index(Entry[] entries) {
+            this.entries = entries;
+        }
+    }
+
+    private static final class Postings {
+        private final int[] ordinals;
+        private final byte[] weights;
+
+        private Postings(int[] ordinals, byte[] weights) {
+            this.ordinals = ordinals;
+            this.weights = weights;
+        }
+
+        Postings with(int ordinal, byte weight) {
+            int at = Arrays.binarySearch(ordinals, ordinal);
+            if (at >= 0) {
+                byte[] newWeights = weights.clone();
+                newWeights[at] = weight;
+                return new Postings(ordinals, newWeights);
+            }
+            int insertAt = -at - 1;
+            int[] newOrdinals = new int[ordinals.length + 1];
+            byte[] newWeights = new byte[weights.length + 1];
+            System.arraycopy(ordinals, 0, newOrdinals, 0, insertAt);
+            System.arraycopy(weights, 0, newWeights, 0, insertAt);
+            newOrdinals[insertAt] = ordinal;
+            newWeights[insertAt] = weight;
+            System.arraycopy(ordinals, insertAt, newOrdinals, insertAt + 1, ordinals.length - insertAt);
+            System.arraycopy(weights, insertAt, newWeights, insertAt + 1, weights.length - insertAt);
+            return new Postings(newOrdinals, newWeights);
+        }
+
+        Postings without(int ordinal) {
+            int at = Arrays.binarySearch(ordinals, ordinal);
+            if (at < 0) {
+                return this;
+            }
+            int[] newOrdinals = new int[ordinals.length - 1];
+            byte[] newWeights = new byte[weights.length - 1];
+            System.arraycopy(ordinals, 0, newOrdinals, 0, at);
+            System.arraycopy(weights, 0, newWeights, 0, at);
+            System.arraycopy(ordinals, at + 1, newOrdinals, at, ordinals.length - at - 1);
+            System.arraycopy(weights, at + 1, newWeights, at, weights.length - at - 1);
+            return new Postings(newOrdinals, newWeights);
+        }
+    }
+
+    private record Entry(long id, String name, String specialization, float rating, int exp, Map<String, Byte> terms) {
+
+        static Entry of(Doctor doctor) {
+            Map<String, Byte> terms = new HashMap<>();
+            addTerms(terms, doctor.getName(), NAME_WEIGHT);
+            addTerms(terms, doctor.getSpecialization(), SPECIALIZATION_WEIGHT);
+            addTerms(terms, doctor.getQualification(), QUALIFICATION_WEIGHT);
+            return new Entry(doctor.getId(), doctor.getName(), doctor.getSpecialization(),
+                    doctor.getRating(), doctor.getExp(), Map.copyOf(terms));
+        }
+
+        private static void addTerms(Map<String, Byte> terms, String text, byte weight) {
+            for (String term : tokenize(text)) {
+                terms.merge(term, weight, (a, b) -> (byte) Math.max(a, b));
+            }
+        }
+
+        DoctorDto toDto() {
+            return DoctorDto.builder()
+                    .id(id)
+                    .name(name)
+                    .specialization(specialization)
+                    .rating(rating)
+                    .exp(exp)
+                    .build();
+        }
+    }
+
+    private record Ranked(Entry entry, double score) {
+    }
+}
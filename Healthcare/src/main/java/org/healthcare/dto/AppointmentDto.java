@@ -1,5 +1,6 @@
 package org.healthcare.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import org.healthcare.models.Appointment;
@@ -8,6 +9,7 @@ import java.time.LocalDate;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class AppointmentDto {
     private Long appointmentId;
     private Long doctorId;
@@ -21,4 +21,7 @@ public class BookAppointmentDto {
 
     @NotBlank(message = "Reason for visit is required")
     private String reason;
+
+    // Optional: books the slot held at checkout, which must be this doctor, date and time slot
+    private String holdId;
 }
\ No newline at end of file
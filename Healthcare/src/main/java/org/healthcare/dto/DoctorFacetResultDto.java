@@ -0,0 +1,22 @@
+package org.healthcare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DoctorFacetResultDto {
+    // Doctors matching every filter
+    private int total;
+    // The best rated of them, up to the requested limit
+    private List<DoctorDto> doctors;
+    // facet -> value -> matches if that value were selected, given the other facets' filters
+    private Map<String, Map<String, Integer>> facets;
+}
@@ -0,0 +1,21 @@
+package org.healthcare.dto;
+
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class HoldSlotDto {
+    @NotNull(message = "Doctor ID is required")
+    private Long doctorId;
+
+    @NotNull(message = "Date is required")
+    @FutureOrPresent(message = "Appointment date cannot be in the past")
+    private LocalDate date;
+
+    @NotBlank(message = "Time slot is required")
+    private String timeSlot;
+}
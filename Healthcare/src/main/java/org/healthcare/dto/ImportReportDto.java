@@ -0,0 +1,33 @@
+package org.healthcare.dto;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportReportDto {
+    private int totalRows;
+    private int imported;
+    private int failed;
+    private long elapsedMs;
+    private long rowsPerSecond;
+    // Capped; "failed" always holds the full count
+    private List<RowError> errors;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RowError {
+        // CSV line number, or position in the JSON array (both 1-based)
+        private long row;
+        private String email;
+        private String message;
+    }
+}
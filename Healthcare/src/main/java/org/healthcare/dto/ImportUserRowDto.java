@@ -0,0 +1,37 @@
+package org.healthcare.dto;
+
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+import org.healthcare.models.Patient;
+import org.healthcare.models.Role;
+
+import java.time.LocalDate;
+
+/**
+ * One user in a bulk import file. Patient and doctor fields share the row;
+ * only the ones matching the role are used.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ImportUserRowDto {
+    private Role role;
+    private String email;
+    // Either a plain password or an existing BCrypt hash
+    private String password;
+    private String name;
+
+    // --- Patient fields ---
+    private Integer age;
+    private LocalDate dob;
+    private String bloodGroup;
+    private Long phoneNumber;
+    private String address;
+    private Patient.Gender gender;
+
+    // --- Doctor fields ---
+    private String specialization;
+    private Integer exp;
+    private String qualification;
+    private Float rating;
+}
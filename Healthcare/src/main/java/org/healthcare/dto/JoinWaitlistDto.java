@@ -0,0 +1,24 @@
+package org.healthcare.dto;
+
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class JoinWaitlistDto {
+    @NotNull(message = "Doctor ID is required")
+    private Long doctorId;
+
+    @NotNull(message = "Date is required")
+    @FutureOrPresent(message = "Date cannot be in the past")
+    private LocalDate date;
+
+    // Length of the slot wanted; 30 minutes if not given
+    @Min(value = 15, message = "A slot is at least 15 minutes")
+    @Max(value = 1440, message = "A slot is at most a day")
+    private Integer minutes;
+}
@@ -1,11 +1,13 @@
 package org.healthcare.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import org.healthcare.models.Patient;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class PatientForDoctorDto {
     private Long patientId;
     private String name;
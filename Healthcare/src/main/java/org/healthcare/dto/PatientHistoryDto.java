@@ -2,7 +2,6 @@ package org.healthcare.dto;
 
 import lombok.Builder;
 import lombok.Data;
-import org.healthcare.models.Patient;
 import java.util.List;
 
 @Data
@@ -12,9 +11,9 @@ public class PatientHistoryDto {
     private List<AppointmentDto> appointments;
     private List<ConsultationDto> consultations;
 
-    public static PatientHistoryDto from(Patient patient, List<AppointmentDto> appointments, List<ConsultationDto> consultations) {
+    public static PatientHistoryDto from(PatientProfileDto patientProfile, List<AppointmentDto> appointments, List<ConsultationDto> consultations) {
         return PatientHistoryDto.builder()
-                .patientProfile(PatientProfileDto.fromEntity(patient))
+                .patientProfile(patientProfile)
                 .appointments(appointments)
                 .consultations(consultations)
                 .build();
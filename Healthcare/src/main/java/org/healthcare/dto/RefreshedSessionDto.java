@@ -0,0 +1,17 @@
+package org.healthcare.dto;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RefreshedSessionDto {
+    private String refreshToken;
+    private String accessToken;
+    private UserInfoDto user;
+}
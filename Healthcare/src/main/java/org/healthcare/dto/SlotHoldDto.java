@@ -0,0 +1,29 @@
+package org.healthcare.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import org.healthcare.scheduling.SlotGrid;
+import org.healthcare.scheduling.SlotHold;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Data
+@Builder
+public class SlotHoldDto {
+    private String holdId;
+    private Long doctorId;
+    private LocalDate date;
+    private String timeSlot;
+    private Instant expiresAt;
+
+    public static SlotHoldDto fromHold(SlotHold hold) {
+        return SlotHoldDto.builder()
+                .holdId(hold.id())
+                .doctorId(hold.doctorId())
+                .date(hold.date())
+                .timeSlot(SlotGrid.format(hold.range()))
+                .expiresAt(hold.expiresAt())
+                .build();
+    }
+}
@@ -0,0 +1,37 @@
+package org.healthcare.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import org.healthcare.models.WaitlistEntry;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Data
+@Builder
+public class WaitlistEntryDto {
+    private Long waitlistId;
+    private Long doctorId;
+    private String doctorName;
+    private LocalDate date;
+    private Integer minutes;
+    private WaitlistEntry.Status status;
+    // Set when a slot has been offered; book it with this holdId before offerExpiresAt
+    private String holdId;
+    private String offeredTimeSlot;
+    private Instant offerExpiresAt;
+
+    public static WaitlistEntryDto fromEntity(WaitlistEntry entry) {
+        return WaitlistEntryDto.builder()
+                .waitlistId(entry.getWaitlistId())
+                .doctorId(entry.getDoctor().getId())
+                .doctorName(entry.getDoctor().getName())
+                .date(entry.getDate())
+                .minutes(entry.getMinutes())
+                .status(entry.getStatus())
+                .holdId(entry.getHoldId())
+                .offeredTimeSlot(entry.getOfferedTimeSlot())
+                .offerExpiresAt(entry.getOfferExpiresAt())
+                .build();
+    }
+}
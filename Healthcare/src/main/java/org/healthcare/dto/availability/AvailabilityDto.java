@@ -1,5 +1,6 @@
 package org.healthcare.dto.availability;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import org.healthcare.models.DoctorAvailability;
@@ -12,6 +13,7 @@ import java.time.LocalDate;
  */
 @Data
 @Builder
+@AllArgsConstructor
 public class AvailabilityDto {
     private Long availabilityId;
     private Long doctorId;
@@ -0,0 +1,25 @@
+package org.healthcare.dto.availability;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import org.healthcare.models.AvailabilityException;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class AvailabilityExceptionDto {
+    private Long exceptionId;
+    private LocalDate date;
+    private String reason;
+
+    public static AvailabilityExceptionDto fromEntity(AvailabilityException entity) {
+        return AvailabilityExceptionDto.builder()
+                .exceptionId(entity.getExceptionId())
+                .date(entity.getDate())
+                .reason(entity.getReason())
+                .build();
+    }
+}
@@ -0,0 +1,32 @@
+package org.healthcare.dto.availability;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import org.healthcare.models.AvailabilityTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class AvailabilityTemplateDto {
+    private Long templateId;
+    private DayOfWeek dayOfWeek;
+    private String timeSlot;
+    private Integer slotMinutes;
+    private LocalDate validFrom;
+    private LocalDate validUntil;
+
+    public static AvailabilityTemplateDto fromEntity(AvailabilityTemplate entity) {
+        return AvailabilityTemplateDto.builder()
+                .templateId(entity.getTemplateId())
+                .dayOfWeek(entity.getDayOfWeek())
+                .timeSlot(entity.getTimeSlot())
+                .slotMinutes(entity.getSlotMinutes())
+                .validFrom(entity.getValidFrom())
+                .validUntil(entity.getValidUntil())
+                .build();
+    }
+}
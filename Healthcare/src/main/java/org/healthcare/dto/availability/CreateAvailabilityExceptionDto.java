@@ -0,0 +1,16 @@
+package org.healthcare.dto.availability;
+
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class CreateAvailabilityExceptionDto {
+    @NotNull(message = "Date is required")
+    @FutureOrPresent(message = "Date cannot be in the past")
+    private LocalDate date;
+
+    private String reason;
+}
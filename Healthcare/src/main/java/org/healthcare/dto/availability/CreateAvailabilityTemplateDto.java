@@ -0,0 +1,28 @@
+package org.healthcare.dto.availability;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+@Data
+public class CreateAvailabilityTemplateDto {
+    @NotNull(message = "Day of week is required")
+    private DayOfWeek dayOfWeek;
+
+    @NotBlank(message = "Time slot is required")
+    private String timeSlot;
+
+    // Leave empty to offer the whole block as one slot
+    @Min(value = 15, message = "Slots must be at least 15 minutes")
+    @Max(value = 1440, message = "Slots cannot be longer than a day")
+    private Integer slotMinutes;
+
+    private LocalDate validFrom;
+
+    private LocalDate validUntil;
+}
@@ -0,0 +1,20 @@
+package org.healthcare.dto.availability;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * A bookable slot: inside the doctor's available hours and clear of active appointments.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class FreeSlotDto {
+    private LocalDate date;
+    private String timeSlot;
+}
@@ -0,0 +1,14 @@
+package org.healthcare.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a doctor's public profile or availability changes.
+ * A null doctorId means many doctors may have changed and the whole directory is stale.
+ */
+@Getter
+@AllArgsConstructor
+public class DoctorDirectoryChangedEvent {
+    private final Long doctorId;
+}
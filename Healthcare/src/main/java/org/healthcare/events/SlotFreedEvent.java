@@ -0,0 +1,19 @@
+package org.healthcare.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * Published when a slot that was taken becomes free again: an appointment is cancelled,
+ * or a hold expires or is given up. Waitlisted patients are offered the freed time.
+ */
+@Getter
+@AllArgsConstructor
+public class SlotFreedEvent {
+    private final Long doctorId;
+    private final LocalDate date;
+    // The hold that ended without a booking; null when an appointment was cancelled
+    private final String holdId;
+}
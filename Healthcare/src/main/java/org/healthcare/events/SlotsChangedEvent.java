@@ -0,0 +1,18 @@
+package org.healthcare.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * Published when a doctor's availability or active appointments on one day change.
+ * A null date means any of the doctor's days may have changed; a null doctorId means
+ * many doctors may have.
+ */
+@Getter
+@AllArgsConstructor
+public class SlotsChangedEvent {
+    private final Long doctorId;
+    private final LocalDate date;
+}
@@ -0,0 +1,16 @@
+package org.healthcare.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published whenever a user's credentials or linked profile change.
+ * Listeners use it to drop any cached view of that user.
+ */
+@Getter
+@AllArgsConstructor
+public class UserAccountChangedEvent {
+    private final Long userId;
+    private final String email;
+    private final int tokenVersion;
+}
@@ -0,0 +1,16 @@
+package org.healthcare.logging;
+
+/**
+ * One access-log entry. Instances are preallocated in the ring buffer and reused,
+ * so recording a request allocates nothing.
+ */
+final class AccessLogRecord {
+    long timestampMs;
+    String method;
+    String route;
+    int status;
+    long latencyNanos;
+    // -1 when the request was not authenticated
+    long userId;
+    long bytes;
+}
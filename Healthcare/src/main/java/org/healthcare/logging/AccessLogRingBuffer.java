@@ -0,0 +1,90 @@
+package org.healthcare.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free multi-producer, single-consumer ring buffer of access-log records.
+ * Each slot carries a sequence number: producers claim a position with one CAS and publish
+ * the slot by advancing its sequence; the consumer hands the slot back the same way.
+ * A producer that finds the buffer full gives up immediately instead of waiting.
+ */
+final class AccessLogRingBuffer {
+
+    private final AccessLogRecord[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+
+    // Only touched by the consumer thread
+    private long head;
+
+    AccessLogRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        slots = new AccessLogRecord[capacity];
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new AccessLogRecord();
+            sequences.set(i, i);
+        }
+        mask = capacity - 1;
+    }
+
+    /**
+     * @return false if the buffer was full and the record was not stored.
+     */
+    boolean offer(long timestampMs, String method, String route, int status, long latencyNanos, long userId, long bytes) {
+        long position;
+        int index;
+        while (true) {
+            position = tail.get();
+            index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+        }
+        AccessLogRecord record = slots[index];
+        record.timestampMs = timestampMs;
+        record.method = method;
+        record.route = route;
+        record.status = status;
+        record.latencyNanos = latencyNanos;
+        record.userId = userId;
+        record.bytes = bytes;
+        sequences.set(index, position + 1);
+        return true;
+    }
+
+    /**
+     * Returns the oldest published record without removing it, or null if there is none.
+     * The record stays valid until release() is called. Consumer thread only.
+     */
+    AccessLogRecord peek() {
+        int index = (int) (head & mask);
+        return sequences.get(index) == head + 1 ? slots[index] : null;
+    }
+
+    /**
+     * Hands the slot returned by peek() back to the producers. Consumer thread only.
+     */
+    void release() {
+        int index = (int) (head & mask);
+        slots[index].method = null;
+        slots[index].route = null;
+        sequences.set(index, head + slots.length);
+        head++;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+}
@@ -0,0 +1,212 @@
+package org.healthcare.logging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Structured access log. Request threads only copy a few fields into a preallocated
+ * ring buffer; a single background thread formats them as JSON lines and writes them to
+ * a size-rolled file. When the buffer is full the record is dropped and counted
+ * (access.log.dropped), so logging can never block a request.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class AccessLogWriter {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${access-log.enabled:true}")
+    private boolean enabled;
+
+    @Value("${access-log.file:logs/access.log}")
+    private String file;
+
+    @Value("${access-log.buffer-size:8192}")
+    private int bufferSize;
+
+    @Value("${access-log.max-file-size-mb:100}")
+    private long maxFileSizeMb;
+
+    @Value("${access-log.max-history:10}")
+    private int maxHistory;
+
+    private AccessLogRingBuffer buffer;
+    private Counter droppedCounter;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    // Writer-thread state
+    private Path path;
+    private Writer out;
+    private long fileSize;
+    private final StringBuilder line = new StringBuilder(256);
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        buffer = new AccessLogRingBuffer(bufferSize);
+        droppedCounter = Counter.builder("access.log.dropped")
+                .description("Access-log records dropped because the buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("access.log.buffer.size", buffer, AccessLogRingBuffer::size)
+                .register(meterRegistry);
+
+        path = Path.of(file);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        open();
+
+        running = true;
+        writerThread = new Thread(this::drainLoop, "access-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Access log writing to {} with a buffer of {} records", path.toAbsolutePath(), buffer.capacity());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writerThread);
+        writerThread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Records one request. Never blocks; drops the record if the writer has fallen behind.
+     */
+    public void record(String method, String route, int status, long latencyNanos, long userId, long bytes) {
+        if (buffer == null) {
+            return;
+        }
+        if (!buffer.offer(System.currentTimeMillis(), method, route, status, latencyNanos, userId, bytes)) {
+            droppedCounter.increment();
+        }
+    }
+
+    private void drainLoop() {
+        while (running) {
+            try {
+                if (drain() == 0) {
+                    out.flush();
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Access log write failed: {}", e.getMessage());
+                LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
+            }
+        }
+        try {
+            drain();
+            out.close();
+        } catch (IOException e) {
+            log.warn("Could not close access log: {}", e.getMessage());
+        }
+    }
+
+    private int drain() throws IOException {
+        int written = 0;
+        AccessLogRecord record;
+        while ((record = buffer.peek()) != null) {
+            format(record);
+            buffer.release();
+            out.append(line);
+            fileSize += line.length();
+            written++;
+            if (fileSize >= maxFileSizeMb * 1024 * 1024) {
+                roll();
+            }
+        }
+        return written;
+    }
+
+    private void format(AccessLogRecord record) {
+        line.setLength(0);
+        line.append("{\"ts\":\"");
+        DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(record.timestampMs), line);
+        line.append("\",\"method\":\"");
+        appendEscaped(record.method);
+        line.append("\",\"route\":\"");
+        appendEscaped(record.route);
+        line.append("\",\"status\":").append(record.status)
+                .append(",\"latencyMs\":").append(record.latencyNanos / 1_000_000)
+                .append('.').append((char) ('0' + record.latencyNanos / 100_000 % 10))
+                .append((char) ('0' + record.latencyNanos / 10_000 % 10));
+        if (record.userId >= 0) {
+            line.append(",\"userId\":").append(record.userId);
+        }
+        line.append(",\"bytes\":").append(record.bytes).append("}\n");
+    }
+
+    private void appendEscaped(String value) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < 0x20) {
+                line.append(String.format("\\u%04x", (int) c));
+            } else {
+                line.append(c);
+            }
+        }
+    }
+
+    /**
+     * access.log becomes access.log.1, access.log.1 becomes access.log.2, and so on;
+     * the oldest file beyond max-history is deleted.
+     */
+    private void roll() throws IOException {
+        out.close();
+        Files.deleteIfExists(historyFile(maxHistory));
+        for (int i = maxHistory - 1; i >= 1; i--) {
+            Path older = historyFile(i);
+            if (Files.exists(older)) {
+                Files.move(older, historyFile(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxHistory > 0) {
+            Files.move(path, historyFile(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.deleteIfExists(path);
+        }
+        open();
+    }
+
+    private Path historyFile(int index) {
+        return path.resolveSibling(path.getFileName() + "." + index);
+    }
+
+    private void open() throws IOException {
+        out = new BufferedWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024);
+        fileSize = Files.size(path);
+    }
+}
@@ -0,0 +1,19 @@
+package org.healthcare.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The number of SQL statements a handler method is expected to need per request.
+ * Going over it logs a warning, or fails the request when sql.query-budget.strict is set.
+ * Handlers without the annotation get sql.query-budget.default.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+    int value();
+}
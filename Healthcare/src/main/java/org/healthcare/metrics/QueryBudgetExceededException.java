@@ -0,0 +1,10 @@
+package org.healthcare.metrics;
+
+/**
+ * Thrown in strict mode by the statement that takes a request over its query budget.
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+    public QueryBudgetExceededException(int budget) {
+        super("Request exceeded its budget of " + budget + " SQL statements");
+    }
+}
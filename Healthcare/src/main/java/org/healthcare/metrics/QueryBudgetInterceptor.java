@@ -0,0 +1,69 @@
+package org.healthcare.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Tracks the SQL statements each handler runs and reports requests that go over their
+ * budget, and statements repeated often enough to look like an N+1 pattern.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class QueryBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    private static final int MAX_SQL_LENGTH = 200;
+
+    private final QueryCounter queryCounter;
+
+    @Value("${sql.query-budget.default:10}")
+    private int defaultBudget;
+
+    @Value("${sql.query-budget.repeat-threshold:3}")
+    private int repeatThreshold;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            QueryBudget budget = handlerMethod.getMethodAnnotation(QueryBudget.class);
+            queryCounter.start(budget != null ? budget.value() : defaultBudget);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // The rest of the work happens on another thread and cannot be counted here
+        queryCounter.stop();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        QueryCounter.Report report = queryCounter.stop();
+        if (report == null) {
+            return;
+        }
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (report.isOverBudget()) {
+            log.warn("{} {} ran {} SQL statements, over its budget of {}",
+                    request.getMethod(), route, report.getCount(), report.getBudget());
+        }
+        for (Map.Entry<String, Integer> statement : report.getRepeatedStatements(repeatThreshold)) {
+            log.warn("Suspected N+1 in {} {}: {} times: {}",
+                    request.getMethod(), route, statement.getValue(), abbreviate(statement.getKey()));
+        }
+    }
+
+    private static String abbreviate(String sql) {
+        return sql.length() <= MAX_SQL_LENGTH ? sql : sql.substring(0, MAX_SQL_LENGTH) + "...";
+    }
+}
@@ -0,0 +1,105 @@
+package org.healthcare.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a request is
+ * being tracked, and remembers how often each distinct statement ran. Statements are
+ * compared as prepared (with ? placeholders), so the same query run once per row of an
+ * earlier result shows up as one statement with a high count.
+ */
+@Component
+public class QueryCounter implements StatementInspector {
+
+    private static final ThreadLocal<Tracker> CURRENT = new ThreadLocal<>();
+
+    @Value("${sql.query-budget.strict:false}")
+    private boolean strict;
+
+    /**
+     * Starts counting on this thread, replacing any tracking left over from before.
+     */
+    public void start(int budget) {
+        CURRENT.set(new Tracker(budget, strict));
+    }
+
+    /**
+     * Stops counting on this thread.
+     * @return What ran since start(), or null if nothing was being tracked.
+     */
+    public Report stop() {
+        Tracker tracker = CURRENT.get();
+        CURRENT.remove();
+        return tracker != null ? new Report(tracker.count, tracker.budget, tracker.statements) : null;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Tracker tracker = CURRENT.get();
+        if (tracker != null) {
+            tracker.record(sql);
+        }
+        return sql;
+    }
+
+    private static final class Tracker {
+        private final int budget;
+        private final boolean strict;
+        private final Map<String, Integer> statements = new HashMap<>();
+        private int count;
+
+        Tracker(int budget, boolean strict) {
+            this.budget = budget;
+            this.strict = strict;
+        }
+
+        void record(String sql) {
+            count++;
+            statements.merge(sql, 1, Integer::sum);
+            // Fail only the first statement over budget, so error handling can still query
+            if (strict && count == budget + 1) {
+                throw new QueryBudgetExceededException(budget);
+            }
+        }
+    }
+
+    public static final class Report {
+        private final int count;
+        private final int budget;
+        private final Map<String, Integer> statements;
+
+        Report(int count, int budget, Map<String, Integer> statements) {
+            this.count = count;
+            this.budget = budget;
+            this.statements = statements;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public int getBudget() {
+            return budget;
+        }
+
+        public boolean isOverBudget() {
+            return count > budget;
+        }
+
+        /**
+         * Statements that ran at least the given number of times, most frequent first.
+         */
+        public List<Map.Entry<String, Integer>> getRepeatedStatements(int threshold) {
+            return statements.entrySet().stream()
+                    .filter(entry -> entry.getValue() >= threshold)
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .toList();
+        }
+    }
+}
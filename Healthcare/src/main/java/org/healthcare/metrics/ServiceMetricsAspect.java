@@ -0,0 +1,69 @@
+package org.healthcare.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every public service method. Meters are built once per method and cached, so a
+ * call costs one map lookup plus the histogram update, with nothing allocated by the
+ * recording itself. Throughput is the timer's count; failures are counted separately.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Method, MethodMeters> meters = new ConcurrentHashMap<>();
+
+    @Around("execution(public * org.healthcare.service..*(..))")
+    public Object timeServiceMethod(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        MethodMeters methodMeters = meters.get(method);
+        if (methodMeters == null) {
+            methodMeters = meters.computeIfAbsent(method, this::register);
+        }
+
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            methodMeters.errors.increment();
+            throw e;
+        } finally {
+            methodMeters.timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private MethodMeters register(Method method) {
+        String className = method.getDeclaringClass().getSimpleName();
+        Timer timer = Timer.builder("service.method")
+                .description("Service method latency")
+                .tag("class", className)
+                .tag("method", method.getName())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Counter errors = Counter.builder("service.method.errors")
+                .description("Service method calls that threw")
+                .tag("class", className)
+                .tag("method", method.getName())
+                .register(meterRegistry);
+        return new MethodMeters(timer, errors);
+    }
+
+    private record MethodMeters(Timer timer, Counter errors) {
+    }
+}
@@ -12,7 +12,15 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "appointment")
+@Table(name = "appointment", indexes = {
+        // A doctor's appointment feed, read in (date, timeSlot, id) order straight off the index;
+        // its (doctor_id, date) prefix also serves reloading one doctor's day on the slot grid
+        @Index(name = "idx_appointment_doctor_feed", columnList = "doctor_id, date, timeSlot, appointment_id")
+}, uniqueConstraints = {
+        // At most one active appointment per doctor, day and start slot; inactive rows have a NULL activeSlot and never collide.
+        // Only identical start slots collide: overlapping ranges that start apart (09:00-10:00, 09:30-10:00) pass it
+        @UniqueConstraint(name = "uk_appointment_active_slot", columnNames = {"doctor_id", "date", "startSlot", "activeSlot"})
+})
 public class Appointment {
 
     @Id
@@ -30,8 +38,18 @@ public class Appointment {
 
     private LocalDate date;
 
+    // Canonical "HH:mm-HH:mm" form of [startSlot, endSlot)
     private String timeSlot;
 
+    // Grid slots of the day, see SlotGrid; null only for legacy rows that could not be parsed
+    private Integer startSlot;
+
+    private Integer endSlot;
+
+    // TRUE while the appointment holds its slot (Waiting or Booked), NULL otherwise
+    @Column(columnDefinition = "TINYINT(1)")
+    private Boolean activeSlot;
+
     // Add @Builder.Default to use this as the default value when building an object
     @Enumerated(EnumType.STRING)
     @Builder.Default
@@ -41,6 +59,16 @@ public class Appointment {
 
     private String specialty;
 
+    public boolean isActive() {
+        return status == Status.Waiting || status == Status.Booked;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void syncActiveSlot() {
+        activeSlot = isActive() ? Boolean.TRUE : null;
+    }
+
     public enum Status {
         Booked, Cancelled, Completed, Waiting
     }
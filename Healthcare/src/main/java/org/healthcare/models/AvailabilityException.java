@@ -0,0 +1,36 @@
+package org.healthcare.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * A day on which a doctor's templates generate no slots, e.g. a holiday or leave.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "availability_exception", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_exception_doctor_date", columnNames = {"doctor_id", "date"})
+})
+public class AvailabilityException {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "exception_id")
+    private Long exceptionId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "doctor_id", nullable = false)
+    private Doctor doctor;
+
+    private LocalDate date;
+
+    private String reason;
+}
@@ -0,0 +1,52 @@
+package org.healthcare.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+/**
+ * A weekly recurring block of availability, e.g. every Monday 09:00-12:00 in 15-minute
+ * slots. SlotMaterializer expands templates into doctor_availability rows.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "availability_template", indexes = {
+        @Index(name = "idx_template_doctor", columnList = "doctor_id")
+})
+public class AvailabilityTemplate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "template_id")
+    private Long templateId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "doctor_id", nullable = false)
+    private Doctor doctor;
+
+    @Enumerated(EnumType.STRING)
+    private DayOfWeek dayOfWeek;
+
+    // Canonical "HH:mm-HH:mm" form of [startSlot, endSlot)
+    private String timeSlot;
+
+    private Integer startSlot;
+
+    private Integer endSlot;
+
+    // Length of each generated slot; null generates a single slot for the whole block
+    private Integer slotMinutes;
+
+    private LocalDate validFrom;
+
+    // Inclusive; null means open-ended
+    private LocalDate validUntil;
+}
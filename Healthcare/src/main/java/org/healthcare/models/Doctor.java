@@ -11,7 +11,11 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "doctors")
+@Table(name = "doctors", indexes = {
+        // Keyset order of the directory, unfiltered and by specialization
+        @Index(name = "idx_doctors_rating_id", columnList = "rating, id"),
+        @Index(name = "idx_doctors_specialization_rating_id", columnList = "specialization, rating, id")
+})
 public class Doctor {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
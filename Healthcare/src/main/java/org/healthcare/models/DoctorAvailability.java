@@ -13,7 +13,10 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "doctor_availability")
+@Table(name = "doctor_availability", indexes = {
+        // A doctor's slots by day; also answers "has a free slot on date X" from the index alone
+        @Index(name = "idx_availability_doctor_date", columnList = "doctor_id, date, isAvailable")
+})
 public class DoctorAvailability {
 
     @Id
@@ -27,8 +30,18 @@ public class DoctorAvailability {
 
     private LocalDate date;
 
+    // Canonical "HH:mm-HH:mm" form of [startSlot, endSlot)
     private String timeSlot;
 
+    // Grid slots of the day, see SlotGrid; null only for legacy rows that could not be parsed
+    private Integer startSlot;
+
+    private Integer endSlot;
+
+    // The AvailabilityTemplate this row was generated from; null for slots added by hand
+    @Column(name = "template_id")
+    private Long templateId;
+
     @Column(columnDefinition = "TINYINT(1)")
     private Boolean isAvailable;
 }
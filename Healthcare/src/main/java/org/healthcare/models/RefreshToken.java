@@ -14,22 +14,32 @@ import java.time.Instant;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "refresh_tokens")
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_expiry", columnList = "expiryDate"),
+        // Backs the foreign key; RefreshTokenMigration creates it on databases that predate it
+        @Index(name = "idx_refresh_tokens_user", columnList = "user_id")
+})
 public class RefreshToken {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToOne
+    // One row per signed-in session, so a user may hold several
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", referencedColumnName = "id")
     private User user;
 
+    // SHA-256 of the token; the raw value only ever lives in the client's cookie
     @Column(nullable = false, unique = true)
     private String token;
 
     @Column(nullable = false)
     private Instant expiryDate;
 
+    // The user's token version when the session started; stale sessions cannot be refreshed
+    @Column(columnDefinition = "INT NOT NULL DEFAULT 0")
+    private int tokenVersion;
+
     public Long getId() {
         return id;
     }
@@ -0,0 +1,30 @@
+package org.healthcare.models;
+
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "revoked_tokens", indexes = @Index(name = "idx_revoked_tokens_expiry", columnList = "expiryDate"))
+public class RevokedToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // The "jti" claim of the revoked access token
+    @Column(nullable = false, unique = true, length = 64)
+    private String tokenId;
+
+    // The access token's own expiry; the row is useless after it
+    @Column(nullable = false)
+    private Instant expiryDate;
+}
@@ -2,5 +2,6 @@ package org.healthcare.models;
 
 public enum Role {
     ROLE_PATIENT,
-    ROLE_DOCTOR
+    ROLE_DOCTOR,
+    ROLE_ADMIN
 }
@@ -35,6 +35,11 @@ public  class User implements UserDetails {
     @Column(nullable = false)
     private Role role;
 
+    // Bumped whenever credentials or the role change; tokens carrying an older version are rejected.
+    @Builder.Default
+    @Column(columnDefinition = "INT NOT NULL DEFAULT 0")
+    private int tokenVersion = 0;
+
     @CreationTimestamp
     private Instant createdAt;
 
@@ -47,6 +52,18 @@ public  class User implements UserDetails {
     @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private Doctor doctor;
 
+    /**
+     * Changing the role of an existing account also invalidates its tokens, since
+     * claims-carrying tokens state the role they were issued with. Publish a
+     * UserAccountChangedEvent after saving, as for a password change.
+     */
+    public void setRole(Role role) {
+        if (this.role != null && this.role != role) {
+            tokenVersion++;
+        }
+        this.role = role;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(new SimpleGrantedAuthority(role.name()));
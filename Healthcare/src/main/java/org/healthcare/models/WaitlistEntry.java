@@ -0,0 +1,62 @@
+package org.healthcare.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * A patient waiting for any slot of the given length with a doctor on one day. When a
+ * slot frees up it is held for the longest-waiting patient it fits, who is notified.
+ * The entry is Booked once the patient books with the offer's hold, and Expired if the
+ * hold ends first.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "waitlist_entry", indexes = {
+        // Waiting patients of a doctor-day in the order they joined
+        @Index(name = "idx_waitlist_doctor_date_status", columnList = "doctor_id, date, status"),
+        @Index(name = "idx_waitlist_patient_date", columnList = "patient_id, date")
+})
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "waitlist_id")
+    private Long waitlistId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "patient_id", nullable = false)
+    private Patient patient;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "doctor_id", nullable = false)
+    private Doctor doctor;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    // Length of the slot wanted, a whole number of grid slots
+    @Column(nullable = false)
+    private Integer minutes;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    // Set once a freed slot has been offered
+    private String holdId;
+    private String offeredTimeSlot;
+    private Instant offerExpiresAt;
+
+    public enum Status {
+        Waiting, Offered, Booked, Left, Expired
+    }
+}
@@ -1,31 +1,94 @@
 package org.healthcare.repository;
 
 
+import jakarta.persistence.QueryHint;
 import org.healthcare.models.Appointment;
-import org.healthcare.models.Doctor;
 import org.healthcare.models.Patient;
+import org.healthcare.dto.AppointmentDto;
+import org.healthcare.dto.PatientForDoctorDto;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.healthcare.scheduling.SlotRow;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
 
-        List<Appointment> findByDoctor(Doctor doctor);
         List<Appointment> findByPatient(Patient patient);
 
-        List<Appointment> findByPatientAndDateGreaterThanEqualOrderByDateAscTimeSlotAsc(Patient patient, LocalDate date);
-        List<Appointment> findByPatientAndDateBeforeOrderByDateDescTimeSlotDesc(Patient patient, LocalDate date);
+        @Query("SELECT new org.healthcare.dto.AppointmentDto(a.appointmentId, d.id, d.name, p.id, p.name, " +
+                "a.date, a.timeSlot, a.status, a.reason) " +
+                "FROM Appointment a JOIN a.doctor d JOIN a.patient p " +
+                "WHERE p.id = :patientId AND a.date >= :from ORDER BY a.date, a.startSlot")
+        List<AppointmentDto> findUpcomingForPatient(@Param("patientId") Long patientId, @Param("from") LocalDate from);
 
-        @Query("SELECT DISTINCT a.patient FROM Appointment a WHERE a.doctor = :doctor")
-        List<Patient> findDistinctPatientsByDoctor(Doctor doctor);
+        @Query("SELECT new org.healthcare.dto.AppointmentDto(a.appointmentId, d.id, d.name, p.id, p.name, " +
+                "a.date, a.timeSlot, a.status, a.reason) " +
+                "FROM Appointment a JOIN a.doctor d JOIN a.patient p " +
+                "WHERE p.id = :patientId AND a.date < :before ORDER BY a.date DESC, a.startSlot DESC")
+        List<AppointmentDto> findHistoryForPatient(@Param("patientId") Long patientId, @Param("before") LocalDate before);
+
+        /**
+         * Slot ranges held by active (Waiting or Booked) appointments from the given date on,
+         * for loading the slot calendar. Must be consumed inside a transaction.
+         */
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+        @Query("SELECT new org.healthcare.scheduling.SlotRow(a.doctor.id, a.date, a.startSlot, a.endSlot, true) " +
+                "FROM Appointment a WHERE a.date >= :from AND a.startSlot IS NOT NULL " +
+                "AND a.status IN (org.healthcare.models.Appointment.Status.Waiting, org.healthcare.models.Appointment.Status.Booked)")
+        Stream<SlotRow> streamActiveSlotsFrom(@Param("from") LocalDate from);
+
+        @Query("SELECT new org.healthcare.scheduling.SlotRow(a.doctor.id, a.date, a.startSlot, a.endSlot, true) " +
+                "FROM Appointment a WHERE a.doctor.id = :doctorId AND a.date = :date AND a.startSlot IS NOT NULL " +
+                "AND a.status IN (org.healthcare.models.Appointment.Status.Waiting, org.healthcare.models.Appointment.Status.Booked)")
+        List<SlotRow> findActiveSlotsForDay(@Param("doctorId") Long doctorId, @Param("date") LocalDate date);
+
+        @Query("SELECT new org.healthcare.scheduling.SlotRow(a.doctor.id, a.date, a.startSlot, a.endSlot, true) " +
+                "FROM Appointment a WHERE a.doctor.id = :doctorId AND a.date >= :from AND a.startSlot IS NOT NULL " +
+                "AND a.status IN (org.healthcare.models.Appointment.Status.Waiting, org.healthcare.models.Appointment.Status.Booked)")
+        List<SlotRow> findActiveSlotsForDoctorFrom(@Param("doctorId") Long doctorId, @Param("from") LocalDate from);
+
+        /**
+         * One page of a doctor's appointments in the window, in (date, timeSlot, id) order,
+         * starting after the cursor when one is given; an open end of the window is null. Doctor
+         * and patient names are joined in, so no entities are loaded.
+         */
+        @Query("SELECT new org.healthcare.dto.AppointmentDto(a.appointmentId, d.id, d.name, p.id, p.name, " +
+                "a.date, a.timeSlot, a.status, a.reason) " +
+                "FROM Appointment a JOIN a.doctor d JOIN a.patient p " +
+                "WHERE d.id = :doctorId AND (:from IS NULL OR a.date >= :from) AND (:to IS NULL OR a.date <= :to) " +
+                "AND a.status IN :statuses " +
+                "AND (:cursorId IS NULL OR a.date > :cursorDate OR (a.date = :cursorDate AND " +
+                "(a.timeSlot > :cursorTimeSlot OR (a.timeSlot = :cursorTimeSlot AND a.appointmentId > :cursorId)))) " +
+                "ORDER BY a.date, a.timeSlot, a.appointmentId")
+        List<AppointmentDto> findDoctorFeedPage(@Param("doctorId") Long doctorId,
+                                                @Param("from") LocalDate from,
+                                                @Param("to") LocalDate to,
+                                                @Param("statuses") Collection<Appointment.Status> statuses,
+                                                @Param("cursorDate") LocalDate cursorDate,
+                                                @Param("cursorTimeSlot") String cursorTimeSlot,
+                                                @Param("cursorId") Long cursorId,
+                                                Limit limit);
+
+        @Query("SELECT DISTINCT new org.healthcare.dto.PatientForDoctorDto(p.id, p.name, p.age, p.gender) " +
+                "FROM Appointment a JOIN a.patient p WHERE a.doctor.id = :doctorId")
+        List<PatientForDoctorDto> findPatientsOfDoctor(@Param("doctorId") Long doctorId);
 
-        // --- ADD THIS MISSING METHOD ---
         /**
          * Finds all appointments between a specific doctor and patient, sorted by the most recent first.
-         * @param doctor The doctor entity.
-         * @param patient The patient entity.
+         * @param doctorId The doctor's profile ID.
+         * @param patientId The patient's profile ID.
          * @return A list of appointments.
          */
-        List<Appointment> findByDoctorAndPatientOrderByDateDesc(Doctor doctor, Patient patient);
+        @Query("SELECT new org.healthcare.dto.AppointmentDto(a.appointmentId, d.id, d.name, p.id, p.name, " +
+                "a.date, a.timeSlot, a.status, a.reason) " +
+                "FROM Appointment a JOIN a.doctor d JOIN a.patient p " +
+                "WHERE d.id = :doctorId AND p.id = :patientId ORDER BY a.date DESC")
+        List<AppointmentDto> findForDoctorAndPatient(@Param("doctorId") Long doctorId, @Param("patientId") Long patientId);
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package org.healthcare.repository;
+
+import org.healthcare.models.AvailabilityException;
+import org.healthcare.models.Doctor;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface AvailabilityExceptionRepository extends JpaRepository<AvailabilityException, Long> {
+
+    List<AvailabilityException> findByDoctorAndDateGreaterThanEqualOrderByDateAsc(Doctor doctor, LocalDate date);
+
+    List<AvailabilityException> findByDoctorIdInAndDateBetween(Collection<Long> doctorIds, LocalDate from, LocalDate to);
+
+    boolean existsByDoctorAndDate(Doctor doctor, LocalDate date);
+}
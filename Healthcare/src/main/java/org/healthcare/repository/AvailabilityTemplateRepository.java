@@ -0,0 +1,20 @@
+package org.healthcare.repository;
+
+import org.healthcare.models.AvailabilityTemplate;
+import org.healthcare.models.Doctor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface AvailabilityTemplateRepository extends JpaRepository<AvailabilityTemplate, Long> {
+
+    List<AvailabilityTemplate> findByDoctorOrderByDayOfWeekAscStartSlotAsc(Doctor doctor);
+
+    List<AvailabilityTemplate> findByDoctorIdIn(Collection<Long> doctorIds);
+
+    @Query("SELECT DISTINCT t.doctor.id FROM AvailabilityTemplate t ORDER BY t.doctor.id")
+    List<Long> findDoctorIdsWithTemplates();
+}
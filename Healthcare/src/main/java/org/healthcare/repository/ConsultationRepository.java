@@ -1,10 +1,12 @@
 package org.healthcare.repository;
 
 
+import org.healthcare.dto.ConsultationDto;
 import org.healthcare.models.Appointment;
 import org.healthcare.models.Consultation;
-import org.healthcare.models.Patient;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 
 import java.util.List;
@@ -12,5 +14,10 @@ import java.util.Optional;
 
 public interface ConsultationRepository extends JpaRepository<Consultation, Long> {
     Optional<Consultation> findByAppointment(Appointment appointment);
-    List<Consultation> findByPatientOrderByDateDesc(Patient patient);
+
+    // The appointment, patient and doctor ids come from the consultation's own foreign keys
+    @Query("SELECT new org.healthcare.dto.ConsultationDto(c.consultationId, c.appointment.appointmentId, c.patient.id, " +
+            "c.doctor.id, c.date, c.symptoms, c.bloodPressure, c.height, c.weight, c.description, c.notes, c.status) " +
+            "FROM Consultation c WHERE c.patient.id = :patientId ORDER BY c.date DESC")
+    List<ConsultationDto> findForPatient(@Param("patientId") Long patientId);
 }
\ No newline at end of file
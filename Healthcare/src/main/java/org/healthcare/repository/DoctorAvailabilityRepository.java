@@ -1,16 +1,25 @@
 package org.healthcare.repository;
 
+import jakarta.persistence.QueryHint;
+import org.healthcare.dto.availability.AvailabilityDto;
 import org.healthcare.models.Doctor;
 import org.healthcare.models.DoctorAvailability;
+import org.healthcare.scheduling.SlotRow;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface DoctorAvailabilityRepository extends JpaRepository<DoctorAvailability, Long> {
 
-    List<DoctorAvailability> findByDoctorAndDate(Doctor doctor, LocalDate date);
+    List<DoctorAvailability> findByDoctorAndDateOrderByStartSlotAsc(Doctor doctor, LocalDate date);
 
-    List<DoctorAvailability> findByDoctorOrderByDateAscTimeSlotAsc(Doctor doctor);
+    List<DoctorAvailability> findByDoctorOrderByDateAscStartSlotAsc(Doctor doctor);
 
     /**
      * Finds all available slots for a specific doctor that are on or after a given date.
@@ -20,4 +29,50 @@ public interface DoctorAvailabilityRepository extends JpaRepository<DoctorAvaila
      * @return A list of available doctor slots.
      */
     List<DoctorAvailability> findByDoctorAndDateAfterAndIsAvailableTrue(Doctor doctor, LocalDate date);
+
+    /**
+     * Available slots of every doctor between two dates, in one query, ordered by doctor
+     * so they can be merged with a doctor list sorted by id. Rows are projected straight into
+     * DTOs and fetched in batches, so reading the stream does not load entities.
+     * Must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new org.healthcare.dto.availability.AvailabilityDto(a.availabilityId, a.doctor.id, a.date, a.timeSlot, a.isAvailable) " +
+            "FROM DoctorAvailability a WHERE a.date >= :from AND a.date <= :to AND a.isAvailable = true " +
+            "ORDER BY a.doctor.id, a.date, a.startSlot")
+    Stream<AvailabilityDto> streamAllAvailableBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new org.healthcare.dto.availability.AvailabilityDto(a.availabilityId, a.doctor.id, a.date, a.timeSlot, a.isAvailable) " +
+            "FROM DoctorAvailability a WHERE a.doctor.id = :doctorId AND a.date >= :from AND a.date <= :to AND a.isAvailable = true " +
+            "ORDER BY a.date, a.startSlot")
+    List<AvailabilityDto> findAvailableForDoctorBetween(@Param("doctorId") Long doctorId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new org.healthcare.dto.availability.AvailabilityDto(a.availabilityId, a.doctor.id, a.date, a.timeSlot, a.isAvailable) " +
+            "FROM DoctorAvailability a WHERE a.doctor.id IN :doctorIds AND a.date >= :from AND a.date <= :to AND a.isAvailable = true " +
+            "ORDER BY a.doctor.id, a.date, a.startSlot")
+    List<AvailabilityDto> findAvailableForDoctorsBetween(@Param("doctorIds") List<Long> doctorIds,
+                                                         @Param("from") LocalDate from,
+                                                         @Param("to") LocalDate to);
+
+    @Query("SELECT DISTINCT a.doctor.id FROM DoctorAvailability a WHERE a.date >= :from AND a.date <= :to AND a.isAvailable = true")
+    List<Long> findDoctorIdsAvailableBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    boolean existsByDoctorIdAndDateBetweenAndIsAvailableTrue(Long doctorId, LocalDate from, LocalDate to);
+
+    /**
+     * Offered slot ranges from the given date on, for loading the slot calendar.
+     * Must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new org.healthcare.scheduling.SlotRow(a.doctor.id, a.date, a.startSlot, a.endSlot, a.isAvailable) " +
+            "FROM DoctorAvailability a WHERE a.date >= :from AND a.startSlot IS NOT NULL")
+    Stream<SlotRow> streamSlotsFrom(@Param("from") LocalDate from);
+
+    @Query("SELECT new org.healthcare.scheduling.SlotRow(a.doctor.id, a.date, a.startSlot, a.endSlot, a.isAvailable) " +
+            "FROM DoctorAvailability a WHERE a.doctor.id = :doctorId AND a.date = :date AND a.startSlot IS NOT NULL")
+    List<SlotRow> findSlotsForDay(@Param("doctorId") Long doctorId, @Param("date") LocalDate date);
+
+    @Query("SELECT new org.healthcare.scheduling.SlotRow(a.doctor.id, a.date, a.startSlot, a.endSlot, a.isAvailable) " +
+            "FROM DoctorAvailability a WHERE a.doctor.id = :doctorId AND a.date >= :from AND a.startSlot IS NOT NULL")
+    List<SlotRow> findSlotsForDoctorFrom(@Param("doctorId") Long doctorId, @Param("from") LocalDate from);
 }
\ No newline at end of file
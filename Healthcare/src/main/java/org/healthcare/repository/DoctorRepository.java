@@ -2,16 +2,38 @@ package org.healthcare.repository;
 
 import org.healthcare.models.Doctor;
 import org.healthcare.models.User;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
-    @Query("SELECT d FROM Doctor d ORDER BY d.rating DESC")
-    List<Doctor> findTopRatedDoctors(Pageable pageable);
-
     Optional<Doctor> findByUser(User user);
+
+    List<Doctor> findAllByOrderByIdAsc();
+
+    /**
+     * One page of the directory in (rating, id) descending order, starting after the cursor.
+     * Unset filters are passed as null. Native so the cursor rating is bound as an exact
+     * double: MySQL compares FLOAT columns as doubles, and a float parameter sent as "4.7"
+     * would never equal the stored 4.699999809...
+     */
+    @Query(value = "SELECT d.* FROM doctors d " +
+            "WHERE (:specialization IS NULL OR d.specialization = :specialization) " +
+            "AND (:minExp IS NULL OR d.exp >= :minExp) " +
+            "AND (:minRating IS NULL OR d.rating >= :minRating) " +
+            "AND (:availableOn IS NULL OR EXISTS (SELECT 1 FROM doctor_availability a " +
+            "     WHERE a.doctor_id = d.id AND a.date = :availableOn AND a.is_available = 1)) " +
+            "AND (:cursorRating IS NULL OR d.rating < :cursorRating OR (d.rating = :cursorRating AND d.id < :cursorId)) " +
+            "ORDER BY d.rating DESC, d.id DESC LIMIT :limit", nativeQuery = true)
+    List<Doctor> findDirectoryPage(@Param("specialization") String specialization,
+                                   @Param("minExp") Integer minExp,
+                                   @Param("minRating") Double minRating,
+                                   @Param("availableOn") LocalDate availableOn,
+                                   @Param("cursorRating") Double cursorRating,
+                                   @Param("cursorId") Long cursorId,
+                                   @Param("limit") int limit);
 }
@@ -1,9 +1,12 @@
 package org.healthcare.repository;
 
 
+import org.healthcare.dto.PatientProfileDto;
 import org.healthcare.models.Patient;
 import org.healthcare.models.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -11,4 +14,8 @@ import java.util.Optional;
 @Repository
 public interface PatientRepository extends JpaRepository<Patient , Long> {
     Optional<Patient> findByUser(User user);
+
+    @Query("SELECT new org.healthcare.dto.PatientProfileDto(p.id, p.name, u.email, p.age, p.dob, p.bloodGroup, " +
+            "p.phoneNumber, p.address, p.gender) FROM Patient p JOIN p.user u WHERE p.id = :patientId")
+    Optional<PatientProfileDto> findProfileById(@Param("patientId") Long patientId);
 }
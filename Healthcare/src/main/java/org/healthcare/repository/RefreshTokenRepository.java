@@ -2,18 +2,44 @@ package org.healthcare.repository;
 
 import org.healthcare.models.RefreshToken;
 import org.healthcare.models.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
     Optional<RefreshToken> findByToken(String token);
 
+    @Query("SELECT t FROM RefreshToken t JOIN FETCH t.user WHERE t.token = :token")
+    Optional<RefreshToken> findWithUserByToken(@Param("token") String token);
+
+    /**
+     * Swaps the token hash in place, but only if the row still holds the presented one.
+     * A second use of the same refresh token therefore updates nothing.
+     * @return The number of rows updated (0 or 1).
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE RefreshToken t SET t.token = :newToken, t.expiryDate = :expiryDate WHERE t.id = :id AND t.token = :oldToken")
+    int rotate(@Param("id") Long id, @Param("oldToken") String oldToken,
+               @Param("newToken") String newToken, @Param("expiryDate") Instant expiryDate);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken t WHERE t.token = :token")
+    int deleteByToken(@Param("token") String token);
+
+    @Query("SELECT t.id FROM RefreshToken t WHERE t.expiryDate < :now ORDER BY t.id")
+    List<Long> findExpiredIds(@Param("now") Instant now, Pageable pageable);
+
     // --- THIS IS THE FIX ---
     // Replace the old method with this explicit JPQL query.
     // This guarantees a DELETE operation is executed.
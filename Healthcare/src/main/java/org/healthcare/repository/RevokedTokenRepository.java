@@ -0,0 +1,21 @@
+package org.healthcare.repository;
+
+import org.healthcare.models.RevokedToken;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+    boolean existsByTokenId(String tokenId);
+
+    List<RevokedToken> findByExpiryDateAfter(Instant now);
+
+    @Query("SELECT t.id FROM RevokedToken t WHERE t.expiryDate < :now ORDER BY t.id")
+    List<Long> findExpiredIds(@Param("now") Instant now, Pageable pageable);
+}
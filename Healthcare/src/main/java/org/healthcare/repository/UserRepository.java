@@ -2,12 +2,46 @@ package org.healthcare.repository;
 
 import org.healthcare.models.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    @Query("SELECT u.id AS id, u.tokenVersion AS tokenVersion FROM User u WHERE u.tokenVersion > 0")
+    List<TokenVersionView> findRaisedTokenVersions();
+
+    /**
+     * Replaces the password hash only if it still equals the expected value.
+     * @return The number of rows updated (0 or 1).
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :id AND u.password = :oldHash")
+    int updatePasswordIfUnchanged(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+
+    /**
+     * Replaces the password hash and raises the token version, only if neither changed
+     * since they were read.
+     * @return The number of rows updated (0 or 1).
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :newHash, u.tokenVersion = u.tokenVersion + 1 " +
+            "WHERE u.id = :id AND u.password = :oldHash AND u.tokenVersion = :tokenVersion")
+    int changePasswordIfUnchanged(@Param("id") Long id, @Param("oldHash") String oldHash,
+                                  @Param("tokenVersion") int tokenVersion, @Param("newHash") String newHash);
+
+    interface TokenVersionView {
+        Long getId();
+        int getTokenVersion();
+    }
 }
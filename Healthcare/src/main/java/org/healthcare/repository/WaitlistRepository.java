@@ -0,0 +1,51 @@
+package org.healthcare.repository;
+
+import org.healthcare.models.Doctor;
+import org.healthcare.models.Patient;
+import org.healthcare.models.WaitlistEntry;
+import org.healthcare.scheduling.Waiter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    boolean existsByPatientAndDoctorAndDateAndStatus(Patient patient, Doctor doctor, LocalDate date, WaitlistEntry.Status status);
+
+    List<WaitlistEntry> findByPatientAndStatusInAndDateGreaterThanEqualOrderByDateAscWaitlistIdAsc(
+            Patient patient, Collection<WaitlistEntry.Status> statuses, LocalDate from);
+
+    @Query("SELECT new org.healthcare.scheduling.Waiter(w.waitlistId, w.patient.id, w.doctor.id, w.date, w.minutes) " +
+            "FROM WaitlistEntry w WHERE w.status = org.healthcare.models.WaitlistEntry.Status.Waiting " +
+            "AND w.date >= :from ORDER BY w.waitlistId")
+    List<Waiter> findWaitersFrom(@Param("from") LocalDate from);
+
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = org.healthcare.models.WaitlistEntry.Status.Expired " +
+            "WHERE w.status IN (org.healthcare.models.WaitlistEntry.Status.Waiting, org.healthcare.models.WaitlistEntry.Status.Offered) " +
+            "AND w.date < :date")
+    int expireOpenBefore(@Param("date") LocalDate date);
+
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = org.healthcare.models.WaitlistEntry.Status.Booked " +
+            "WHERE w.holdId = :holdId AND w.status = org.healthcare.models.WaitlistEntry.Status.Offered")
+    int markOfferBooked(@Param("holdId") String holdId);
+
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = org.healthcare.models.WaitlistEntry.Status.Expired " +
+            "WHERE w.holdId = :holdId AND w.status = org.healthcare.models.WaitlistEntry.Status.Offered")
+    int expireOffer(@Param("holdId") String holdId);
+
+    /**
+     * Holds live in memory, so after a restart no offer can still be booked.
+     */
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = org.healthcare.models.WaitlistEntry.Status.Expired " +
+            "WHERE w.status = org.healthcare.models.WaitlistEntry.Status.Offered")
+    int expireAllOffers();
+}
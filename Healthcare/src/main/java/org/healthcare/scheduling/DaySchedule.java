@@ -0,0 +1,192 @@
+package org.healthcare.scheduling;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One doctor's day on the slot grid, as four bitmaps of two words each:
+ * slots the doctor offers, the offered slots marked available, slots taken by active
+ * appointments, and slots temporarily held for a patient at checkout. A slot is free when
+ * it is available and neither booked nor held. Immutable; a change to the day produces a
+ * new schedule.
+ */
+public final class DaySchedule {
+
+    public static final DaySchedule EMPTY = new DaySchedule(new long[SlotGrid.WORDS_PER_DAY],
+            new long[SlotGrid.WORDS_PER_DAY], new long[SlotGrid.WORDS_PER_DAY], new long[SlotGrid.WORDS_PER_DAY]);
+
+    private final long[] offered;
+    private final long[] available;
+    private final long[] booked;
+    private final long[] held;
+
+    private DaySchedule(long[] offered, long[] available, long[] booked, long[] held) {
+        this.offered = offered;
+        this.available = available;
+        this.booked = booked;
+        this.held = held;
+    }
+
+    public boolean isFree(SlotRange range) {
+        for (int w = 0; w < SlotGrid.WORDS_PER_DAY; w++) {
+            long mask = range.mask(w);
+            if ((free(w) & mask) != mask) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isBooked(SlotRange range) {
+        for (int w = 0; w < SlotGrid.WORDS_PER_DAY; w++) {
+            long mask = range.mask(w);
+            if ((booked[w] & mask) != mask) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean overlapsBooking(SlotRange range) {
+        return intersects(booked, range);
+    }
+
+    public boolean overlapsOffered(SlotRange range) {
+        return intersects(offered, range);
+    }
+
+    public boolean hasFree() {
+        for (int w = 0; w < SlotGrid.WORDS_PER_DAY; w++) {
+            if (free(w) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * This day with the range booked as well.
+     */
+    public DaySchedule withBooking(SlotRange range) {
+        long[] withRange = booked.clone();
+        for (int w = 0; w < SlotGrid.WORDS_PER_DAY; w++) {
+            withRange[w] |= range.mask(w);
+        }
+        return new DaySchedule(offered, available, withRange, held);
+    }
+
+    /**
+     * This day with the range held as well, or no longer held.
+     */
+    public DaySchedule withHold(SlotRange range, boolean isHeld) {
+        long[] withRange = held.clone();
+        for (int w = 0; w < SlotGrid.WORDS_PER_DAY; w++) {
+            withRange[w] = isHeld ? withRange[w] | range.mask(w) : withRange[w] & ~range.mask(w);
+        }
+        return new DaySchedule(offered, available, booked, withRange);
+    }
+
+    /**
+     * Start slots of up to max non-overlapping free runs of the given length, earliest
+     * first, starting at or after fromSlot.
+     */
+    public List<Integer> freeStarts(int length, int fromSlot, int max) {
+        // Bit i of runs is set when slots i .. i+length-1 are all free
+        long[] free = new long[SlotGrid.WORDS_PER_DAY];
+        for (int w = 0; w < free.length; w++) {
+            free[w] = free(w);
+        }
+        long[] runs = free.clone();
+        long[] shifted = free.clone();
+        for (int i = 1; i < length; i++) {
+            shiftRightByOne(shifted);
+            for (int w = 0; w < runs.length; w++) {
+                runs[w] &= shifted[w];
+            }
+        }
+
+        List<Integer> starts = new ArrayList<>();
+        int slot = fromSlot;
+        while (starts.size() < max && slot <= SlotGrid.SLOTS_PER_DAY - length) {
+            int next = nextSetBit(runs, slot);
+            if (next < 0 || next > SlotGrid.SLOTS_PER_DAY - length) {
+                break;
+            }
+            starts.add(next);
+            slot = next + length;
+        }
+        return starts;
+    }
+
+    private long free(int word) {
+        return available[word] & ~booked[word] & ~held[word];
+    }
+
+    private static boolean intersects(long[] bitmap, SlotRange range) {
+        for (int w = 0; w < SlotGrid.WORDS_PER_DAY; w++) {
+            if ((bitmap[w] & range.mask(w)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void shiftRightByOne(long[] words) {
+        for (int w = 0; w < words.length; w++) {
+            long carry = w + 1 < words.length ? words[w + 1] << 63 : 0;
+            words[w] = (words[w] >>> 1) | carry;
+        }
+    }
+
+    private static int nextSetBit(long[] words, int from) {
+        for (int w = from >>> 6; w < words.length; w++) {
+            long word = words[w];
+            if (w == from >>> 6) {
+                word &= -1L << (from & 63);
+            }
+            if (word != 0) {
+                return w * 64 + Long.numberOfTrailingZeros(word);
+            }
+        }
+        return -1;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+        private final long[] offered = new long[SlotGrid.WORDS_PER_DAY];
+        private final long[] available = new long[SlotGrid.WORDS_PER_DAY];
+        private final long[] booked = new long[SlotGrid.WORDS_PER_DAY];
+        private final long[] held = new long[SlotGrid.WORDS_PER_DAY];
+
+        public Builder offer(SlotRange range, boolean isAvailable) {
+            set(offered, range);
+            if (isAvailable) {
+                set(available, range);
+            }
+            return this;
+        }
+
+        public Builder book(SlotRange range) {
+            set(booked, range);
+            return this;
+        }
+
+        public Builder hold(SlotRange range) {
+            set(held, range);
+            return this;
+        }
+
+        public DaySchedule build() {
+            return new DaySchedule(offered.clone(), available.clone(), booked.clone(), held.clone());
+        }
+
+        private static void set(long[] bitmap, SlotRange range) {
+            for (int w = 0; w < SlotGrid.WORDS_PER_DAY; w++) {
+                bitmap[w] |= range.mask(w);
+            }
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package org.healthcare.scheduling;
+
+import lombok.extern.slf4j.Slf4j;
+import org.healthcare.dto.availability.EarliestSlotDto;
+import org.healthcare.events.DoctorDirectoryChangedEvent;
+import org.healthcare.events.SlotsChangedEvent;
+import org.healthcare.models.Doctor;
+import org.healthcare.repository.DoctorRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Each doctor's earliest free slot on every day they have one, ordered by (date, start,
+ * doctor) overall and per specialization in skip lists. "Who is free first" within a
+ * specialization and a date range is read by walking from the range's first day, so the
+ * cost depends on how many slots are asked for, not on the number of doctors. The walk
+ * stops once every doctor with an entry in the ranking has been returned, so asking for
+ * more doctors than have a free slot does not walk the whole horizon.
+ *
+ * Built from the slot calendar at startup. A doctor-day is re-indexed when its slots
+ * change, right after the calendar has reloaded it; today's entries are re-indexed as
+ * their slots start. Writers are serialized. Readers never block: while an entry is being
+ * moved they may briefly miss it, but never see it twice.
+ */
+@Component
+@Slf4j
+public class EarliestSlotIndex {
+
+    private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::date)
+            .thenComparingInt(Entry::startSlot)
+            .thenComparingLong(Entry::doctorId);
+
+    private static final int MAX_COUNT = 50;
+
+    private final SlotCalendar slotCalendar;
+    private final DoctorRepository doctorRepository;
+    private final int lengthSlots;
+
+    private final NavigableSet<Entry> overall = new ConcurrentSkipListSet<>(ORDER);
+    private final Map<String, NavigableSet<Entry>> bySpecialization = new ConcurrentHashMap<>();
+    private final Map<Long, DoctorInfo> doctors = new ConcurrentHashMap<>();
+    // Doctors with at least one entry, overall and per specialization
+    private volatile int indexedDoctors;
+    private final Map<String, Integer> indexedBySpecialization = new ConcurrentHashMap<>();
+    // Only touched by writers
+    private final Map<Long, Map<LocalDate, Entry>> entries = new HashMap<>();
+
+    public EarliestSlotIndex(SlotCalendar slotCalendar,
+                             DoctorRepository doctorRepository,
+                             @Value("${slots.earliest.minutes:30}") int minutes) {
+        this.slotCalendar = slotCalendar;
+        this.doctorRepository = doctorRepository;
+        this.lengthSlots = SlotGrid.slotsFor(minutes);
+    }
+
+    // Right after SlotCalendar has loaded
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    public synchronized void rebuild() {
+        loadDoctors();
+        reindexAll();
+        log.info("Earliest slot index loaded: {} doctors, {} doctor-days", doctors.size(), overall.size());
+    }
+
+    /**
+     * Runs after the change has committed, and after SlotCalendar has reloaded it.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    public synchronized void onSlotsChanged(SlotsChangedEvent event) {
+        if (event.getDoctorId() == null) {
+            reindexAll();
+        } else if (event.getDate() == null) {
+            reindexDoctor(event.getDoctorId());
+        } else {
+            index(event.getDoctorId(), event.getDate(), slotCalendar.day(event.getDoctorId(), event.getDate()));
+        }
+    }
+
+    /**
+     * Picks up new doctors and changed names or specializations.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onDoctorDirectoryChanged(DoctorDirectoryChangedEvent event) {
+        if (event.getDoctorId() == null) {
+            loadDoctors();
+            return;
+        }
+        doctorRepository.findById(event.getDoctorId()).ifPresentOrElse(
+                doctor -> putDoctor(doctor.getId(), doctor.getName(), doctor.getSpecialization()),
+                () -> removeDoctor(event.getDoctorId()));
+    }
+
+    private void loadDoctors() {
+        List<Doctor> all = doctorRepository.findAll();
+        Set<Long> ids = new HashSet<>();
+        for (Doctor doctor : all) {
+            putDoctor(doctor.getId(), doctor.getName(), doctor.getSpecialization());
+            ids.add(doctor.getId());
+        }
+        for (Long doctorId : new ArrayList<>(doctors.keySet())) {
+            if (!ids.contains(doctorId)) {
+                removeDoctor(doctorId);
+            }
+        }
+    }
+
+    /**
+     * Drops days that have passed and moves today's entries whose slot has started to the
+     * doctor's next free slot today, if any. Runs on every slot boundary.
+     */
+    @Scheduled(cron = "${slots.earliest.refresh-cron:0 */15 * * * *}")
+    public synchronized void refreshToday() {
+        LocalDate today = LocalDate.now();
+        for (Entry past : new ArrayList<>(overall.headSet(first(today), false))) {
+            index(past.doctorId(), past.date(), DaySchedule.EMPTY);
+        }
+        Entry started = new Entry(today, SlotCalendar.currentSlot(), Long.MAX_VALUE);
+        for (Entry entry : new ArrayList<>(overall.subSet(first(today), true, started, true))) {
+            index(entry.doctorId(), today, slotCalendar.day(entry.doctorId(), today));
+        }
+    }
+
+    /**
+     * The earliest bookable slot of each of the doctors who are free first, earliest first,
+     * one slot per doctor.
+     * @param specialization Exact specialization, or null for all doctors.
+     * @param from First day to look at; today if null or earlier.
+     * @param to Last day to look at, or null for no limit.
+     */
+    public List<EarliestSlotDto> earliest(String specialization, LocalDate from, LocalDate to, int count) {
+        if (count < 1 || count > MAX_COUNT) {
+            throw new IllegalArgumentException("count must be between 1 and " + MAX_COUNT + ".");
+        }
+        NavigableSet<Entry> ranking = specialization == null ? overall : bySpecialization.get(specialization);
+        int indexed = specialization == null ? indexedDoctors : indexedBySpecialization.getOrDefault(specialization, 0);
+        if (ranking == null || indexed == 0) {
+            return List.of();
+        }
+        // Doctors whose entries all lie before the range are still counted; the walk then ends at the range's end
+        int wanted = Math.min(count, indexed);
+        LocalDate today = LocalDate.now();
+        LocalDate start = from == null || from.isBefore(today) ? today : from;
+        int currentSlot = SlotCalendar.currentSlot();
+
+        List<EarliestSlotDto> found = new ArrayList<>(count);
+        Set<Long> seen = new HashSet<>();
+        for (Entry entry : ranking.tailSet(first(start), true)) {
+            if (to != null && entry.date().isAfter(to)) {
+                break;
+            }
+            // Started since the last refresh; the doctor's later slots today show up after the next one
+            if (entry.date().equals(today) && entry.startSlot() <= currentSlot) {
+                continue;
+            }
+            if (seen.add(entry.doctorId())) {
+                found.add(toDto(entry));
+                if (found.size() == wanted) {
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
+    public synchronized void putDoctor(Long doctorId, String name, String specialization) {
+        DoctorInfo previous = doctors.put(doctorId, new DoctorInfo(name, specialization));
+        String previousSpecialization = previous != null ? previous.specialization() : null;
+        if (Objects.equals(previousSpecialization, specialization)) {
+            return;
+        }
+        Map<LocalDate, Entry> days = entries.getOrDefault(doctorId, Map.of());
+        if (!days.isEmpty()) {
+            countIndexed(specialization, 1);
+        }
+        for (Entry entry : days.values()) {
+            if (specialization != null) {
+                ranking(specialization).add(entry);
+            }
+            if (previousSpecialization != null) {
+                ranking(previousSpecialization).remove(entry);
+            }
+        }
+        if (!days.isEmpty()) {
+            countIndexed(previousSpecialization, -1);
+        }
+    }
+
+    public synchronized void removeDoctor(Long doctorId) {
+        for (Entry entry : new ArrayList<>(entries.getOrDefault(doctorId, Map.of()).values())) {
+            index(doctorId, entry.date(), DaySchedule.EMPTY);
+        }
+        entries.remove(doctorId);
+        doctors.remove(doctorId);
+    }
+
+    /**
+     * Points the doctor's entry for the day at the day's earliest free slot, or removes it
+     * when the day has none left. The new entry is added before the old one is removed.
+     */
+    synchronized void index(Long doctorId, LocalDate date, DaySchedule day) {
+        Entry next = earliestOf(doctorId, date, day);
+        Map<LocalDate, Entry> days = entries.computeIfAbsent(doctorId, id -> new HashMap<>());
+        Entry previous = next != null ? days.put(date, next) : days.remove(date);
+        if (Objects.equals(previous, next)) {
+            return;
+        }
+        String specialization = specializationOf(doctorId);
+        // Counted before the doctor's first entry shows up and after the last one is gone
+        if (previous == null && days.size() == 1) {
+            indexedDoctors++;
+            countIndexed(specialization, 1);
+        }
+        if (next != null) {
+            overall.add(next);
+            if (specialization != null) {
+                ranking(specialization).add(next);
+            }
+        }
+        if (previous != null) {
+            overall.remove(previous);
+            if (specialization != null) {
+                ranking(specialization).remove(previous);
+            }
+        }
+        if (next == null && days.isEmpty()) {
+            indexedDoctors--;
+            countIndexed(specialization, -1);
+        }
+    }
+
+    private void reindexAll() {
+        Set<Long> doctorIds = new HashSet<>(slotCalendar.doctorIds());
+        doctorIds.addAll(entries.keySet());
+        doctorIds.forEach(this::reindexDoctor);
+    }
+
+    private void reindexDoctor(Long doctorId) {
+        Map<LocalDate, DaySchedule> days = slotCalendar.days(doctorId);
+        Set<LocalDate> dates = new HashSet<>(days.keySet());
+        dates.addAll(entries.getOrDefault(doctorId, Map.of()).keySet());
+        for (LocalDate date : dates) {
+            index(doctorId, date, days.getOrDefault(date, DaySchedule.EMPTY));
+        }
+    }
+
+    private Entry earliestOf(Long doctorId, LocalDate date, DaySchedule day) {
+        LocalDate today = LocalDate.now();
+        if (date.isBefore(today)) {
+            return null;
+        }
+        int fromSlot = date.equals(today) ? SlotCalendar.currentSlot() + 1 : 0;
+        List<Integer> starts = day.freeStarts(lengthSlots, fromSlot, 1);
+        return starts.isEmpty() ? null : new Entry(date, starts.get(0), doctorId);
+    }
+
+    private NavigableSet<Entry> ranking(String specialization) {
+        return bySpecialization.computeIfAbsent(specialization, key -> new ConcurrentSkipListSet<>(ORDER));
+    }
+
+    private void countIndexed(String specialization, int delta) {
+        if (specialization != null) {
+            indexedBySpecialization.merge(specialization, delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+
+    private String specializationOf(Long doctorId) {
+        DoctorInfo doctor = doctors.get(doctorId);
+        return doctor != null ? doctor.specialization() : null;
+    }
+
+    private EarliestSlotDto toDto(Entry entry) {
+        DoctorInfo doctor = doctors.get(entry.doctorId());
+        return EarliestSlotDto.builder()
+                .doctorId(entry.doctorId())
+                .doctorName(doctor != null ? doctor.name() : null)
+                .specialization(doctor != null ? doctor.specialization() : null)
+                .date(entry.date())
+                .timeSlot(SlotGrid.format(new SlotRange(entry.startSlot(), entry.startSlot() + lengthSlots)))
+                .build();
+    }
+
+    // Sorts before every entry of the day
+    private static Entry first(LocalDate date) {
+        return new Entry(date, Integer.MIN_VALUE, Long.MIN_VALUE);
+    }
+
+    private record Entry(LocalDate date, int startSlot, long doctorId) {
+    }
+
+    private record DoctorInfo(String name, String specialization) {
+    }
+}
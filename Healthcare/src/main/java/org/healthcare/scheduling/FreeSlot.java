@@ -0,0 +1,6 @@
+package org.healthcare.scheduling;
+
+import java.time.LocalDate;
+
+public record FreeSlot(LocalDate date, SlotRange range) {
+}
@@ -0,0 +1,96 @@
+package org.healthcare.scheduling;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills start_slot and end_slot for rows written before the slot grid existed, by
+ * parsing their free-form time_slot, and rewrites time_slot in canonical form. Rows whose
+ * text cannot be parsed are logged and left without slots; they are then ignored by the
+ * slot calendar until a doctor fixes or re-creates them.
+ *
+ * Also sets active_slot on Waiting and Booked appointments written before that column
+ * existed; it is otherwise only set when an appointment is saved.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class LegacySlotMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void migrate() {
+        migrateTable("doctor_availability", "availability_id");
+        migrateTable("appointment", "appointment_id");
+        backfillActiveSlots();
+    }
+
+    /**
+     * Two legacy appointments may already hold the same start slot; the unique key on
+     * active slots then rejects the second, which is logged and keeps a NULL active_slot.
+     */
+    private void backfillActiveSlots() {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT appointment_id FROM appointment WHERE active_slot IS NULL " +
+                "AND status IN ('Waiting', 'Booked') AND start_slot IS NOT NULL", Long.class);
+        String update = "UPDATE appointment SET active_slot = TRUE WHERE appointment_id = ? AND active_slot IS NULL";
+        List<Long> conflicting = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+            try {
+                jdbcTemplate.batchUpdate(update, batch.stream().map(id -> new Object[]{id}).toList());
+            } catch (DataIntegrityViolationException e) {
+                // Find the rows that collide; the rest of the batch still gets its flag
+                for (Long id : batch) {
+                    try {
+                        jdbcTemplate.update(update, id);
+                    } catch (DataIntegrityViolationException duplicate) {
+                        conflicting.add(id);
+                    }
+                }
+            }
+        }
+        if (!ids.isEmpty()) {
+            log.info("Marked {} active appointments as holding their slot", ids.size() - conflicting.size());
+        }
+        if (!conflicting.isEmpty()) {
+            log.warn("{} active appointments share a start slot with another and were not marked, ids {}",
+                    conflicting.size(), conflicting.subList(0, Math.min(20, conflicting.size())));
+        }
+    }
+
+    private void migrateTable(String table, String idColumn) {
+        List<Object[]> updates = new ArrayList<>();
+        List<Long> unparseable = new ArrayList<>();
+        jdbcTemplate.query("SELECT " + idColumn + ", time_slot FROM " + table + " WHERE start_slot IS NULL",
+                rs -> {
+                    long id = rs.getLong(1);
+                    String timeSlot = rs.getString(2);
+                    try {
+                        SlotRange range = SlotGrid.parse(timeSlot);
+                        updates.add(new Object[]{SlotGrid.format(range), range.start(), range.end(), id});
+                    } catch (IllegalArgumentException e) {
+                        unparseable.add(id);
+                    }
+                });
+
+        String update = "UPDATE " + table + " SET time_slot = ?, start_slot = ?, end_slot = ? WHERE " + idColumn + " = ?";
+        for (int from = 0; from < updates.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(update, updates.subList(from, Math.min(from + BATCH_SIZE, updates.size())));
+        }
+        if (!updates.isEmpty()) {
+            log.info("Migrated {} {} rows to the slot grid", updates.size(), table);
+        }
+        if (!unparseable.isEmpty()) {
+            log.warn("{} {} rows have a time slot that could not be parsed and are ignored, ids {}",
+                    unparseable.size(), table, unparseable.subList(0, Math.min(20, unparseable.size())));
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package org.healthcare.scheduling;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.healthcare.events.SlotsChangedEvent;
+import org.healthcare.repository.AppointmentRepository;
+import org.healthcare.repository.DoctorAvailabilityRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Every doctor's schedule from today on, one DaySchedule bitmap per doctor and day, so
+ * that "is this slot free", "does this overlap a booking" and "next free slots" are
+ * answered with a few word operations instead of queries and string comparisons.
+ *
+ * The database stays the source of truth: the calendar is loaded at startup, and a day is
+ * reloaded from the database whenever a SlotsChangedEvent for it commits. Checkout holds
+ * are not in the database; they are kept here and laid over every reload of their day.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class SlotCalendar {
+
+    private final DoctorAvailabilityRepository availabilityRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final LegacySlotMigration legacySlotMigration;
+    private final PlatformTransactionManager transactionManager;
+
+    private final Map<Long, NavigableMap<LocalDate, DaySchedule>> doctors = new ConcurrentHashMap<>();
+    // Held ranges by doctor and day; the inner maps are guarded by the doctor's schedule
+    private final Map<Long, Map<LocalDate, List<SlotRange>>> holds = new ConcurrentHashMap<>();
+
+    // Before anything else that reads slots at startup, e.g. SlotMaterializer
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void load() {
+        legacySlotMigration.migrate();
+        reloadAll();
+    }
+
+    public void reloadAll() {
+        LocalDate today = LocalDate.now();
+        Map<Long, Map<LocalDate, DaySchedule.Builder>> builders = new HashMap<>();
+        // Streamed: with templates there can be millions of slot rows, but only one bitmap per day is kept
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<SlotRow> rows = availabilityRepository.streamSlotsFrom(today)) {
+                rows.forEach(row -> builder(builders, row).offer(row.range(), Boolean.TRUE.equals(row.isAvailable())));
+            }
+            try (Stream<SlotRow> rows = appointmentRepository.streamActiveSlotsFrom(today)) {
+                rows.forEach(row -> builder(builders, row).book(row.range()));
+            }
+        });
+
+        int days = 0;
+        for (Map.Entry<Long, Map<LocalDate, DaySchedule.Builder>> doctor : builders.entrySet()) {
+            days += replace(doctor.getKey(), doctor.getValue());
+        }
+        for (Long doctorId : doctors.keySet()) {
+            if (!builders.containsKey(doctorId)) {
+                replace(doctorId, Map.of());
+            }
+        }
+        log.info("Slot calendar loaded: {} doctors, {} doctor-days", builders.size(), days);
+    }
+
+    public void reloadDoctor(Long doctorId) {
+        NavigableMap<LocalDate, DaySchedule> schedule = doctors.computeIfAbsent(doctorId, id -> new ConcurrentSkipListMap<>());
+        synchronized (schedule) {
+            LocalDate today = LocalDate.now();
+            Map<Long, Map<LocalDate, DaySchedule.Builder>> builders = new HashMap<>();
+            for (SlotRow row : availabilityRepository.findSlotsForDoctorFrom(doctorId, today)) {
+                builder(builders, row).offer(row.range(), Boolean.TRUE.equals(row.isAvailable()));
+            }
+            for (SlotRow row : appointmentRepository.findActiveSlotsForDoctorFrom(doctorId, today)) {
+                builder(builders, row).book(row.range());
+            }
+            replace(doctorId, builders.getOrDefault(doctorId, Map.of()));
+        }
+    }
+
+    public DaySchedule day(Long doctorId, LocalDate date) {
+        NavigableMap<LocalDate, DaySchedule> schedule = doctors.get(doctorId);
+        DaySchedule day = schedule != null ? schedule.get(date) : null;
+        return day != null ? day : DaySchedule.EMPTY;
+    }
+
+    /**
+     * The doctor's days from today on, earliest first.
+     */
+    public NavigableMap<LocalDate, DaySchedule> days(Long doctorId) {
+        NavigableMap<LocalDate, DaySchedule> schedule = doctors.get(doctorId);
+        if (schedule == null) {
+            return Collections.emptyNavigableMap();
+        }
+        return Collections.unmodifiableNavigableMap(schedule.tailMap(LocalDate.now(), true));
+    }
+
+    public Set<Long> doctorIds() {
+        return Collections.unmodifiableSet(doctors.keySet());
+    }
+
+    public boolean isFree(Long doctorId, LocalDate date, SlotRange range) {
+        return day(doctorId, date).isFree(range);
+    }
+
+    public boolean overlapsBooking(Long doctorId, LocalDate date, SlotRange range) {
+        return day(doctorId, date).overlapsBooking(range);
+    }
+
+    /**
+     * The earliest free slots of the given length, from the given date on. Slots that
+     * have already started today are skipped.
+     */
+    public List<FreeSlot> nextFree(Long doctorId, LocalDate from, int lengthSlots, int count) {
+        List<FreeSlot> found = new ArrayList<>();
+        NavigableMap<LocalDate, DaySchedule> schedule = doctors.get(doctorId);
+        LocalDate today = LocalDate.now();
+        if (schedule == null) {
+            return found;
+        }
+        LocalDate start = from.isBefore(today) ? today : from;
+        for (Map.Entry<LocalDate, DaySchedule> day : schedule.tailMap(start, true).entrySet()) {
+            int fromSlot = day.getKey().equals(today) ? currentSlot() + 1 : 0;
+            for (int slot : day.getValue().freeStarts(lengthSlots, fromSlot, count - found.size())) {
+                found.add(new FreeSlot(day.getKey(), new SlotRange(slot, slot + lengthSlots)));
+            }
+            if (found.size() >= count) {
+                break;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Runs after the change has committed, so the reload sees it. Ordered first among
+     * completion callbacks so the day is reloaded before SlotLocks releases it.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onSlotsChanged(SlotsChangedEvent event) {
+        if (event.getDoctorId() == null) {
+            reloadAll();
+        } else if (event.getDate() == null) {
+            reloadDoctor(event.getDoctorId());
+        } else {
+            reloadDay(event.getDoctorId(), event.getDate());
+        }
+    }
+
+    public void reloadDay(Long doctorId, LocalDate date) {
+        if (date.isBefore(LocalDate.now())) {
+            return;
+        }
+        NavigableMap<LocalDate, DaySchedule> schedule = doctors.computeIfAbsent(doctorId, id -> new ConcurrentSkipListMap<>());
+        // Serializes reloads of one doctor, so an older read cannot overwrite a newer one
+        synchronized (schedule) {
+            DaySchedule.Builder builder = DaySchedule.builder();
+            availabilityRepository.findSlotsForDay(doctorId, date)
+                    .forEach(row -> builder.offer(row.range(), Boolean.TRUE.equals(row.isAvailable())));
+            appointmentRepository.findActiveSlotsForDay(doctorId, date)
+                    .forEach(row -> builder.book(row.range()));
+            heldOn(doctorId, date).forEach(builder::hold);
+            schedule.put(date, builder.build());
+        }
+    }
+
+    /**
+     * Marks the range as held for a patient, or no longer held. The caller checks that the
+     * range is free, under the day's slot lock.
+     */
+    public void setHold(Long doctorId, LocalDate date, SlotRange range, boolean isHeld) {
+        NavigableMap<LocalDate, DaySchedule> schedule = doctors.computeIfAbsent(doctorId, id -> new ConcurrentSkipListMap<>());
+        synchronized (schedule) {
+            Map<LocalDate, List<SlotRange>> days = holds.computeIfAbsent(doctorId, id -> new HashMap<>());
+            if (isHeld) {
+                days.computeIfAbsent(date, key -> new ArrayList<>()).add(range);
+            } else {
+                List<SlotRange> ranges = days.getOrDefault(date, new ArrayList<>());
+                ranges.remove(range);
+                if (ranges.isEmpty()) {
+                    days.remove(date);
+                }
+            }
+            schedule.computeIfPresent(date, (key, day) -> day.withHold(range, isHeld));
+        }
+    }
+
+    @Scheduled(cron = "${slots.prune-cron:0 0 0 * * *}")
+    public void prunePastDays() {
+        LocalDate today = LocalDate.now();
+        doctors.values().forEach(schedule -> schedule.headMap(today, false).clear());
+    }
+
+    /**
+     * Swaps in a doctor's freshly loaded days without ever showing a reader an empty
+     * schedule: new days are written first, then days that are gone are removed.
+     */
+    private int replace(Long doctorId, Map<LocalDate, DaySchedule.Builder> days) {
+        NavigableMap<LocalDate, DaySchedule> schedule = doctors.computeIfAbsent(doctorId, id -> new ConcurrentSkipListMap<>());
+        synchronized (schedule) {
+            days.forEach((date, builder) -> {
+                heldOn(doctorId, date).forEach(builder::hold);
+                schedule.put(date, builder.build());
+            });
+            schedule.keySet().retainAll(days.keySet());
+        }
+        return days.size();
+    }
+
+    private List<SlotRange> heldOn(Long doctorId, LocalDate date) {
+        Map<LocalDate, List<SlotRange>> days = holds.get(doctorId);
+        List<SlotRange> ranges = days != null ? days.get(date) : null;
+        return ranges != null ? ranges : List.of();
+    }
+
+    static int currentSlot() {
+        return LocalTime.now().toSecondOfDay() / 60 / SlotGrid.SLOT_MINUTES;
+    }
+
+    private static DaySchedule.Builder builder(Map<Long, Map<LocalDate, DaySchedule.Builder>> builders, SlotRow row) {
+        return builders.computeIfAbsent(row.doctorId(), id -> new HashMap<>())
+                .computeIfAbsent(row.date(), date -> DaySchedule.builder());
+    }
+}
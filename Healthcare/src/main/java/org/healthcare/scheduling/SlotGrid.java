@@ -0,0 +1,102 @@
+package org.healthcare.scheduling;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The canonical time grid: each day is cut into 96 slots of 15 minutes, numbered from 0
+ * at midnight. A time range is a half-open run of slots [start, end), and its canonical
+ * text form is "HH:mm-HH:mm".
+ */
+public final class SlotGrid {
+
+    public static final int SLOT_MINUTES = 15;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    public static final int WORDS_PER_DAY = (SLOTS_PER_DAY + 63) / 64;
+
+    // A single time with no end, e.g. "10:00", books this many minutes
+    private static final int DEFAULT_MINUTES = 30;
+
+    private static final Pattern TIME = Pattern.compile("(\\d{1,2})(?:[:.](\\d{2}))?\\s*([ap]\\.?m\\.?)?");
+    private static final Pattern RANGE = Pattern.compile("^\\s*(" + TIME.pattern() + ")\\s*(?:-|–|—|to)\\s*(" + TIME.pattern() + ")\\s*$");
+    private static final Pattern SINGLE = Pattern.compile("^\\s*(" + TIME.pattern() + ")\\s*$");
+
+    private SlotGrid() {
+    }
+
+    /**
+     * Reads the time slot formats found in existing data: "09:00-09:30", "9:00 - 9:30",
+     * "9:00 AM - 9:30 AM", "9am to 10am", or a single start time. Times off the grid are
+     * widened to it: the start is rounded down and the end up.
+     * @throws IllegalArgumentException if the text is not a time range.
+     */
+    public static SlotRange parse(String timeSlot) {
+        if (timeSlot == null) {
+            throw new IllegalArgumentException("Time slot is required.");
+        }
+        String text = timeSlot.toLowerCase(Locale.ROOT);
+        Matcher range = RANGE.matcher(text);
+        int startMinute;
+        int endMinute;
+        if (range.matches()) {
+            startMinute = minuteOfDay(range.group(1), timeSlot);
+            endMinute = minuteOfDay(range.group(5), timeSlot);
+            if (endMinute == 0) {
+                endMinute = 24 * 60;
+            }
+        } else {
+            Matcher single = SINGLE.matcher(text);
+            if (!single.matches()) {
+                throw new IllegalArgumentException("Unrecognized time slot: " + timeSlot);
+            }
+            startMinute = minuteOfDay(single.group(1), timeSlot);
+            endMinute = startMinute + DEFAULT_MINUTES;
+        }
+        int start = startMinute / SLOT_MINUTES;
+        int end = (endMinute + SLOT_MINUTES - 1) / SLOT_MINUTES;
+        if (end <= start || end > SLOTS_PER_DAY) {
+            throw new IllegalArgumentException("Time slot must end after it starts, on the same day: " + timeSlot);
+        }
+        return new SlotRange(start, end);
+    }
+
+    public static String format(SlotRange range) {
+        return time(range.start()) + "-" + time(range.end());
+    }
+
+    /**
+     * The number of slots needed to cover the given minutes.
+     */
+    public static int slotsFor(int minutes) {
+        if (minutes < SLOT_MINUTES || minutes > 24 * 60) {
+            throw new IllegalArgumentException("Length must be between " + SLOT_MINUTES + " minutes and a day.");
+        }
+        return (minutes + SLOT_MINUTES - 1) / SLOT_MINUTES;
+    }
+
+    private static String time(int slot) {
+        int minutes = slot * SLOT_MINUTES;
+        return String.format("%02d:%02d", minutes / 60, minutes % 60);
+    }
+
+    private static int minuteOfDay(String time, String original) {
+        Matcher matcher = TIME.matcher(time.trim());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Unrecognized time slot: " + original);
+        }
+        int hour = Integer.parseInt(matcher.group(1));
+        int minute = matcher.group(2) != null ? Integer.parseInt(matcher.group(2)) : 0;
+        String meridiem = matcher.group(3);
+        if (meridiem != null) {
+            if (hour < 1 || hour > 12) {
+                throw new IllegalArgumentException("Unrecognized time slot: " + original);
+            }
+            hour = hour % 12 + (meridiem.startsWith("p") ? 12 : 0);
+        }
+        if (hour > 24 || minute > 59 || (hour == 24 && minute > 0)) {
+            throw new IllegalArgumentException("Unrecognized time slot: " + original);
+        }
+        return hour * 60 + minute;
+    }
+}
@@ -0,0 +1,14 @@
+package org.healthcare.scheduling;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * A slot held for one patient until expiresAt.
+ */
+public record SlotHold(String id, Long patientId, Long doctorId, LocalDate date, SlotRange range, Instant expiresAt) {
+
+    public boolean covers(Long doctorId, LocalDate date, SlotRange range) {
+        return this.doctorId.equals(doctorId) && this.date.equals(date) && this.range.equals(range);
+    }
+}
@@ -0,0 +1,209 @@
+package org.healthcare.scheduling;
+
+import lombok.extern.slf4j.Slf4j;
+import org.healthcare.events.SlotFreedEvent;
+import org.healthcare.exception.SlotUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Short holds on free slots while a patient completes checkout. A held slot is not free
+ * to anyone else; its holder turns it into an appointment by booking with the hold's id
+ * before it expires.
+ *
+ * Holds live in memory only: in the slot calendar, so listings and the earliest slot index
+ * skip held slots, and in a timing wheel that expires them from one ticking task, however
+ * many there are. A restart drops them, which only frees the slots early. A hold that
+ * ends without a booking publishes a SlotFreedEvent, so the slot goes to the waitlist.
+ */
+@Component
+@Slf4j
+public class SlotHolds {
+
+    private final SlotCalendar slotCalendar;
+    private final EarliestSlotIndex earliestSlotIndex;
+    private final SlotLocks slotLocks;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration ttl;
+    private final int maxPerPatient;
+
+    // All guarded by this
+    private final TimingWheel<Held> wheel;
+    private final Map<String, TimingWheel.Timeout<Held>> holds = new HashMap<>();
+    private final Map<Long, Integer> holdsPerPatient = new HashMap<>();
+
+    public SlotHolds(SlotCalendar slotCalendar,
+                     EarliestSlotIndex earliestSlotIndex,
+                     SlotLocks slotLocks,
+                     ApplicationEventPublisher eventPublisher,
+                     @Value("${slots.hold.ttl-seconds:300}") long ttlSeconds,
+                     @Value("${slots.hold.tick-ms:1000}") long tickMillis,
+                     @Value("${slots.hold.max-per-patient:3}") int maxPerPatient) {
+        this.slotCalendar = slotCalendar;
+        this.earliestSlotIndex = earliestSlotIndex;
+        this.slotLocks = slotLocks;
+        this.eventPublisher = eventPublisher;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.maxPerPatient = maxPerPatient;
+        this.wheel = new TimingWheel<>(tickMillis, System.currentTimeMillis());
+    }
+
+    /**
+     * Holds the range for the patient if it is free.
+     * @throws SlotUnavailableException if it is not.
+     * @throws IllegalArgumentException if the patient already holds the maximum number of slots.
+     */
+    public SlotHold hold(Long patientId, Long doctorId, LocalDate date, SlotRange range) {
+        return place(patientId, doctorId, date, range, ttl, true);
+    }
+
+    /**
+     * Holds the range for a patient the system is offering it to, e.g. from the waitlist.
+     * Not counted against the patient's own holds.
+     * @throws SlotUnavailableException if the range is not free.
+     */
+    public SlotHold offer(Long patientId, Long doctorId, LocalDate date, SlotRange range, Duration offerTtl) {
+        return place(patientId, doctorId, date, range, offerTtl, false);
+    }
+
+    private SlotHold place(Long patientId, Long doctorId, LocalDate date, SlotRange range, Duration holdFor, boolean limited) {
+        SlotHold hold;
+        ReentrantLock lock = slotLocks.lock(doctorId, date);
+        try {
+            if (!slotCalendar.isFree(doctorId, date, range)) {
+                throw new SlotUnavailableException("Time slot " + SlotGrid.format(range) + " on " + date + " is not available.");
+            }
+            hold = new SlotHold(UUID.randomUUID().toString(), patientId, doctorId, date, range, Instant.now().plus(holdFor));
+            synchronized (this) {
+                if (limited && holdsPerPatient.getOrDefault(patientId, 0) >= maxPerPatient) {
+                    throw new IllegalArgumentException("You can hold at most " + maxPerPatient + " slots at a time.");
+                }
+                holds.put(hold.id(), wheel.schedule(new Held(hold, limited), hold.expiresAt().toEpochMilli()));
+                if (limited) {
+                    holdsPerPatient.merge(patientId, 1, Integer::sum);
+                }
+            }
+            slotCalendar.setHold(doctorId, date, range, true);
+        } finally {
+            lock.unlock();
+        }
+        earliestSlotIndex.index(doctorId, date, slotCalendar.day(doctorId, date));
+        return hold;
+    }
+
+    /**
+     * Takes the patient's hold on exactly this range off the wheel, so it cannot expire
+     * while it is being booked. The slot stays held until the current transaction completes.
+     * @throws SlotUnavailableException if the hold has expired, or is not the patient's.
+     * @throws IllegalArgumentException if the hold is for a different slot.
+     * @throws IllegalStateException if no transaction is active.
+     */
+    public SlotHold claimUntilCompletion(String holdId, Long patientId, Long doctorId, LocalDate date, SlotRange range) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("A hold must be claimed inside a transaction.");
+        }
+        SlotHold hold;
+        synchronized (this) {
+            hold = find(holdId, patientId);
+            if (hold == null) {
+                throw new SlotUnavailableException("The hold has expired. Please choose a slot again.");
+            }
+            if (!hold.covers(doctorId, date, range)) {
+                throw new IllegalArgumentException("The booking does not match the held slot.");
+            }
+            remove(hold);
+        }
+        // Before SlotLocks releases the day
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return Ordered.LOWEST_PRECEDENCE - 1;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                release(hold);
+            }
+        });
+        return hold;
+    }
+
+    /**
+     * Gives up the patient's hold. Unknown and expired holds are ignored.
+     */
+    public void cancel(String holdId, Long patientId) {
+        SlotHold hold;
+        synchronized (this) {
+            hold = find(holdId, patientId);
+            if (hold == null) {
+                return;
+            }
+            remove(hold);
+        }
+        release(hold);
+    }
+
+    @Scheduled(fixedDelayString = "${slots.hold.tick-ms:1000}")
+    public void expire() {
+        List<SlotHold> expired = new ArrayList<>();
+        synchronized (this) {
+            wheel.advance(System.currentTimeMillis(), held -> {
+                holds.remove(held.hold().id());
+                uncount(held);
+                expired.add(held.hold());
+            });
+        }
+        expired.forEach(this::release);
+        if (!expired.isEmpty()) {
+            log.debug("{} slot holds expired, {} active", expired.size(), size());
+        }
+    }
+
+    public synchronized int size() {
+        return holds.size();
+    }
+
+    private SlotHold find(String holdId, Long patientId) {
+        TimingWheel.Timeout<Held> timeout = holds.get(holdId);
+        return timeout != null && timeout.value().hold().patientId().equals(patientId) ? timeout.value().hold() : null;
+    }
+
+    private void remove(SlotHold hold) {
+        TimingWheel.Timeout<Held> timeout = holds.remove(hold.id());
+        wheel.cancel(timeout);
+        uncount(timeout.value());
+    }
+
+    private void uncount(Held held) {
+        if (held.limited()) {
+            holdsPerPatient.computeIfPresent(held.hold().patientId(), (id, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private void release(SlotHold hold) {
+        slotCalendar.setHold(hold.doctorId(), hold.date(), hold.range(), false);
+        earliestSlotIndex.index(hold.doctorId(), hold.date(), slotCalendar.day(hold.doctorId(), hold.date()));
+        // Not booked in the end
+        if (slotCalendar.isFree(hold.doctorId(), hold.date(), hold.range())) {
+            eventPublisher.publishEvent(new SlotFreedEvent(hold.doctorId(), hold.date(), hold.id()));
+        }
+    }
+
+    private record Held(SlotHold hold, boolean limited) {
+    }
+}
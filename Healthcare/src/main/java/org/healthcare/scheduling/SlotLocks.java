@@ -0,0 +1,89 @@
+package org.healthcare.scheduling;
+
+import org.healthcare.exception.SlotUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped locks over (doctor, day). Everything that reads a day's slots to decide a
+ * write - booking, reactivating or cancelling an appointment, adding availability - runs
+ * under the day's lock, so one request's check and write cannot interleave with another's.
+ * Each (doctor, day) hashes to one of a fixed number of stripes. Unrelated days usually
+ * land on different stripes, but two days that share a stripe wait for each other. The
+ * materializer holds every stripe of the days it rewrites for one doctor until that
+ * doctor's transaction commits, so others wait on those stripes meanwhile.
+ *
+ * The locks are per instance. The database's unique key on active appointments only
+ * rejects two active appointments with the same start slot, so it does not stop
+ * overlapping ranges with different starts from being booked on separate instances.
+ */
+@Component
+public class SlotLocks {
+
+    private final ReentrantLock[] stripes;
+    private final long timeoutMillis;
+
+    public SlotLocks(@Value("${slots.lock-stripes:1024}") int stripeCount,
+                     @Value("${slots.lock-timeout-ms:5000}") long timeoutMillis) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1) << 1);
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Locks the day until the current transaction completes. The release is ordered after
+     * SlotCalendar's reload, so the calendar already shows this transaction's changes when
+     * the next request for the day gets the lock.
+     * @throws IllegalStateException if no transaction is active.
+     * @throws SlotUnavailableException if the day stays locked past the timeout.
+     */
+    public void lockUntilCompletion(Long doctorId, LocalDate date) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("A slot lock must be taken inside a transaction.");
+        }
+        ReentrantLock lock = lock(doctorId, date);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return Ordered.LOWEST_PRECEDENCE;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Locks the day and returns the held lock; the caller must unlock it.
+     */
+    public ReentrantLock lock(Long doctorId, LocalDate date) {
+        ReentrantLock lock = stripes[stripe(doctorId, date)];
+        try {
+            if (!lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SlotUnavailableException("The schedule is busy right now. Please try again.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SlotUnavailableException("The schedule is busy right now. Please try again.");
+        }
+        return lock;
+    }
+
+    int stripe(Long doctorId, LocalDate date) {
+        int hash = doctorId.hashCode() * 31 + date.hashCode();
+        hash ^= hash >>> 16;
+        return hash & (stripes.length - 1);
+    }
+}
@@ -0,0 +1,349 @@
+package org.healthcare.scheduling;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.healthcare.events.DoctorDirectoryChangedEvent;
+import org.healthcare.events.SlotsChangedEvent;
+import org.healthcare.exception.SlotUnavailableException;
+import org.healthcare.models.AvailabilityException;
+import org.healthcare.models.AvailabilityTemplate;
+import org.healthcare.repository.AvailabilityExceptionRepository;
+import org.healthcare.repository.AvailabilityTemplateRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+/**
+ * Expands weekly availability templates into doctor_availability rows from today up to a
+ * rolling horizon. Each run compares, per doctor and day, the rows the templates want
+ * with the generated rows that exist, then deletes and inserts only the difference in
+ * JDBC batches. Re-running is therefore cheap and safe, and editing one template only
+ * touches the days it covers.
+ *
+ * Rows added by hand are never removed, and generated rows that overlap an active
+ * appointment are kept even when their template no longer wants them. A generated slot
+ * that would overlap an existing row is skipped.
+ *
+ * Like every other availability change, the writes run under SlotLocks, one doctor at a
+ * time: the days the doctor's plan touches are locked until that doctor's transaction
+ * commits, and the doctor is planned again under those locks before anything is written.
+ * Days the run does not change are not locked, so a run never holds more than one
+ * doctor's horizon of stripes.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class SlotMaterializer {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String SELECT_ROWS =
+            "SELECT availability_id, doctor_id, date, start_slot, end_slot, template_id FROM doctor_availability " +
+            "WHERE doctor_id IN (:doctorIds) AND date BETWEEN :from AND :to AND start_slot IS NOT NULL";
+    private static final String SELECT_BOOKINGS =
+            "SELECT doctor_id, date, start_slot, end_slot FROM appointment " +
+            "WHERE doctor_id IN (:doctorIds) AND date BETWEEN :from AND :to AND start_slot IS NOT NULL " +
+            "AND status IN ('Waiting', 'Booked')";
+    private static final String INSERT_ROW =
+            "INSERT INTO doctor_availability (doctor_id, date, time_slot, start_slot, end_slot, is_available, template_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    // Re-checked at delete time, so a slot booked after the plan was made is kept
+    private static final String DELETE_ROW =
+            "DELETE FROM doctor_availability WHERE availability_id = ? AND NOT EXISTS (" +
+            "SELECT 1 FROM appointment a WHERE a.doctor_id = ? AND a.date = ? AND a.status IN ('Waiting', 'Booked') " +
+            "AND a.start_slot < ? AND a.end_slot > ?)";
+
+    private final AvailabilityTemplateRepository templateRepository;
+    private final AvailabilityExceptionRepository exceptionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SlotLocks slotLocks;
+
+    @Value("${availability.template.horizon-days:90}")
+    private int horizonDays;
+
+    @Value("${availability.template.doctors-per-batch:50}")
+    private int doctorsPerBatch;
+
+    public LocalDate horizonEnd() {
+        return LocalDate.now().plusDays(horizonDays);
+    }
+
+    /**
+     * Brings every doctor with templates up to date through the horizon. Each batch of
+     * doctors is planned without locks to find the doctors with changes; those are then
+     * written one short transaction each. Runs at startup and daily, which extends the
+     * horizon by a day. A doctor whose days stay locked is skipped and picked up by the
+     * next run.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @Scheduled(cron = "${availability.template.materialize-cron:0 30 0 * * *}")
+    public synchronized void materializeHorizon() {
+        long startedAt = System.currentTimeMillis();
+        LocalDate from = LocalDate.now();
+        LocalDate to = horizonEnd();
+        List<Long> doctorIds = templateRepository.findDoctorIdsWithTemplates();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        int inserted = 0;
+        int deleted = 0;
+        for (int i = 0; i < doctorIds.size(); i += doctorsPerBatch) {
+            List<Long> batch = doctorIds.subList(i, Math.min(i + doctorsPerBatch, doctorIds.size()));
+            Set<Long> changed = new TreeSet<>();
+            plan(batch, from, to, date -> true).days().forEach(day -> changed.add(day.doctorId()));
+            for (Long doctorId : changed) {
+                try {
+                    Plan plan = transaction.execute(status -> apply(List.of(doctorId), from, to, date -> true));
+                    inserted += plan.inserted;
+                    deleted += plan.deleted;
+                } catch (SlotUnavailableException e) {
+                    log.warn("Skipped materializing doctor {}: their schedule stayed locked", doctorId);
+                }
+            }
+        }
+        log.info("Materialized templates of {} doctors through {}: {} slots added, {} removed in {} ms",
+                doctorIds.size(), to, inserted, deleted, System.currentTimeMillis() - startedAt);
+        if (inserted > 0 || deleted > 0) {
+            eventPublisher.publishEvent(new DoctorDirectoryChangedEvent(null));
+        }
+    }
+
+    /**
+     * Regenerates one doctor's slots on the selected days between from and to, clipped to
+     * today and the horizon. Joins the caller's transaction, so a template edit and its
+     * slots commit together.
+     */
+    public synchronized void materializeDoctor(Long doctorId, LocalDate from, LocalDate to, Predicate<LocalDate> days) {
+        LocalDate start = from == null || from.isBefore(LocalDate.now()) ? LocalDate.now() : from;
+        LocalDate end = to == null || to.isAfter(horizonEnd()) ? horizonEnd() : to;
+        if (start.isAfter(end)) {
+            return;
+        }
+        Plan plan = new TransactionTemplate(transactionManager).execute(status -> apply(List.of(doctorId), start, end, days));
+        if (plan.inserted > 0 || plan.deleted > 0) {
+            eventPublisher.publishEvent(new DoctorDirectoryChangedEvent(doctorId));
+        }
+    }
+
+    /**
+     * Plans and writes inside the current transaction. The days the plan touches are locked
+     * first and the doctors are planned again, since bookings and hand-made slots may
+     * have changed meanwhile; that repeats until the plan stays within the locked days.
+     * Each changed doctor's calendar is reloaded when the transaction commits, before the
+     * locks are released.
+     */
+    private Plan apply(List<Long> doctorIds, LocalDate from, LocalDate to, Predicate<LocalDate> days) {
+        Set<DoctorDay> locked = new HashSet<>();
+        Plan plan = plan(doctorIds, from, to, days);
+        while (!locked.containsAll(plan.days())) {
+            for (DoctorDay day : plan.days()) {
+                if (locked.add(day)) {
+                    slotLocks.lockUntilCompletion(day.doctorId(), day.date());
+                }
+            }
+            plan = plan(doctorIds, from, to, days);
+        }
+        write(plan);
+        plan.days().stream().map(DoctorDay::doctorId).distinct()
+                .forEach(doctorId -> eventPublisher.publishEvent(new SlotsChangedEvent(doctorId, null)));
+        return plan;
+    }
+
+    private Plan plan(List<Long> doctorIds, LocalDate from, LocalDate to, Predicate<LocalDate> days) {
+        Map<Long, List<Rule>> rules = new HashMap<>();
+        for (AvailabilityTemplate template : templateRepository.findByDoctorIdIn(doctorIds)) {
+            rules.computeIfAbsent(template.getDoctor().getId(), id -> new ArrayList<>()).add(Rule.of(template));
+        }
+        Map<Long, Set<LocalDate>> blocked = new HashMap<>();
+        for (AvailabilityException exception : exceptionRepository.findByDoctorIdInAndDateBetween(doctorIds, from, to)) {
+            blocked.computeIfAbsent(exception.getDoctor().getId(), id -> new HashSet<>()).add(exception.getDate());
+        }
+
+        Map<String, Object> params = Map.of("doctorIds", doctorIds, "from", Date.valueOf(from), "to", Date.valueOf(to));
+        Map<Long, Map<LocalDate, List<ExistingRow>>> rows = new HashMap<>();
+        namedParameterJdbcTemplate.query(SELECT_ROWS, params, rs -> {
+            long templateId = rs.getLong(6);
+            rows.computeIfAbsent(rs.getLong(2), id -> new HashMap<>())
+                    .computeIfAbsent(rs.getDate(3).toLocalDate(), date -> new ArrayList<>())
+                    .add(new ExistingRow(rs.getLong(1), new SlotRange(rs.getInt(4), rs.getInt(5)), rs.wasNull() ? null : templateId));
+        });
+        Map<Long, Map<LocalDate, DaySchedule.Builder>> bookings = new HashMap<>();
+        namedParameterJdbcTemplate.query(SELECT_BOOKINGS, params, rs -> {
+            bookings.computeIfAbsent(rs.getLong(1), id -> new HashMap<>())
+                    .computeIfAbsent(rs.getDate(2).toLocalDate(), date -> DaySchedule.builder())
+                    .book(new SlotRange(rs.getInt(3), rs.getInt(4)));
+        });
+
+        Plan plan = new Plan();
+        for (Long doctorId : doctorIds) {
+            plan(plan, doctorId, rules.getOrDefault(doctorId, List.of()), blocked.getOrDefault(doctorId, Set.of()),
+                    rows.getOrDefault(doctorId, Map.of()), bookings.getOrDefault(doctorId, Map.of()), from, to, days);
+        }
+        return plan;
+    }
+
+    private void write(Plan plan) {
+        List<Object[]> deletes = plan.deletes.stream()
+                .map(row -> new Object[]{row.availabilityId(), row.doctorId(), Date.valueOf(row.date()), row.range().end(), row.range().start()})
+                .toList();
+        for (int i = 0; i < deletes.size(); i += BATCH_SIZE) {
+            for (int count : jdbcTemplate.batchUpdate(DELETE_ROW, deletes.subList(i, Math.min(i + BATCH_SIZE, deletes.size())))) {
+                // Drivers may report SUCCESS_NO_INFO (-2) for rewritten batches
+                plan.deleted += count == 0 ? 0 : 1;
+            }
+        }
+        List<Object[]> inserts = plan.inserts.stream()
+                .map(row -> new Object[]{row.doctorId(), Date.valueOf(row.date()), SlotGrid.format(row.range()),
+                        row.range().start(), row.range().end(), row.available(), row.templateId()})
+                .toList();
+        for (int i = 0; i < inserts.size(); i += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(INSERT_ROW, inserts.subList(i, Math.min(i + BATCH_SIZE, inserts.size())));
+        }
+        plan.inserted = inserts.size();
+    }
+
+    /**
+     * Works out one doctor's inserts and deletes on the selected days. Pure, so it can be
+     * tested and timed without a database.
+     */
+    static void plan(Plan plan, Long doctorId, List<Rule> rules, Set<LocalDate> blocked,
+                     Map<LocalDate, List<ExistingRow>> rows, Map<LocalDate, DaySchedule.Builder> bookings,
+                     LocalDate from, LocalDate to, Predicate<LocalDate> days) {
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            if (!days.test(date)) {
+                continue;
+            }
+            Set<Generated> wanted = new LinkedHashSet<>();
+            if (!blocked.contains(date)) {
+                for (Rule rule : rules) {
+                    if (rule.appliesOn(date)) {
+                        rule.pieces().forEach(piece -> wanted.add(new Generated(rule.templateId(), piece)));
+                    }
+                }
+            }
+            DaySchedule.Builder booking = bookings.get(date);
+            DaySchedule booked = booking != null ? booking.build() : DaySchedule.EMPTY;
+
+            long[] offered = new long[SlotGrid.WORDS_PER_DAY];
+            for (ExistingRow row : rows.getOrDefault(date, List.of())) {
+                boolean keep = row.templateId() == null
+                        || wanted.remove(new Generated(row.templateId(), row.range()))
+                        || booked.overlapsBooking(row.range());
+                if (keep) {
+                    mark(offered, row.range());
+                } else {
+                    plan.deletes.add(new PlannedDelete(row.availabilityId(), doctorId, date, row.range()));
+                }
+            }
+            for (Generated slot : wanted) {
+                if (!overlaps(offered, slot.range())) {
+                    mark(offered, slot.range());
+                    plan.inserts.add(new PlannedInsert(doctorId, date, slot.range(), slot.templateId(), !booked.isBooked(slot.range())));
+                }
+            }
+        }
+    }
+
+    private static void mark(long[] bitmap, SlotRange range) {
+        for (int w = 0; w < bitmap.length; w++) {
+            bitmap[w] |= range.mask(w);
+        }
+    }
+
+    private static boolean overlaps(long[] bitmap, SlotRange range) {
+        for (int w = 0; w < bitmap.length; w++) {
+            if ((bitmap[w] & range.mask(w)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    record Rule(Long templateId, DayOfWeek dayOfWeek, SlotRange range, int pieceSlots, LocalDate validFrom, LocalDate validUntil) {
+
+        static Rule of(AvailabilityTemplate template) {
+            SlotRange range = new SlotRange(template.getStartSlot(), template.getEndSlot());
+            int pieceSlots = template.getSlotMinutes() != null ? SlotGrid.slotsFor(template.getSlotMinutes()) : range.length();
+            return new Rule(template.getTemplateId(), template.getDayOfWeek(), range, pieceSlots,
+                    template.getValidFrom(), template.getValidUntil());
+        }
+
+        boolean appliesOn(LocalDate date) {
+            return date.getDayOfWeek() == dayOfWeek
+                    && (validFrom == null || !date.isBefore(validFrom))
+                    && (validUntil == null || !date.isAfter(validUntil));
+        }
+
+        /**
+         * The block cut into slots of pieceSlots; a remainder shorter than a slot is dropped.
+         */
+        List<SlotRange> pieces() {
+            List<SlotRange> pieces = new ArrayList<>();
+            for (int start = range.start(); start + pieceSlots <= range.end(); start += pieceSlots) {
+                pieces.add(new SlotRange(start, start + pieceSlots));
+            }
+            return pieces;
+        }
+    }
+
+    record ExistingRow(long availabilityId, SlotRange range, Long templateId) {
+    }
+
+    record Generated(Long templateId, SlotRange range) {
+    }
+
+    record PlannedInsert(Long doctorId, LocalDate date, SlotRange range, Long templateId, boolean available) {
+    }
+
+    record PlannedDelete(long availabilityId, Long doctorId, LocalDate date, SlotRange range) {
+    }
+
+    record DoctorDay(Long doctorId, LocalDate date) {
+
+        // Other writers hold one day's lock at a time; a doctor's days are taken in this order
+        static final Comparator<DoctorDay> ORDER = Comparator.comparing(DoctorDay::doctorId).thenComparing(DoctorDay::date);
+    }
+
+    static final class Plan {
+        final List<PlannedInsert> inserts = new ArrayList<>();
+        final List<PlannedDelete> deletes = new ArrayList<>();
+        int inserted;
+        int deleted;
+
+        /**
+         * The doctor-days this plan writes to, in lock order.
+         */
+        Set<DoctorDay> days() {
+            Set<DoctorDay> days = new TreeSet<>(DoctorDay.ORDER);
+            inserts.forEach(insert -> days.add(new DoctorDay(insert.doctorId(), insert.date())));
+            deletes.forEach(delete -> days.add(new DoctorDay(delete.doctorId(), delete.date())));
+            return days;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.healthcare.scheduling;
+
+/**
+ * A half-open run of grid slots within one day, [start, end).
+ */
+public record SlotRange(int start, int end) {
+
+    public SlotRange {
+        if (start < 0 || end > SlotGrid.SLOTS_PER_DAY || end <= start) {
+            throw new IllegalArgumentException("Invalid slot range: " + start + "-" + end);
+        }
+    }
+
+    public int length() {
+        return end - start;
+    }
+
+    /**
+     * This range's bits within one 64-bit word of a day bitmap.
+     */
+    long mask(int word) {
+        int from = Math.max(start, word * 64);
+        int to = Math.min(end, (word + 1) * 64);
+        if (from >= to) {
+            return 0;
+        }
+        int bits = to - from;
+        return (bits == 64 ? -1L : (1L << bits) - 1) << (from - word * 64);
+    }
+}
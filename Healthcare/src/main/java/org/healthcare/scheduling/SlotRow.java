@@ -0,0 +1,14 @@
+package org.healthcare.scheduling;
+
+import java.time.LocalDate;
+
+/**
+ * One slot range as read from doctor_availability or appointment. For appointments,
+ * isAvailable is unused.
+ */
+public record SlotRow(Long doctorId, LocalDate date, Integer startSlot, Integer endSlot, Boolean isAvailable) {
+
+    public SlotRange range() {
+        return new SlotRange(startSlot, endSlot);
+    }
+}
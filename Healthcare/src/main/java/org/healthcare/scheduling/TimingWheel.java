@@ -0,0 +1,147 @@
+package org.healthcare.scheduling;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: four levels of 64 buckets, each bucket of a level spanning
+ * a whole turn of the level below, so deadlines up to 64^4 ticks ahead are placed with a
+ * shift and a mask. Scheduling and cancelling link or unlink one node. Each tick expires
+ * one bucket of the lowest level and, once per turn, spreads one bucket of the level above
+ * over the levels below; an entry is moved at most once per level, so the cost per entry
+ * stays constant however many are pending.
+ *
+ * Not thread-safe; the caller serializes access.
+ */
+public final class TimingWheel<T> {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELAY = (1L << (BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+    // Sentinel heads of circular lists
+    private final Timeout<T>[][] buckets;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis < 1) {
+            throw new IllegalArgumentException("Tick must be at least a millisecond.");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+        this.buckets = new Timeout[LEVELS][SLOTS];
+        for (Timeout<T>[] level : buckets) {
+            for (int i = 0; i < SLOTS; i++) {
+                Timeout<T> head = new Timeout<>(null, 0);
+                head.prev = head;
+                head.next = head;
+                level[i] = head;
+            }
+        }
+    }
+
+    /**
+     * Adds a value that expires on the first tick at or after the deadline.
+     */
+    public Timeout<T> schedule(T value, long deadlineMillis) {
+        long deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        Timeout<T> timeout = new Timeout<>(value, Math.max(deadlineTick, currentTick + 1));
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * @return false if the timeout had already expired or been cancelled.
+     */
+    public boolean cancel(Timeout<T> timeout) {
+        if (timeout.next == null) {
+            return false;
+        }
+        unlink(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves the wheel up to the given time, handing every value whose deadline has passed
+     * to the consumer, earliest tick first.
+     */
+    public void advance(long nowMillis, Consumer<T> expired) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = 1; level < LEVELS && (currentTick & ((1L << (BITS * level)) - 1)) == 0; level++) {
+                cascade(buckets[level][index(currentTick, level)]);
+            }
+            Timeout<T> head = buckets[0][index(currentTick, 0)];
+            while (head.next != head) {
+                Timeout<T> timeout = head.next;
+                unlink(timeout);
+                size--;
+                expired.accept(timeout.value);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Places by distance from the current tick: the lowest level whose span covers it.
+     * Deadlines beyond the top level wait in its farthest bucket and are placed again
+     * when it comes round.
+     */
+    private void place(Timeout<T> timeout) {
+        long delay = Math.min(timeout.deadlineTick - currentTick, MAX_DELAY);
+        int level = 0;
+        while (level < LEVELS - 1 && delay >= 1L << (BITS * (level + 1))) {
+            level++;
+        }
+        long tick = timeout.deadlineTick - currentTick > MAX_DELAY ? currentTick + MAX_DELAY : timeout.deadlineTick;
+        Timeout<T> head = buckets[level][index(tick, level)];
+        timeout.prev = head.prev;
+        timeout.next = head;
+        head.prev.next = timeout;
+        head.prev = timeout;
+    }
+
+    private void cascade(Timeout<T> head) {
+        while (head.next != head) {
+            Timeout<T> timeout = head.next;
+            unlink(timeout);
+            place(timeout);
+        }
+    }
+
+    private static int index(long tick, int level) {
+        return (int) (tick >>> (BITS * level)) & (SLOTS - 1);
+    }
+
+    private static <T> void unlink(Timeout<T> timeout) {
+        timeout.prev.next = timeout.next;
+        timeout.next.prev = timeout.prev;
+        timeout.prev = null;
+        timeout.next = null;
+    }
+
+    public static final class Timeout<T> {
+        private final T value;
+        private final long deadlineTick;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(T value, long deadlineTick) {
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T value() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.healthcare.scheduling;
+
+import java.time.LocalDate;
+
+/**
+ * A waitlisted patient as queued in memory; see WaitlistQueues.
+ */
+public record Waiter(Long waitlistId, Long patientId, Long doctorId, LocalDate date, Integer minutes) {
+
+    public int lengthSlots() {
+        return SlotGrid.slotsFor(minutes);
+    }
+}
@@ -0,0 +1,102 @@
+package org.healthcare.scheduling;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+
+/**
+ * Patients waiting for a slot with a doctor on a day, in the order they joined. Each
+ * doctor-day's queue is split by the slot length wanted, so placing a freed slot looks at
+ * one head per length, shortest first, instead of walking past every patient who wants a
+ * longer slot than the one that opened.
+ *
+ * The waitlist_entry table is the source of truth; the queues are loaded from it at
+ * startup and kept in step by WaitlistService.
+ */
+@Component
+public class WaitlistQueues {
+
+    // Doctor-day -> length in slots -> waiters by waitlist id, i.e. in joining order
+    private final Map<DayKey, NavigableMap<Integer, NavigableMap<Long, Waiter>>> queues = new HashMap<>();
+    private final Map<Long, Waiter> waiters = new HashMap<>();
+
+    public synchronized void load(Collection<Waiter> all) {
+        queues.clear();
+        waiters.clear();
+        all.forEach(this::add);
+    }
+
+    /**
+     * Adds the waiter at its place in the queue: behind everyone who joined earlier, so a
+     * waiter taken out by poll and put back keeps its turn.
+     */
+    public synchronized void add(Waiter waiter) {
+        waiters.put(waiter.waitlistId(), waiter);
+        queues.computeIfAbsent(new DayKey(waiter.doctorId(), waiter.date()), key -> new TreeMap<>())
+                .computeIfAbsent(waiter.lengthSlots(), key -> new TreeMap<>())
+                .put(waiter.waitlistId(), waiter);
+    }
+
+    public synchronized boolean remove(Long waitlistId) {
+        Waiter waiter = waiters.remove(waitlistId);
+        if (waiter == null) {
+            return false;
+        }
+        DayKey key = new DayKey(waiter.doctorId(), waiter.date());
+        NavigableMap<Integer, NavigableMap<Long, Waiter>> byLength = queues.get(key);
+        NavigableMap<Long, Waiter> queue = byLength.get(waiter.lengthSlots());
+        queue.remove(waitlistId);
+        if (queue.isEmpty()) {
+            byLength.remove(waiter.lengthSlots());
+            if (byLength.isEmpty()) {
+                queues.remove(key);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Takes out the longest-waiting patient whose wanted length fits, or returns null.
+     * @param fits Whether the day has a free run of the given number of slots. A length
+     *             that does not fit rules out all longer ones, so they are not asked about.
+     */
+    public synchronized Waiter poll(Long doctorId, LocalDate date, IntPredicate fits) {
+        NavigableMap<Integer, NavigableMap<Long, Waiter>> byLength = queues.get(new DayKey(doctorId, date));
+        if (byLength == null) {
+            return null;
+        }
+        Waiter first = null;
+        for (Map.Entry<Integer, NavigableMap<Long, Waiter>> queue : byLength.entrySet()) {
+            if (!fits.test(queue.getKey())) {
+                break;
+            }
+            Waiter head = queue.getValue().firstEntry().getValue();
+            if (first == null || head.waitlistId() < first.waitlistId()) {
+                first = head;
+            }
+        }
+        if (first != null) {
+            remove(first.waitlistId());
+        }
+        return first;
+    }
+
+    public synchronized void pruneBefore(LocalDate date) {
+        waiters.values().removeIf(waiter -> waiter.date().isBefore(date));
+        queues.keySet().removeIf(key -> key.date().isBefore(date));
+    }
+
+    public synchronized int size(Long doctorId, LocalDate date) {
+        NavigableMap<Integer, NavigableMap<Long, Waiter>> byLength = queues.get(new DayKey(doctorId, date));
+        return byLength == null ? 0 : byLength.values().stream().mapToInt(Map::size).sum();
+    }
+
+    private record DayKey(Long doctorId, LocalDate date) {
+    }
+}
@@ -1,22 +1,95 @@
 package org.healthcare.security;
 
 
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.healthcare.logging.AccessLogWriter;
+import org.healthcare.logging.CountingResponseWrapper;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
 import java.io.IOException;
 
+/**
+ * Access logging. Runs just outside the security filter chain so rejected requests are
+ * logged too, and hands each finished request to AccessLogWriter.
+ */
 @Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+@RequiredArgsConstructor
 public class CustomLoggingFilter extends OncePerRequestFilter {
 
+    /**
+     * Set by AuthTokenFilter once the request is authenticated; the security context
+     * is already cleared by the time this filter logs.
+     */
+    public static final String USER_ID_ATTRIBUTE = CustomLoggingFilter.class.getName() + ".userId";
+
+    private final AccessLogWriter accessLogWriter;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
-        System.out.println("CustomLoggingFilter - Request URI: " + request.getRequestURI());
-        filterChain.doFilter(request, response);
-        System.out.println("CustomLoggingFilter - Response Status: " + response.getStatus());
+        long start = System.nanoTime();
+        CountingResponseWrapper countingResponse = new CountingResponseWrapper(response);
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, countingResponse);
+            failed = false;
+        } finally {
+            if (!failed && request.isAsyncStarted()) {
+                // Async handlers (e.g. sign-in) finish on another thread; log when they complete.
+                // The container completes timed-out and failed requests too, once their error
+                // handling has run, so those are logged on completion with their final status.
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    private volatile int failureStatus;
+
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        int status = countingResponse.getStatus();
+                        // Nothing set an error status, e.g. the client went away
+                        if (failureStatus != 0 && status < HttpServletResponse.SC_BAD_REQUEST) {
+                            status = failureStatus;
+                        }
+                        record(request, countingResponse, status, start);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                        failureStatus = HttpServletResponse.SC_SERVICE_UNAVAILABLE;
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                        failureStatus = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                record(request, countingResponse, failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : countingResponse.getStatus(), start);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, CountingResponseWrapper response, int status, long start) {
+        // The route template keeps the log free of ids; unmatched requests fall back to the raw path
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Object userId = request.getAttribute(USER_ID_ATTRIBUTE);
+        accessLogWriter.record(request.getMethod(),
+                route != null ? route.toString() : request.getRequestURI(),
+                status,
+                System.nanoTime() - start,
+                userId instanceof Long id ? id : -1L,
+                response.getBytesWritten());
     }
 }
@@ -3,6 +3,7 @@ import org.healthcare.security.jwt.AuthEntryPointJwt;
 import org.healthcare.security.jwt.AuthTokenFilter;
 import org.healthcare.security.services.UserDetailsServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -34,6 +35,9 @@ public class SecurityConfig {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Value("${security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
         return new AuthTokenFilter();
@@ -50,9 +54,18 @@ public class SecurityConfig {
                         .requestMatchers("/auth/public/register-doctor").permitAll()
                         .requestMatchers("/auth/register-doctor").permitAll()
                         .requestMatchers("/auth/public/signin").permitAll()
+                        .requestMatchers("/auth/refresh").permitAll()
+                        .requestMatchers("/auth/logout").permitAll()
                         .requestMatchers("/api/doctors/all").permitAll()
                         .requestMatchers("/api/doctors/top-rated").permitAll()
+                        .requestMatchers("/api/doctors/directory").permitAll()
+                        .requestMatchers("/api/doctors/search").permitAll()
+                        .requestMatchers("/api/doctors/facets").permitAll()
+                        .requestMatchers("/api/doctors/*/free-slots").permitAll()
+                        .requestMatchers("/api/doctors/earliest-slots").permitAll()
                         .requestMatchers("/error").permitAll()
+                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/internal/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(authenticationJwtTokenFilter(), UsernamePasswordAuthenticationFilter.class)
@@ -83,7 +96,7 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
@@ -1,22 +1,24 @@
 package org.healthcare.security.jwt;
 
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import org.healthcare.dto.LoginDto;
+import org.healthcare.dto.RefreshedSessionDto;
 import org.healthcare.dto.RegisterDoctorDto;
 import org.healthcare.dto.RegisterPatientDto;
-import org.healthcare.models.Doctor;
-import org.healthcare.models.Patient;
-import org.healthcare.models.Role;
 import org.healthcare.models.User;
 import org.healthcare.repository.DoctorRepository;
 import org.healthcare.repository.PatientRepository;
 import org.healthcare.repository.UserRepository;
+import org.healthcare.security.services.PasswordHashingService;
+import org.healthcare.service.CookieService;
+import org.healthcare.service.RefreshTokenService;
+import org.healthcare.service.RegistrationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
@@ -24,6 +26,7 @@ import org.springframework.validation.FieldError;
 import jakarta.validation.Valid;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 
 
@@ -49,38 +52,68 @@ public class AuthController {
     PatientRepository patientRepository;
 
     @Autowired
-    PasswordEncoder passwordEncoder;
+    PasswordHashingService passwordHashingService;
+
+    @Autowired
+    RegistrationService registrationService;
+
+    @Autowired
+    RefreshTokenService refreshTokenService;
+
+    @Autowired
+    CookieService cookieService;
+
+    @Autowired
+    TokenRevocationList tokenRevocationList;
 
     @PostMapping("/public/signin")
-    public ResponseEntity<?> signin(@Valid @RequestBody LoginDto loginDto) {
+    public CompletableFuture<ResponseEntity<?>> signin(@Valid @RequestBody LoginDto loginDto) {
         // Find user by email
         Optional<User> userOptional = userRepository.findByEmail(loginDto.getEmail());
 
-        // Check if user exists and the password is correct
-        if (userOptional.isPresent() && passwordEncoder.matches(loginDto.getPassword(), userOptional.get().getPassword())) {
-            // If credentials are valid, generate a JWT token
-            UserDetails userDetails = userOptional.get();
-            String jwt = jwtUtils.generateTokenFromUsername(userDetails);
-
-            Map<String, Object> userInfo = new HashMap<>();
-            userInfo.put("id", userOptional.get().getId());
-            userInfo.put("email", userOptional.get().getEmail());
-            userInfo.put("role", userOptional.get().getRole().name());
-
-            Map<String, Object> responseBody = new HashMap<>();
-            responseBody.put("message", "User signed in successfully!");
-            responseBody.put("status", true);
-            responseBody.put("token", jwt);
-            responseBody.put("user", userInfo);
-
-            return new ResponseEntity<>(responseBody, HttpStatus.OK);
-        } else {
-            // If credentials are not valid, return a BAD_REQUEST
-            Map<String, Object> map = new HashMap<>();
-            map.put("message", "Invalid email or password!");
-            map.put("status", false);
-            return new ResponseEntity<>(map, HttpStatus.BAD_REQUEST);
+        if (userOptional.isEmpty()) {
+            return CompletableFuture.completedFuture(invalidCredentials());
         }
+
+        // Verify the password on the hashing pool so request threads are not held by BCrypt
+        User user = userOptional.get();
+        return passwordHashingService.matchesAsync(loginDto.getPassword(), user.getPassword())
+                .thenApply(matches -> {
+                    if (!matches) {
+                        return invalidCredentials();
+                    }
+                    passwordHashingService.rehashIfNeeded(user, loginDto.getPassword());
+                    return signedIn(user);
+                });
+    }
+
+    private ResponseEntity<?> signedIn(User user) {
+        // If credentials are valid, generate a JWT token and start a refresh-token session
+        String jwt = jwtUtils.generateTokenFromUsername(user);
+        String refreshToken = refreshTokenService.createRefreshToken(user);
+
+        Map<String, Object> userInfo = new HashMap<>();
+        userInfo.put("id", user.getId());
+        userInfo.put("email", user.getEmail());
+        userInfo.put("role", user.getRole().name());
+
+        Map<String, Object> responseBody = new HashMap<>();
+        responseBody.put("message", "User signed in successfully!");
+        responseBody.put("status", true);
+        responseBody.put("token", jwt);
+        responseBody.put("user", userInfo);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, cookieService.createRefreshTokenCookie(refreshToken).toString())
+                .body(responseBody);
+    }
+
+    private ResponseEntity<?> invalidCredentials() {
+        // If credentials are not valid, return a BAD_REQUEST
+        Map<String, Object> map = new HashMap<>();
+        map.put("message", "Invalid email or password!");
+        map.put("status", false);
+        return new ResponseEntity<>(map, HttpStatus.BAD_REQUEST);
     }/*
 @PostMapping("/public/signin")
 public String loginInfo(@Valid @RequestBody LoginDto loginDto){
@@ -90,150 +123,118 @@ public String loginInfo(@Valid @RequestBody LoginDto loginDto){
 
 
     @PostMapping("/register-patient")
-    public ResponseEntity<?> registerPatient(@Valid @RequestBody RegisterPatientDto registerDto, BindingResult bindingResult) {
+    public CompletableFuture<ResponseEntity<?>> registerPatient(@Valid @RequestBody RegisterPatientDto registerDto, BindingResult bindingResult) {
         if (bindingResult.hasErrors()) {
-            Map<String, Object> map = new HashMap<>();
-            map.put("message", "Validation failed");
-            map.put("errors", new HashMap<>());
-            for (FieldError error : bindingResult.getFieldErrors()) {
-                ((Map<String, Object>) map.get("errors")).put(error.getField(), error.getDefaultMessage());
-            }
-            return new ResponseEntity<>(map, HttpStatus.BAD_REQUEST);
+            return CompletableFuture.completedFuture(validationFailed(bindingResult));
         }
 
         if (userRepository.existsByEmail(registerDto.getEmail())) {
-            Map<String, Object> map = new HashMap<>();
-            map.put("message", "Email is already taken!");
-            map.put("status", false);
-            return new ResponseEntity<>(map, HttpStatus.BAD_REQUEST);
+            return CompletableFuture.completedFuture(emailTaken());
         }
 
-        // Create user
-        User user = User.builder()
-                .email(registerDto.getEmail())
-                .password(passwordEncoder.encode(registerDto.getPassword()))
-                .role(Role.ROLE_PATIENT)
-                .build();
-
-        User savedUser = userRepository.save(user);
-
-        // Create patient profile
-        Patient patient = Patient.builder()
-                .user(savedUser)
-                .name(registerDto.getName())
-                .age(registerDto.getAge())
-                .bloodGroup(registerDto.getBloodGroup())
-                .phoneNumber(registerDto.getPhoneNumber())
-                .address(registerDto.getAddress())
-                .gender(registerDto.getGender())
-                .build();
-
-        patientRepository.save(patient);
-
-        Map<String, Object> map = new HashMap<>();
-        map.put("message", "Patient registered successfully!");
-        map.put("status", true);
-        return new ResponseEntity<>(map, HttpStatus.CREATED);
+        return passwordHashingService.encodeAsync(registerDto.getPassword())
+                .thenApply(passwordHash -> {
+                    registrationService.registerPatient(registerDto, passwordHash);
+                    return registered("Patient registered successfully!");
+                });
     }
 
     @PostMapping("/public/register-doctor")
-    public ResponseEntity<?> registerDoctor(@Valid @RequestBody RegisterDoctorDto registerDto, BindingResult bindingResult) {
+    public CompletableFuture<ResponseEntity<?>> registerDoctor(@Valid @RequestBody RegisterDoctorDto registerDto, BindingResult bindingResult) {
         if (bindingResult.hasErrors()) {
-            Map<String, Object> map = new HashMap<>();
-            map.put("message", "Validation failed");
-            map.put("errors", new HashMap<>());
-            for (FieldError error : bindingResult.getFieldErrors()) {
-                ((Map<String, Object>) map.get("errors")).put(error.getField(), error.getDefaultMessage());
-            }
-            return new ResponseEntity<>(map, HttpStatus.BAD_REQUEST);
+            return CompletableFuture.completedFuture(validationFailed(bindingResult));
         }
 
         if (userRepository.existsByEmail(registerDto.getEmail())) {
-            Map<String, Object> map = new HashMap<>();
-            map.put("message", "Email is already taken!");
-            map.put("status", false);
-            return new ResponseEntity<>(map, HttpStatus.BAD_REQUEST);
+            return CompletableFuture.completedFuture(emailTaken());
         }
 
-        // Create user
-        User user = User.builder()
-                .email(registerDto.getEmail())
-                .password(passwordEncoder.encode(registerDto.getPassword()))
-                .role(Role.ROLE_DOCTOR)
-                .build();
-
-        User savedUser = userRepository.save(user);
-
-
+        return passwordHashingService.encodeAsync(registerDto.getPassword())
+                .thenApply(passwordHash -> {
+                    registrationService.registerDoctor(registerDto, passwordHash);
+                    return registered("Doctor registered successfully!");
+                });
+    }
 
-        Doctor doctor = Doctor.builder()
-                .user(savedUser)
-                .name(registerDto.getName())
-                .build();
+    // Alias to match frontend path
+    @PostMapping("/register-doctor")
+    public CompletableFuture<ResponseEntity<?>> registerDoctorAlias(@Valid @RequestBody RegisterDoctorDto registerDto, BindingResult bindingResult) {
+        return registerDoctor(registerDto, bindingResult);
+    }
 
+    private ResponseEntity<?> validationFailed(BindingResult bindingResult) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("message", "Validation failed");
+        map.put("errors", new HashMap<>());
+        for (FieldError error : bindingResult.getFieldErrors()) {
+            ((Map<String, Object>) map.get("errors")).put(error.getField(), error.getDefaultMessage());
+        }
+        return new ResponseEntity<>(map, HttpStatus.BAD_REQUEST);
+    }
 
-        doctorRepository.save(doctor);
+    private ResponseEntity<?> emailTaken() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("message", "Email is already taken!");
+        map.put("status", false);
+        return new ResponseEntity<>(map, HttpStatus.BAD_REQUEST);
+    }
 
+    private ResponseEntity<?> registered(String message) {
         Map<String, Object> map = new HashMap<>();
-        map.put("message", "Doctor registered successfully!");
+        map.put("message", message);
         map.put("status", true);
         return new ResponseEntity<>(map, HttpStatus.CREATED);
     }
 
-    // Alias to match frontend path
-    @PostMapping("/register-doctor")
-    public ResponseEntity<?> registerDoctorAlias(@Valid @RequestBody RegisterDoctorDto registerDto, BindingResult bindingResult) {
-        return registerDoctor(registerDto, bindingResult);
-    }
-
     @PostMapping("/logout")
-    public ResponseEntity<?> logout() {
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authorizationHeader,
+                                    @CookieValue(name = "refresh_token", required = false) String refreshToken) {
+        // Revoke the access token too, so it cannot be replayed for the rest of its lifetime
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
+            String token = authorizationHeader.substring(7);
+            Claims claims = jwtUtils.getVerifiedClaims(token);
+            if (claims != null) {
+                tokenRevocationList.revoke(claims.getId(), claims.getExpiration().toInstant());
+                jwtUtils.evictVerifiedClaims(token);
+            }
+        }
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenService.revokeRefreshToken(refreshToken);
+        }
+
         Map<String, Object> map = new HashMap<>();
         map.put("message", "Logged out successfully");
         map.put("status", true);
-        return new ResponseEntity<>(map, HttpStatus.OK);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, cookieService.createExpiredCookie("refresh_token").toString())
+                .body(map);
     }
 
     @PostMapping("/refresh")
-    public ResponseEntity<?> refreshToken(@RequestHeader(value = "Authorization", required = false) String authorizationHeader) {
-        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
-            Map<String, Object> error = new HashMap<>();
-            error.put("message", "Missing or invalid Authorization header");
-            error.put("status", false);
-            return new ResponseEntity<>(error, HttpStatus.UNAUTHORIZED);
-        }
-
-        String token = authorizationHeader.substring(7);
-        if (!jwtUtils.validateJwtToken(token)) {
-            Map<String, Object> error = new HashMap<>();
-            error.put("message", "Invalid token");
-            error.put("status", false);
-            return new ResponseEntity<>(error, HttpStatus.UNAUTHORIZED);
-        }
-
-        String username = jwtUtils.getUserNameFromJwtToken(token);
-        Optional<User> userOptional = userRepository.findByEmail(username);
-        if (userOptional.isEmpty()) {
+    public ResponseEntity<?> refreshToken(@CookieValue(name = "refresh_token", required = false) String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
             Map<String, Object> error = new HashMap<>();
-            error.put("message", "User not found");
+            error.put("message", "Missing refresh token");
             error.put("status", false);
             return new ResponseEntity<>(error, HttpStatus.UNAUTHORIZED);
         }
 
-        UserDetails userDetails = userOptional.get();
-        String newToken = jwtUtils.generateTokenFromUsername(userDetails);
+        // Single use: the presented token is replaced by the one in the new cookie
+        RefreshedSessionDto session = refreshTokenService.rotateRefreshToken(refreshToken);
 
         Map<String, Object> userInfo = new HashMap<>();
-        userInfo.put("id", userOptional.get().getId());
-        userInfo.put("email", userOptional.get().getEmail());
-        userInfo.put("role", userOptional.get().getRole().name());
+        userInfo.put("id", session.getUser().getId());
+        userInfo.put("email", session.getUser().getEmail());
+        userInfo.put("role", session.getUser().getRole().name());
 
         Map<String, Object> responseBody = new HashMap<>();
         responseBody.put("message", "Token refreshed successfully!");
         responseBody.put("status", true);
-        responseBody.put("token", newToken);
+        responseBody.put("token", session.getAccessToken());
         responseBody.put("user", userInfo);
 
-        return new ResponseEntity<>(responseBody, HttpStatus.OK);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, cookieService.createRefreshTokenCookie(session.getRefreshToken()).toString())
+                .body(responseBody);
     }
 }
\ No newline at end of file
@@ -1,5 +1,8 @@
 package org.healthcare.security.jwt;
 
+import io.jsonwebtoken.Claims;
+import org.healthcare.models.User;
+import org.healthcare.security.CustomLoggingFilter;
 import org.healthcare.security.services.UserDetailsServiceImpl;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -10,7 +13,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -25,6 +27,12 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private TokenVersionTable tokenVersionTable;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
     @Override
@@ -33,20 +41,29 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         logger.debug("AuthTokenFilter called for URI: {}", request.getRequestURI());
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            Claims claims = jwt != null ? jwtUtils.getVerifiedClaims(jwt) : null;
+            if (claims != null && tokenRevocationList.isRevoked(claims.getId(), claims.getExpiration().getTime())) {
+                logger.debug("Rejected revoked token {}", claims.getId());
+            } else if (claims != null) {
+                // Claims-carrying tokens need no user lookup at all
+                User principal = jwtUtils.hasPrincipalClaims(claims)
+                        ? jwtUtils.getPrincipalFromClaims(claims)
+                        : userDetailsService.loadPrincipal(claims.getSubject());
 
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(userDetails,
-                                null,
-                                userDetails.getAuthorities());
-                logger.debug("Roles from JWT: {}", userDetails.getAuthorities());
+                if (tokenVersionTable.isCurrent(principal.getId(), jwtUtils.getTokenVersion(claims))) {
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(principal,
+                                    null,
+                                    principal.getAuthorities());
+                    logger.debug("Roles from JWT: {}", principal.getAuthorities());
 
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                    request.setAttribute(CustomLoggingFilter.USER_ID_ATTRIBUTE, principal.getId());
+                } else {
+                    logger.warn("Rejected token issued before the last credential change of user {}", principal.getId());
+                }
             }
         } catch (Exception e) {
             logger.error("Cannot set user authentication: {}", e);
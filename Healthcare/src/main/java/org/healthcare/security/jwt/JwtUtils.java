@@ -1,22 +1,38 @@
 package org.healthcare.security.jwt;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
+import org.healthcare.models.Role;
+import org.healthcare.models.User;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+
     @Value("${spring.app.jwtSecret}")
     private String jwtSecret;
 
@@ -26,6 +42,44 @@ public class JwtUtils {
     @Value("${spring.app.jwtRefreshExpirationMs}")
     private int jwtRefreshExpirationMs;
 
+    @Value("${spring.app.jwtClaimsCacheSize:10000}")
+    private long jwtClaimsCacheSize;
+
+    /**
+     * When enabled, tokens carry the user id and role so that requests can be
+     * authenticated from the token alone, without loading the user.
+     */
+    @Value("${spring.app.jwtStatelessClaims:false}")
+    private boolean statelessClaims;
+
+    // Built once at startup; both are immutable and thread-safe.
+    private Key signingKey;
+    private JwtParser jwtParser;
+
+    /**
+     * Claims of tokens whose signature has already been verified, keyed by a SHA-256 digest
+     * of the compact token. Each entry expires together with the token it belongs to.
+     */
+    private Cache<String, Claims> verifiedClaims;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(jwtClaimsCacheSize)
+                .expireAfter(new TokenExpiry())
+                .build();
+    }
+
     public String getJwtFromHeader(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         logger.debug("Authorization Header: {}", bearerToken);
@@ -36,31 +90,82 @@ public class JwtUtils {
     }
 
     public String generateTokenFromUsername(UserDetails userDetails) {
-        String username = userDetails.getUsername();
+        if (userDetails instanceof User user) {
+            return generateAccessToken(user);
+        }
+        return newTokenBuilder(userDetails.getUsername()).signWith(signingKey).compact();
+    }
+
+    /**
+     * Issues an access token from the user's own columns only, so a detached user, e.g. one
+     * rebuilt from a refresh-token session, needs no association loaded.
+     * @param user The user, possibly detached.
+     * @return The signed compact JWT.
+     */
+    public String generateAccessToken(User user) {
+        JwtBuilder builder = newTokenBuilder(user.getEmail())
+                .claim(CLAIM_TOKEN_VERSION, user.getTokenVersion());
+        if (statelessClaims) {
+            builder.claim(CLAIM_USER_ID, user.getId());
+            builder.claim(CLAIM_ROLE, user.getRole().name());
+        }
+        return builder.signWith(signingKey).compact();
+    }
+
+    private JwtBuilder newTokenBuilder(String username) {
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(username)
                 .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key())
-                .compact();
+                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs));
     }
 
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parser()
-                .setSigningKey(key())
-                .parseClaimsJws(token)
-                .getBody().getSubject();
+    public boolean isStatelessClaims() {
+        return statelessClaims;
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    /**
+     * Whether the token carries enough claims to build the principal without a user lookup.
+     */
+    public boolean hasPrincipalClaims(Claims claims) {
+        return statelessClaims && claims.containsKey(CLAIM_USER_ID) && claims.containsKey(CLAIM_ROLE);
     }
 
-    public boolean validateJwtToken(String authToken) {
+    /**
+     * Builds a detached User from the signed claims. It holds no password and no profile
+     * associations; services that need the managed entity reload it by id.
+     */
+    public User getPrincipalFromClaims(Claims claims) {
+        return User.builder()
+                .id(claims.get(CLAIM_USER_ID, Long.class))
+                .email(claims.getSubject())
+                .role(Role.valueOf(claims.get(CLAIM_ROLE, String.class)))
+                .tokenVersion(getTokenVersion(claims))
+                .build();
+    }
+
+    /**
+     * Tokens issued before versioning carry no "ver" claim and count as version 0.
+     */
+    public int getTokenVersion(Claims claims) {
+        Integer version = claims.get(CLAIM_TOKEN_VERSION, Integer.class);
+        return version != null ? version : 0;
+    }
+
+    public String getUserNameFromJwtToken(String token) {
+        return parseVerifiedClaims(token).getSubject();
+    }
+
+    /**
+     * Returns the verified claims of the token, or null if the token is not valid.
+     * Use this instead of validateJwtToken followed by getUserNameFromJwtToken when
+     * more than one claim is needed, so the token is only looked up once.
+     * @param authToken The compact JWT.
+     * @return The token claims, or null if the token is invalid or expired.
+     */
+    public Claims getVerifiedClaims(String authToken) {
         try {
-            System.out.println("Validate");
-            Jwts.parser().setSigningKey(key()).parseClaimsJws(authToken);
-            return true;
+            return parseVerifiedClaims(authToken);
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -70,7 +175,44 @@ public class JwtUtils {
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         }
-        return false;
+        return null;
+    }
+
+    public boolean validateJwtToken(String authToken) {
+        return getVerifiedClaims(authToken) != null;
+    }
+
+    /**
+     * Forgets the verified claims of a token, e.g. once it has been revoked.
+     */
+    public void evictVerifiedClaims(String token) {
+        if (token != null && !token.isEmpty()) {
+            verifiedClaims.invalidate(digest(token));
+        }
+    }
+
+    /**
+     * Parses and verifies the token, skipping signature verification when the same token
+     * has already been verified and has not yet expired.
+     */
+    private Claims parseVerifiedClaims(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("JWT String argument cannot be null or empty.");
+        }
+        String digest = digest(token);
+        Claims claims = verifiedClaims.getIfPresent(digest);
+        if (claims == null) {
+            claims = jwtParser.parseClaimsJws(token).getBody();
+            if (claims.getExpiration() != null) {
+                verifiedClaims.put(digest, claims);
+            }
+        }
+        return claims;
+    }
+
+    private static String digest(String token) {
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().withoutPadding().encodeToString(hash);
     }
 
     public TokenInfo getAccessToken() {
@@ -92,4 +234,25 @@ public class JwtUtils {
             return expirationMs;
         }
     }
+
+    /**
+     * Expires a cached entry at the moment its token's "exp" claim is reached.
+     */
+    private static class TokenExpiry implements Expiry<String, Claims> {
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMs, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
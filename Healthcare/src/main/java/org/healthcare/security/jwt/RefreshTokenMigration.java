@@ -0,0 +1,89 @@
+package org.healthcare.security.jwt;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drops the unique key on refresh_tokens.user_id left by the old one-session-per-user
+ * mapping. ddl-auto=update never drops constraints, so on upgraded databases a user's
+ * second session would fail to insert. A plain index on user_id is created first where
+ * missing, as MySQL will not drop the only index behind the foreign key.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RefreshTokenMigration {
+
+    private static final String TABLE = "refresh_tokens";
+    private static final String USER_COLUMN = "user_id";
+    private static final String USER_INDEX = "idx_refresh_tokens_user";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Before the application takes sign-ins
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void migrate() {
+        List<String> uniqueKeys = new ArrayList<>();
+        boolean plainIndex = false;
+        for (Map.Entry<String, IndexInfo> index : indexes().entrySet()) {
+            if (!index.getValue().columns().equals(List.of(USER_COLUMN))) {
+                continue;
+            }
+            if (index.getValue().unique()) {
+                uniqueKeys.add(index.getKey());
+            } else {
+                plainIndex = true;
+            }
+        }
+        if (uniqueKeys.isEmpty()) {
+            return;
+        }
+        if (!plainIndex) {
+            jdbcTemplate.execute("CREATE INDEX " + USER_INDEX + " ON " + TABLE + " (" + USER_COLUMN + ")");
+        }
+        for (String key : uniqueKeys) {
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP INDEX " + key);
+            log.info("Dropped unique key {} on {}.{}; users may now hold several sessions", key, TABLE, USER_COLUMN);
+        }
+    }
+
+    /**
+     * The table's indexes by name, with their columns in order.
+     */
+    private Map<String, IndexInfo> indexes() {
+        return jdbcTemplate.execute((ConnectionCallback<Map<String, IndexInfo>>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            Map<String, IndexInfo> indexes = new LinkedHashMap<>();
+            try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), TABLE, false, false)) {
+                while (rs.next()) {
+                    String name = rs.getString("INDEX_NAME");
+                    String column = rs.getString("COLUMN_NAME");
+                    if (name == null || column == null) {
+                        continue;
+                    }
+                    boolean unique = !rs.getBoolean("NON_UNIQUE");
+                    indexes.computeIfAbsent(name, key -> new IndexInfo(unique, new ArrayList<>())).columns().add(column.toLowerCase());
+                }
+            }
+            return indexes;
+        });
+    }
+
+    private record IndexInfo(boolean unique, List<String> columns) {
+    }
+}
@@ -0,0 +1,289 @@
+package org.healthcare.security.jwt;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.healthcare.models.RevokedToken;
+import org.healthcare.repository.RevokedTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deny-list of revoked access tokens, consulted by AuthTokenFilter on every request.
+ *
+ * Tokens are grouped into partitions by the time window their "exp" falls in. Each partition
+ * holds a Bloom filter over token ids plus the exact set of ids; the set is only consulted
+ * when the filter reports a possible match, so the common case (token not revoked) is a few
+ * bit reads with no allocation and no database access. A partition is dropped as a whole once
+ * every token in it has expired.
+ *
+ * Revocations are written to the revoked_tokens table and reloaded at startup, but other
+ * instances only see them after their next restart.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationList {
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${spring.app.jwtExpirationMs}")
+    private long jwtExpirationMs;
+
+    @Value("${security.revocation.partition-minutes:60}")
+    private long partitionMinutes;
+
+    @Value("${security.revocation.expected-per-partition:10000}")
+    private int expectedPerPartition;
+
+    @Value("${security.revocation.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    @Value("${security.revocation.sweep-batch-size:500}")
+    private int sweepBatchSize;
+
+    private long partitionMs;
+    private int bitsPerPartition;
+    private int hashFunctions;
+
+    // Ring of partitions indexed by window % length; a slot holding an older window is stale
+    private AtomicReferenceArray<Partition> partitions;
+
+    private final LongAdder checks = new LongAdder();
+    private Counter falsePositives;
+
+    @PostConstruct
+    void init() {
+        partitionMs = partitionMinutes * 60_000L;
+        // Every live token expires within jwtExpirationMs, plus one window for the one in progress
+        int partitionCount = (int) ((jwtExpirationMs + partitionMs - 1) / partitionMs) + 1;
+        partitions = new AtomicReferenceArray<>(partitionCount);
+
+        double bits = -expectedPerPartition * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        bitsPerPartition = (int) Math.ceil(bits / 64) * 64;
+        hashFunctions = Math.max(1, (int) Math.round(bitsPerPartition / (double) expectedPerPartition * Math.log(2)));
+
+        falsePositives = Counter.builder("security.revocation.filter.false.positives")
+                .description("Filter matches that the exact set did not confirm")
+                .register(meterRegistry);
+        Gauge.builder("security.revocation.filter.checks", checks, LongAdder::sum)
+                .register(meterRegistry);
+        Gauge.builder("security.revocation.filter.fpr", this, TokenRevocationList::estimatedFalsePositiveRate)
+                .description("Estimated false-positive rate of the fullest live partition")
+                .register(meterRegistry);
+        Gauge.builder("security.revocation.filter.memory", this, TokenRevocationList::memoryBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("security.revocation.entries", this, TokenRevocationList::size)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<RevokedToken> live = revokedTokenRepository.findByExpiryDateAfter(Instant.now());
+        live.forEach(token -> add(token.getTokenId(), token.getExpiryDate().toEpochMilli()));
+        logger.info("Loaded {} revoked tokens into {} partitions of {} bits", live.size(), partitions.length(), bitsPerPartition);
+    }
+
+    /**
+     * Revokes an access token until it expires.
+     * @param tokenId The token's "jti" claim.
+     * @param expiresAt The token's "exp" claim.
+     */
+    public void revoke(String tokenId, Instant expiresAt) {
+        if (tokenId == null || expiresAt.isBefore(Instant.now())) {
+            return;
+        }
+        add(tokenId, expiresAt.toEpochMilli());
+        if (!revokedTokenRepository.existsByTokenId(tokenId)) {
+            revokedTokenRepository.save(RevokedToken.builder().tokenId(tokenId).expiryDate(expiresAt).build());
+        }
+    }
+
+    /**
+     * Whether the token has been revoked. Tokens without an id were issued before revocation
+     * existed and cannot be revoked.
+     * @param tokenId The token's "jti" claim.
+     * @param expiresAtMs The token's "exp" claim in epoch milliseconds.
+     */
+    public boolean isRevoked(String tokenId, long expiresAtMs) {
+        if (tokenId == null) {
+            return false;
+        }
+        checks.increment();
+        long window = expiresAtMs / partitionMs;
+        Partition partition = partitions.get(slot(window));
+        if (partition == null || partition.window != window || !partition.mightContain(tokenId)) {
+            return false;
+        }
+        if (partition.tokenIds.contains(tokenId)) {
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    /**
+     * Drops partitions whose tokens have all expired, and the matching table rows.
+     */
+    @Scheduled(fixedDelayString = "${security.revocation.sweep-interval-ms:600000}")
+    public void purgeExpired() {
+        long currentWindow = System.currentTimeMillis() / partitionMs;
+        for (int i = 0; i < partitions.length(); i++) {
+            Partition partition = partitions.get(i);
+            if (partition != null && partition.window < currentWindow) {
+                partitions.compareAndSet(i, partition, null);
+            }
+        }
+
+        Instant now = Instant.now();
+        List<Long> ids;
+        do {
+            ids = revokedTokenRepository.findExpiredIds(now, PageRequest.of(0, sweepBatchSize));
+            if (!ids.isEmpty()) {
+                revokedTokenRepository.deleteAllByIdInBatch(ids);
+            }
+        } while (ids.size() == sweepBatchSize);
+    }
+
+    private void add(String tokenId, long expiresAtMs) {
+        long window = expiresAtMs / partitionMs;
+        int slot = slot(window);
+        Partition partition = partitions.get(slot);
+        while (partition == null || partition.window < window) {
+            Partition fresh = new Partition(window, bitsPerPartition, hashFunctions);
+            if (partitions.compareAndSet(slot, partition, fresh)) {
+                partition = fresh;
+            } else {
+                partition = partitions.get(slot);
+            }
+        }
+        if (partition.window == window) {
+            partition.add(tokenId);
+        }
+    }
+
+    private int slot(long window) {
+        return (int) Math.floorMod(window, (long) partitions.length());
+    }
+
+    double estimatedFalsePositiveRate() {
+        double worst = 0;
+        for (int i = 0; i < partitions.length(); i++) {
+            Partition partition = partitions.get(i);
+            if (partition != null) {
+                worst = Math.max(worst, Math.pow(partition.fillRatio(), hashFunctions));
+            }
+        }
+        return worst;
+    }
+
+    double memoryBytes() {
+        long bytes = 0;
+        for (int i = 0; i < partitions.length(); i++) {
+            Partition partition = partitions.get(i);
+            if (partition != null) {
+                // Filter words plus a rough 96 bytes per exact-set entry (node + 36-char id)
+                bytes += bitsPerPartition / 8L + partition.tokenIds.size() * 96L;
+            }
+        }
+        return bytes;
+    }
+
+    int size() {
+        int size = 0;
+        for (int i = 0; i < partitions.length(); i++) {
+            Partition partition = partitions.get(i);
+            if (partition != null) {
+                size += partition.tokenIds.size();
+            }
+        }
+        return size;
+    }
+
+    private static final class Partition {
+        private final long window;
+        private final AtomicLongArray bits;
+        private final int bitCount;
+        private final int hashFunctions;
+        private final Set<String> tokenIds = ConcurrentHashMap.newKeySet();
+
+        Partition(long window, int bitCount, int hashFunctions) {
+            this.window = window;
+            this.bits = new AtomicLongArray(bitCount / 64);
+            this.bitCount = bitCount;
+            this.hashFunctions = hashFunctions;
+        }
+
+        void add(String tokenId) {
+            // Bits first: a reader that sees the id in the set must also see its bits
+            long hash = hash(tokenId);
+            long h1 = mix(hash);
+            long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashFunctions; i++) {
+                int bit = (int) Long.remainderUnsigned(h1 + i * h2, bitCount);
+                long mask = 1L << bit;
+                long word;
+                do {
+                    word = bits.get(bit >>> 6);
+                } while ((word & mask) == 0 && !bits.compareAndSet(bit >>> 6, word, word | mask));
+            }
+            tokenIds.add(tokenId);
+        }
+
+        boolean mightContain(String tokenId) {
+            long hash = hash(tokenId);
+            long h1 = mix(hash);
+            long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashFunctions; i++) {
+                int bit = (int) Long.remainderUnsigned(h1 + i * h2, bitCount);
+                if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        double fillRatio() {
+            long set = 0;
+            for (int i = 0; i < bits.length(); i++) {
+                set += Long.bitCount(bits.get(i));
+            }
+            return set / (double) bitCount;
+        }
+
+        // FNV-1a over the chars; avoids the byte[] that getBytes() would allocate
+        private static long hash(String value) {
+            long hash = 0xCBF29CE484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001B3L;
+            }
+            return hash;
+        }
+
+        // SplitMix64 finalizer
+        private static long mix(long z) {
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+    }
+}
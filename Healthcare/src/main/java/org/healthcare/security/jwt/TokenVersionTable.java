@@ -0,0 +1,51 @@
+package org.healthcare.security.jwt;
+
+import lombok.RequiredArgsConstructor;
+import org.healthcare.events.UserAccountChangedEvent;
+import org.healthcare.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory table of the minimum token version accepted for each user.
+ * Only users whose credentials have changed at least once appear here, so the table
+ * stays small; everyone else implicitly accepts version 0 and up.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenVersionTable {
+    private static final Logger logger = LoggerFactory.getLogger(TokenVersionTable.class);
+
+    private final UserRepository userRepository;
+
+    private final Map<Long, Integer> minimumVersions = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        userRepository.findRaisedTokenVersions()
+                .forEach(view -> minimumVersions.merge(view.getId(), view.getTokenVersion(), Math::max));
+        logger.info("Loaded {} raised token versions", minimumVersions.size());
+    }
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        Integer minimum = minimumVersions.get(userId);
+        return minimum == null || tokenVersion >= minimum;
+    }
+
+    /**
+     * Applied immediately rather than after commit: rejecting old tokens slightly early is
+     * harmless, while accepting them after a password reset is not.
+     */
+    @EventListener
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        if (event.getTokenVersion() > 0) {
+            minimumVersions.merge(event.getUserId(), event.getTokenVersion(), Math::max);
+        }
+    }
+}
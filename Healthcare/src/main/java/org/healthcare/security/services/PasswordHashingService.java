@@ -0,0 +1,221 @@
+package org.healthcare.security.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.healthcare.events.UserAccountChangedEvent;
+import org.healthcare.exception.PasswordHashingUnavailableException;
+import org.healthcare.models.User;
+import org.healthcare.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs BCrypt hashing and verification on a dedicated, bounded pool instead of on
+ * request threads. When the pool and its queue are full, new work is rejected
+ * immediately with PasswordHashingUnavailableException (HTTP 503) rather than queued.
+ * Only the hash itself runs on the pool: the futures handed out complete on the
+ * application task executor, so whatever callers chain on them (inserts, updates) never
+ * ties hashing capacity to database latency.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PasswordHashingService {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private final PasswordEncoder passwordEncoder;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor continuationExecutor;
+
+    @Value("${security.password.hashing-threads:0}")
+    private int threads;
+
+    @Value("${security.password.hashing-queue:64}")
+    private int queueCapacity;
+
+    @Value("${security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    private ThreadPoolExecutor executor;
+    private Timer encodeTimer;
+    private Timer matchesTimer;
+    private Timer queueWaitTimer;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    void init() {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        encodeTimer = hashingTimer("encode");
+        matchesTimer = hashingTimer("matches");
+        queueWaitTimer = Timer.builder("security.password.hashing.queue.wait")
+                .description("Time a hashing task waits for a free worker")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("security.password.hashing.rejected")
+                .description("Hashing tasks rejected because the pool was saturated")
+                .register(meterRegistry);
+        Gauge.builder("security.password.hashing.queue.size", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("security.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        log.info("Password hashing pool started with {} threads and a queue of {}", poolSize, queueCapacity);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Stages chained on the returned future run on the application task executor.
+     */
+    public CompletableFuture<String> encodeAsync(CharSequence rawPassword) {
+        return handOff(submitEncode(rawPassword));
+    }
+
+    /**
+     * Stages chained on the returned future run on the application task executor.
+     */
+    public CompletableFuture<Boolean> matchesAsync(CharSequence rawPassword, String encodedPassword) {
+        return handOff(submitMatches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Blocking variant for callers that must stay on their own thread, e.g. inside a transaction.
+     */
+    public String encode(CharSequence rawPassword) {
+        return join(submitEncode(rawPassword));
+    }
+
+    /**
+     * Blocking variant for callers that must stay on their own thread, e.g. inside a transaction.
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return join(submitMatches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * After a successful login, re-hashes the password in the background if it was stored
+     * with a different cost factor than the one currently configured. Best effort: skipped
+     * when the pool is saturated, and retried on the next login.
+     * @param user The user who just authenticated.
+     * @param rawPassword The password that was verified.
+     */
+    public void rehashIfNeeded(User user, CharSequence rawPassword) {
+        String storedHash = user.getPassword();
+        if (!needsRehash(storedHash)) {
+            return;
+        }
+        try {
+            encodeAsync(rawPassword).thenAccept(newHash -> {
+                // Only replace the hash we verified, never one written concurrently
+                if (userRepository.updatePasswordIfUnchanged(user.getId(), storedHash, newHash) == 1) {
+                    eventPublisher.publishEvent(new UserAccountChangedEvent(user.getId(), user.getEmail(), user.getTokenVersion()));
+                    log.info("Re-hashed password of user {} with cost {}", user.getId(), bcryptStrength);
+                }
+            }).exceptionally(ex -> {
+                log.warn("Could not re-hash password of user {}: {}", user.getId(), ex.getMessage());
+                return null;
+            });
+        } catch (PasswordHashingUnavailableException e) {
+            log.debug("Skipping re-hash of user {}, hashing pool is saturated", user.getId());
+        }
+    }
+
+    boolean needsRehash(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != bcryptStrength;
+    }
+
+    private CompletableFuture<String> submitEncode(CharSequence rawPassword) {
+        return submit(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    private CompletableFuture<Boolean> submitMatches(CharSequence rawPassword, String encodedPassword) {
+        return submit(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    // Frees the hashing thread as soon as the hash is done; dependents run elsewhere
+    private <T> CompletableFuture<T> handOff(CompletableFuture<T> hashed) {
+        return hashed.thenApplyAsync(Function.identity(), continuationExecutor);
+    }
+
+    private <T> CompletableFuture<T> submit(Timer timer, Supplier<T> task) {
+        long enqueuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long startedAt = System.nanoTime();
+                queueWaitTimer.record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return task.get();
+                } finally {
+                    timer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new PasswordHashingUnavailableException();
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Timer hashingTimer(String operation) {
+        return Timer.builder("security.password.hashing")
+                .description("BCrypt work time per operation")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,38 @@
+package org.healthcare.security.services;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.healthcare.models.Role;
+import org.healthcare.models.User;
+
+/**
+ * Immutable copy of the fields of a User needed to authenticate a request.
+ * Safe to share between threads, unlike the managed User entity.
+ */
+@Getter
+@AllArgsConstructor
+public final class PrincipalSnapshot {
+    private final Long id;
+    private final String email;
+    private final String password;
+    private final Role role;
+    private final int tokenVersion;
+
+    public static PrincipalSnapshot of(User user) {
+        return new PrincipalSnapshot(user.getId(), user.getEmail(), user.getPassword(), user.getRole(), user.getTokenVersion());
+    }
+
+    /**
+     * Builds a detached User carrying only the snapshot fields. It is suitable as the
+     * authentication principal; services that need the managed entity reload it by id.
+     */
+    public User toUser() {
+        return User.builder()
+                .id(id)
+                .email(email)
+                .password(password)
+                .role(role)
+                .tokenVersion(tokenVersion)
+                .build();
+    }
+}
@@ -1,13 +1,23 @@
 package org.healthcare.security.services;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.healthcare.events.UserAccountChangedEvent;
 import org.healthcare.models.User;
 import org.healthcare.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
 
 
 @Service
@@ -15,12 +25,60 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Autowired
     UserRepository userRepository;
 
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Value("${security.principal-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${security.principal-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    /**
+     * Principals of recently active users, keyed by email. Bounded by size and by a
+     * write TTL so that a missed invalidation can never outlive one TTL window.
+     */
+    private Cache<String, PrincipalSnapshot> principalCache;
+
+    @PostConstruct
+    void init() {
+        principalCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principalCache, "principalCache");
+    }
+
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User Not Found with email: " + username));
+        return loadPrincipal(username);
+    }
+
+    /**
+     * Loads the principal from the cache, querying the users table only on a miss.
+     * Not transactional: a cache hit must not check out a database connection.
+     * @param username The user's email.
+     * @return A detached User built from the cached snapshot.
+     */
+    public User loadPrincipal(String username) throws UsernameNotFoundException {
+        PrincipalSnapshot snapshot = principalCache.get(username, email -> userRepository.findByEmail(email)
+                .map(PrincipalSnapshot::of)
+                .orElseThrow(() -> new UsernameNotFoundException("User Not Found with email: " + username)));
+
+        return snapshot.toUser();
+    }
+
+    /**
+     * Drops the cached principal once the transaction that changed the user has committed,
+     * so a concurrent request cannot re-cache the old row.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        principalCache.invalidate(event.getEmail());
+    }
 
-        return UserDetailsImpl.build(user);
+    public CacheStats getCacheStats() {
+        return principalCache.stats();
     }
 }
@@ -2,15 +2,22 @@ package org.healthcare.service;
 
 
 import org.healthcare.dto.AppointmentDto;
+import org.healthcare.dto.AppointmentPageDto;
 import org.healthcare.dto.BookAppointmentDto;
+import org.healthcare.dto.HoldSlotDto;
+import org.healthcare.dto.SlotHoldDto;
 import org.healthcare.models.Appointment;
 import org.healthcare.models.User;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface AppointmentService {
     AppointmentDto bookAppointment(User patientUser, BookAppointmentDto bookingDetails);
-    List<AppointmentDto> getAppointmentsForDoctor(User doctorUser);
+    SlotHoldDto holdSlot(User patientUser, HoldSlotDto holdDetails);
+    void releaseHold(User patientUser, String holdId);
+    AppointmentPageDto getAppointmentsForDoctor(User doctorUser, LocalDate from, LocalDate to,
+                                                List<Appointment.Status> statuses, String cursor, int size);
     AppointmentDto updateAppointmentStatus(Long appointmentId, User doctorUser, Appointment.Status newStatus);
 
     List<AppointmentDto> getUpcomingAppointmentsForPatient(User patientUser);
@@ -0,0 +1,19 @@
+package org.healthcare.service;
+
+import org.healthcare.dto.availability.AvailabilityExceptionDto;
+import org.healthcare.dto.availability.AvailabilityTemplateDto;
+import org.healthcare.dto.availability.CreateAvailabilityExceptionDto;
+import org.healthcare.dto.availability.CreateAvailabilityTemplateDto;
+import org.healthcare.models.User;
+
+import java.util.List;
+
+public interface AvailabilityTemplateService {
+    AvailabilityTemplateDto createTemplate(User doctorUser, CreateAvailabilityTemplateDto createDto);
+    List<AvailabilityTemplateDto> getTemplates(User doctorUser);
+    AvailabilityTemplateDto updateTemplate(User doctorUser, Long templateId, CreateAvailabilityTemplateDto updateDto);
+    void deleteTemplate(User doctorUser, Long templateId);
+    AvailabilityExceptionDto addException(User doctorUser, CreateAvailabilityExceptionDto createDto);
+    List<AvailabilityExceptionDto> getExceptions(User doctorUser);
+    void deleteException(User doctorUser, Long exceptionId);
+}
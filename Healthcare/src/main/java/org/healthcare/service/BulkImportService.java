@@ -0,0 +1,11 @@
+package org.healthcare.service;
+
+import org.healthcare.dto.ImportReportDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface BulkImportService {
+    ImportReportDto importCsv(InputStream input) throws IOException;
+    ImportReportDto importJson(InputStream input) throws IOException;
+}
@@ -3,6 +3,7 @@ package org.healthcare.service;
 import org.healthcare.dto.availability.CreateAvailabilityDto;
 import org.healthcare.dto.availability.UpdateAvailabilityDto;
 import org.healthcare.dto.availability.AvailabilityDto;
+import org.healthcare.dto.availability.FreeSlotDto;
 import org.healthcare.models.User;
 
 import java.time.LocalDate;
@@ -14,4 +15,6 @@ public interface DoctorAvailabilityService {
     AvailabilityDto updateAvailability(User doctorUser, Long availabilityId, UpdateAvailabilityDto updateDto);
     List<AvailabilityDto> getAllAvailability(User doctorUser);
     void deleteAvailability(User doctorUser, Long availabilityId);
+    boolean isSlotFree(Long doctorId, LocalDate date, String timeSlot);
+    List<FreeSlotDto> getNextFreeSlots(Long doctorId, LocalDate from, int count, int minutes);
 }
\ No newline at end of file
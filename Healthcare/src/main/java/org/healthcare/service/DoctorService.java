@@ -1,20 +1,23 @@
 package org.healthcare.service;
 
 import org.healthcare.dto.ChangePasswordDto;
-import org.healthcare.dto.DoctorDto;
+import org.healthcare.dto.DoctorDirectoryPageDto;
 import org.healthcare.dto.DoctorProfileDto;
 import org.healthcare.dto.UpdateDoctorProfileDto;
 import org.healthcare.dto.DoctorPublicProfileDto;
 import org.healthcare.models.User;
 
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 public interface DoctorService {
-    List<DoctorDto> getTopRatedDoctors();
-
     DoctorProfileDto getDoctorProfile(User currentUser);
     DoctorProfileDto updateDoctorProfile(User currentUser, UpdateDoctorProfileDto profileDto);
     void changePassword(User currentUser, ChangePasswordDto passwordDto);
     List<DoctorPublicProfileDto> getAllDoctorsForPatients();
+    Optional<DoctorPublicProfileDto> getDoctorForPatients(Long doctorId);
+    DoctorDirectoryPageDto getDoctorDirectoryPage(String specialization, Integer minExp, Float minRating,
+                                                  LocalDate availableOn, String cursor, int size);
 }
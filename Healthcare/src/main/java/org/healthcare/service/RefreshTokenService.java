@@ -0,0 +1,11 @@
+package org.healthcare.service;
+
+import org.healthcare.dto.RefreshedSessionDto;
+import org.healthcare.models.User;
+
+public interface RefreshTokenService {
+    String createRefreshToken(User user);
+    RefreshedSessionDto rotateRefreshToken(String refreshToken);
+    void revokeRefreshToken(String refreshToken);
+    int purgeExpiredTokens();
+}
@@ -0,0 +1,10 @@
+package org.healthcare.service;
+
+import org.healthcare.dto.RegisterDoctorDto;
+import org.healthcare.dto.RegisterPatientDto;
+import org.healthcare.models.User;
+
+public interface RegistrationService {
+    User registerPatient(RegisterPatientDto registerDto, String passwordHash);
+    User registerDoctor(RegisterDoctorDto registerDto, String passwordHash);
+}
@@ -0,0 +1,13 @@
+package org.healthcare.service;
+
+import org.healthcare.dto.JoinWaitlistDto;
+import org.healthcare.dto.WaitlistEntryDto;
+import org.healthcare.models.User;
+
+import java.util.List;
+
+public interface WaitlistService {
+    WaitlistEntryDto joinWaitlist(User patientUser, JoinWaitlistDto joinDetails);
+    List<WaitlistEntryDto> getMyWaitlist(User patientUser);
+    void leaveWaitlist(Long waitlistId, User patientUser);
+}
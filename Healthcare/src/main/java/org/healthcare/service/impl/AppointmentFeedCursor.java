@@ -0,0 +1,31 @@
+package org.healthcare.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for a doctor's appointment feed: the (date, timeSlot, id) of the
+ * last appointment on the previous page, Base64url-encoded so clients treat it as a token.
+ */
+record AppointmentFeedCursor(LocalDate date, String timeSlot, long id) {
+
+    static AppointmentFeedCursor of(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // Legacy time slots may contain anything, so they are read from between the outer separators
+            int first = decoded.indexOf('|');
+            int last = decoded.lastIndexOf('|');
+            return new AppointmentFeedCursor(LocalDate.parse(decoded.substring(0, first)),
+                    decoded.substring(first + 1, last),
+                    Long.parseLong(decoded.substring(last + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
+
+    String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((date + "|" + timeSlot + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
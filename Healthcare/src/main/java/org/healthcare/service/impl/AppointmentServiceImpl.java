@@ -3,23 +3,43 @@ package org.healthcare.service.impl;
 import lombok.RequiredArgsConstructor;
 
 import org.healthcare.dto.AppointmentDto;
+import org.healthcare.dto.AppointmentPageDto;
 import org.healthcare.dto.BookAppointmentDto;
+import org.healthcare.dto.HoldSlotDto;
+import org.healthcare.dto.SlotHoldDto;
+import org.healthcare.events.DoctorDirectoryChangedEvent;
+import org.healthcare.events.SlotFreedEvent;
+import org.healthcare.events.SlotsChangedEvent;
+import org.healthcare.exception.SlotUnavailableException;
 
 import org.healthcare.repository.AppointmentRepository;
 
 import org.healthcare.models.Appointment;
 import org.healthcare.models.Doctor;
+import org.healthcare.models.DoctorAvailability;
 import org.healthcare.models.Patient;
 import org.healthcare.models.User;
+import org.healthcare.repository.DoctorAvailabilityRepository;
 import org.healthcare.repository.DoctorRepository;
 import org.healthcare.repository.PatientRepository;
+import org.healthcare.repository.WaitlistRepository;
+import org.healthcare.scheduling.DaySchedule;
+import org.healthcare.scheduling.SlotCalendar;
+import org.healthcare.scheduling.SlotGrid;
+import org.healthcare.scheduling.SlotHolds;
+import org.healthcare.scheduling.SlotLocks;
+import org.healthcare.scheduling.SlotRange;
 import org.healthcare.service.AppointmentService;
 import org.healthcare.service.NotificationService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -27,10 +47,18 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AppointmentServiceImpl implements AppointmentService {
 
+    private static final int MAX_FEED_PAGE_SIZE = 100;
+
     private final AppointmentRepository appointmentRepository;
     private final PatientRepository patientRepository;
     private final DoctorRepository doctorRepository;
     private final NotificationService notificationService; // FIX: Add NotificationService as a dependency
+    private final DoctorAvailabilityRepository availabilityRepository;
+    private final SlotCalendar slotCalendar;
+    private final SlotLocks slotLocks;
+    private final SlotHolds slotHolds;
+    private final WaitlistRepository waitlistRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -41,17 +69,38 @@ public class AppointmentServiceImpl implements AppointmentService {
         Doctor doctor = doctorRepository.findById(bookingDetails.getDoctorId())
                 .orElseThrow(() -> new IllegalArgumentException("Doctor not found."));
 
+        // The whole range must lie in the doctor's available hours and clear of other appointments
+        SlotRange range = SlotGrid.parse(bookingDetails.getTimeSlot());
+        slotLocks.lockUntilCompletion(doctor.getId(), bookingDetails.getDate());
+        DaySchedule day = slotCalendar.day(doctor.getId(), bookingDetails.getDate());
+        if (bookingDetails.getHoldId() != null) {
+            // The patient's own hold; it stays on the slot until this transaction completes
+            slotHolds.claimUntilCompletion(bookingDetails.getHoldId(), patient.getId(), doctor.getId(), bookingDetails.getDate(), range);
+            day = day.withHold(range, false);
+        }
+        if (!day.isFree(range)) {
+            throw new SlotUnavailableException("Time slot " + SlotGrid.format(range) + " on " + bookingDetails.getDate() + " is not available.");
+        }
+
         Appointment newAppointment = Appointment.builder()
                 .patient(patient)
                 .doctor(doctor)
                 .date(bookingDetails.getDate())
-                .timeSlot(bookingDetails.getTimeSlot())
+                .timeSlot(SlotGrid.format(range))
+                .startSlot(range.start())
+                .endSlot(range.end())
                 .reason(bookingDetails.getReason())
                 .specialty(doctor.getSpecialization())
                 .status(Appointment.Status.Waiting)
                 .build();
 
-        Appointment savedAppointment = appointmentRepository.save(newAppointment);
+        Appointment savedAppointment = saveHoldingSlot(newAppointment);
+        if (bookingDetails.getHoldId() != null) {
+            // Closes the waitlist offer this hold came from, if any
+            waitlistRepository.markOfferBooked(bookingDetails.getHoldId());
+        }
+        closeFullyBookedSlots(doctor, savedAppointment.getDate(), day.withBooking(range));
+        publishSlotsChanged(savedAppointment);
 
         // Create a notification for the doctor
         String notificationMessage = "You have a new appointment request from " + patient.getName() + " for " + savedAppointment.getDate();
@@ -61,13 +110,66 @@ public class AppointmentServiceImpl implements AppointmentService {
     }
 
     @Override
-    public List<AppointmentDto> getAppointmentsForDoctor(User doctorUser) {
+    public SlotHoldDto holdSlot(User patientUser, HoldSlotDto holdDetails) {
+        Patient patient = findPatientByUser(patientUser);
+        if (!doctorRepository.existsById(holdDetails.getDoctorId())) {
+            throw new IllegalArgumentException("Doctor not found.");
+        }
+        SlotRange range = SlotGrid.parse(holdDetails.getTimeSlot());
+        return SlotHoldDto.fromHold(slotHolds.hold(patient.getId(), holdDetails.getDoctorId(), holdDetails.getDate(), range));
+    }
+
+    @Override
+    public void releaseHold(User patientUser, String holdId) {
+        slotHolds.cancel(holdId, findPatientByUser(patientUser).getId());
+    }
+
+    /**
+     * One page of the doctor's appointments in date and time order. Keyset pagination on
+     * (date, timeSlot, id) within the date window keeps every page an index range scan, so
+     * the cost does not grow with the doctor's history.
+     * @param from First day of the window; the doctor's first appointment when null.
+     * @param to Last day of the window; open-ended when null.
+     * @param statuses Only appointments in these statuses; all when null or empty.
+     * @param cursor The nextCursor of the previous page, or null for the first page.
+     * @param size Appointments per page, capped at 100.
+     * @return The page and the cursor for the next one.
+     */
+    @Override
+    public AppointmentPageDto getAppointmentsForDoctor(User doctorUser, LocalDate from, LocalDate to,
+                                                       List<Appointment.Status> statuses, String cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1.");
+        }
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new IllegalArgumentException("The end of the date window must not be before its start.");
+        }
+        int pageSize = Math.min(size, MAX_FEED_PAGE_SIZE);
+        AppointmentFeedCursor after = cursor != null && !cursor.isBlank() ? AppointmentFeedCursor.of(cursor) : null;
         Doctor doctor = doctorRepository.findByUser(doctorUser)
                 .orElseThrow(() -> new IllegalArgumentException("Doctor profile not found."));
 
-        return appointmentRepository.findByDoctor(doctor).stream()
-                .map(AppointmentDto::fromEntity)
-                .collect(Collectors.toList());
+        // Start the range scan at the cursor's day rather than re-reading the earlier pages;
+        // one extra row tells us whether there is a next page
+        List<AppointmentDto> appointments = appointmentRepository.findDoctorFeedPage(
+                doctor.getId(),
+                after != null && (from == null || after.date().isAfter(from)) ? after.date() : from,
+                to,
+                statuses != null && !statuses.isEmpty() ? EnumSet.copyOf(statuses) : EnumSet.allOf(Appointment.Status.class),
+                after != null ? after.date() : null,
+                after != null ? after.timeSlot() : null,
+                after != null ? after.id() : null,
+                Limit.of(pageSize + 1));
+        boolean hasMore = appointments.size() > pageSize;
+        if (hasMore) {
+            appointments = appointments.subList(0, pageSize);
+        }
+
+        AppointmentDto last = hasMore ? appointments.get(pageSize - 1) : null;
+        return AppointmentPageDto.builder()
+                .appointments(appointments)
+                .nextCursor(last != null ? new AppointmentFeedCursor(last.getDate(), last.getTimeSlot(), last.getAppointmentId()).encode() : null)
+                .build();
     }
 
     @Override
@@ -83,8 +185,7 @@ public class AppointmentServiceImpl implements AppointmentService {
             throw new AccessDeniedException("You do not have permission to modify this appointment.");
         }
 
-        appointment.setStatus(newStatus);
-        Appointment updatedAppointment = appointmentRepository.save(appointment);
+        Appointment updatedAppointment = changeStatus(appointment, newStatus);
 
         // Create a notification for the patient
         String statusText = newStatus == Appointment.Status.Booked ? "confirmed" : "cancelled";
@@ -100,10 +201,7 @@ public class AppointmentServiceImpl implements AppointmentService {
         Patient patient = findPatientByUser(patientUser);
         LocalDate today = LocalDate.now();
 
-        return appointmentRepository.findByPatientAndDateGreaterThanEqualOrderByDateAscTimeSlotAsc(patient, today)
-                .stream()
-                .map(AppointmentDto::fromEntity)
-                .collect(Collectors.toList());
+        return appointmentRepository.findUpcomingForPatient(patient.getId(), today);
     }
 
     @Override
@@ -111,10 +209,7 @@ public class AppointmentServiceImpl implements AppointmentService {
         Patient patient = findPatientByUser(patientUser);
         LocalDate today = LocalDate.now();
 
-        return appointmentRepository.findByPatientAndDateBeforeOrderByDateDescTimeSlotDesc(patient, today)
-                .stream()
-                .map(AppointmentDto::fromEntity)
-                .collect(Collectors.toList());
+        return appointmentRepository.findHistoryForPatient(patient.getId(), today);
     }
 
     @Override
@@ -150,11 +245,10 @@ public class AppointmentServiceImpl implements AppointmentService {
             throw new IllegalStateException("Cannot cancel an appointment that is already " + appointment.getStatus());
         }
 
-        appointment.setStatus(Appointment.Status.Cancelled);
-        Appointment updatedAppointment = appointmentRepository.save(appointment);
+        Appointment updatedAppointment = changeStatus(appointment, Appointment.Status.Cancelled);
 
         // Notify the doctor about the cancellation
-        String message = "Appointment with " + patientUser.getPatient().getName() + " on " + updatedAppointment.getDate() + " has been cancelled by the patient.";
+        String message = "Appointment with " + updatedAppointment.getPatient().getName() + " on " + updatedAppointment.getDate() + " has been cancelled by the patient.";
         notificationService.createNotification(updatedAppointment.getDoctor().getUser(), message);
 
         return AppointmentDto.fromEntity(updatedAppointment);
@@ -173,6 +267,97 @@ public class AppointmentServiceImpl implements AppointmentService {
         return appointment;
     }
 
+    /**
+     * Applies a status change under the day's slot lock. Reactivating an appointment needs
+     * its slot to be free again; cancelling one re-opens the availability it had closed and
+     * offers the slot to the day's waitlist.
+     */
+    private Appointment changeStatus(Appointment appointment, Appointment.Status newStatus) {
+        boolean wasActive = appointment.isActive();
+        appointment.setStatus(newStatus);
+        if (appointment.getStartSlot() == null || wasActive == appointment.isActive()) {
+            return appointmentRepository.save(appointment);
+        }
+
+        Doctor doctor = appointment.getDoctor();
+        SlotRange range = new SlotRange(appointment.getStartSlot(), appointment.getEndSlot());
+        slotLocks.lockUntilCompletion(doctor.getId(), appointment.getDate());
+        Appointment updatedAppointment;
+        if (appointment.isActive()) {
+            DaySchedule day = slotCalendar.day(doctor.getId(), appointment.getDate());
+            if (!day.isFree(range)) {
+                throw new SlotUnavailableException("Time slot " + appointment.getTimeSlot() + " on " + appointment.getDate() + " has been taken.");
+            }
+            updatedAppointment = saveHoldingSlot(appointment);
+            closeFullyBookedSlots(doctor, appointment.getDate(), day.withBooking(range));
+        } else {
+            updatedAppointment = appointmentRepository.saveAndFlush(appointment);
+            if (newStatus == Appointment.Status.Cancelled) {
+                reopenFreedSlots(doctor, appointment.getDate(), range);
+                eventPublisher.publishEvent(new SlotFreedEvent(doctor.getId(), appointment.getDate(), null));
+            }
+        }
+        publishSlotsChanged(updatedAppointment);
+        return updatedAppointment;
+    }
+
+    /**
+     * Inserts or reactivates an appointment that holds its slot. The unique key on active
+     * appointments rejects a second appointment with the same start slot that got past the
+     * slot lock, e.g. on another instance; it does not catch overlaps that start apart.
+     */
+    private Appointment saveHoldingSlot(Appointment appointment) {
+        try {
+            return appointmentRepository.saveAndFlush(appointment);
+        } catch (DataIntegrityViolationException e) {
+            throw new SlotUnavailableException("Time slot " + appointment.getTimeSlot() + " on " + appointment.getDate() + " has just been taken.");
+        }
+    }
+
+    /**
+     * Marks the doctor's availability rows that are now entirely covered by appointments
+     * as unavailable, so listings stop offering them.
+     */
+    private void closeFullyBookedSlots(Doctor doctor, LocalDate date, DaySchedule day) {
+        List<DoctorAvailability> closed = availabilityRepository.findByDoctorAndDateOrderByStartSlotAsc(doctor, date).stream()
+                .filter(slot -> Boolean.TRUE.equals(slot.getIsAvailable()) && slot.getStartSlot() != null)
+                .filter(slot -> day.isBooked(new SlotRange(slot.getStartSlot(), slot.getEndSlot())))
+                .collect(Collectors.toList());
+        closed.forEach(slot -> slot.setIsAvailable(false));
+        saveAvailabilityChanges(doctor, closed);
+    }
+
+    /**
+     * Marks unavailable rows around a cancelled appointment as available again once no
+     * other active appointment overlaps them.
+     */
+    private void reopenFreedSlots(Doctor doctor, LocalDate date, SlotRange freed) {
+        DaySchedule.Builder remaining = DaySchedule.builder();
+        appointmentRepository.findActiveSlotsForDay(doctor.getId(), date).forEach(row -> remaining.book(row.range()));
+        DaySchedule day = remaining.build();
+
+        List<DoctorAvailability> reopened = availabilityRepository.findByDoctorAndDateOrderByStartSlotAsc(doctor, date).stream()
+                .filter(slot -> Boolean.FALSE.equals(slot.getIsAvailable()) && slot.getStartSlot() != null)
+                .filter(slot -> {
+                    SlotRange range = new SlotRange(slot.getStartSlot(), slot.getEndSlot());
+                    return range.start() < freed.end() && freed.start() < range.end() && !day.overlapsBooking(range);
+                })
+                .collect(Collectors.toList());
+        reopened.forEach(slot -> slot.setIsAvailable(true));
+        saveAvailabilityChanges(doctor, reopened);
+    }
+
+    private void saveAvailabilityChanges(Doctor doctor, List<DoctorAvailability> changed) {
+        if (!changed.isEmpty()) {
+            availabilityRepository.saveAll(changed);
+            eventPublisher.publishEvent(new DoctorDirectoryChangedEvent(doctor.getId()));
+        }
+    }
+
+    private void publishSlotsChanged(Appointment appointment) {
+        eventPublisher.publishEvent(new SlotsChangedEvent(appointment.getDoctor().getId(), appointment.getDate()));
+    }
+
     private Patient findPatientByUser(User user) {
         return patientRepository.findByUser(user)
                 .orElseThrow(() -> new IllegalArgumentException("Patient profile not found."));
@@ -0,0 +1,172 @@
+package org.healthcare.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.healthcare.dto.availability.AvailabilityExceptionDto;
+import org.healthcare.dto.availability.AvailabilityTemplateDto;
+import org.healthcare.dto.availability.CreateAvailabilityExceptionDto;
+import org.healthcare.dto.availability.CreateAvailabilityTemplateDto;
+import org.healthcare.models.AvailabilityException;
+import org.healthcare.models.AvailabilityTemplate;
+import org.healthcare.models.Doctor;
+import org.healthcare.models.User;
+import org.healthcare.repository.AvailabilityExceptionRepository;
+import org.healthcare.repository.AvailabilityTemplateRepository;
+import org.healthcare.repository.DoctorRepository;
+import org.healthcare.scheduling.SlotGrid;
+import org.healthcare.scheduling.SlotMaterializer;
+import org.healthcare.scheduling.SlotRange;
+import org.healthcare.service.AvailabilityTemplateService;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Templates and exceptions are saved together with the slots they generate: every change
+ * re-materializes just the affected weekdays, or the single day of an exception.
+ */
+@Service
+@RequiredArgsConstructor
+public class AvailabilityTemplateServiceImpl implements AvailabilityTemplateService {
+
+    private final AvailabilityTemplateRepository templateRepository;
+    private final AvailabilityExceptionRepository exceptionRepository;
+    private final DoctorRepository doctorRepository;
+    private final SlotMaterializer slotMaterializer;
+
+    @Override
+    @Transactional
+    public AvailabilityTemplateDto createTemplate(User doctorUser, CreateAvailabilityTemplateDto createDto) {
+        Doctor doctor = findDoctorByUser(doctorUser);
+        AvailabilityTemplate template = new AvailabilityTemplate();
+        template.setDoctor(doctor);
+        applyTo(template, createDto);
+
+        AvailabilityTemplate savedTemplate = templateRepository.save(template);
+        slotMaterializer.materializeDoctor(doctor.getId(), template.getValidFrom(), template.getValidUntil(),
+                date -> date.getDayOfWeek() == template.getDayOfWeek());
+        return AvailabilityTemplateDto.fromEntity(savedTemplate);
+    }
+
+    @Override
+    public List<AvailabilityTemplateDto> getTemplates(User doctorUser) {
+        Doctor doctor = findDoctorByUser(doctorUser);
+        return templateRepository.findByDoctorOrderByDayOfWeekAscStartSlotAsc(doctor).stream()
+                .map(AvailabilityTemplateDto::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public AvailabilityTemplateDto updateTemplate(User doctorUser, Long templateId, CreateAvailabilityTemplateDto updateDto) {
+        AvailabilityTemplate template = findTemplateById(templateId);
+        verifyDoctorOwnership(doctorUser, template.getDoctor());
+
+        DayOfWeek oldDay = template.getDayOfWeek();
+        LocalDate oldFrom = template.getValidFrom();
+        LocalDate oldUntil = template.getValidUntil();
+        applyTo(template, updateDto);
+        AvailabilityTemplate updatedTemplate = templateRepository.save(template);
+
+        // Both the days the template used to cover and the ones it covers now
+        Set<DayOfWeek> days = EnumSet.of(oldDay, template.getDayOfWeek());
+        slotMaterializer.materializeDoctor(template.getDoctor().getId(),
+                earlier(oldFrom, template.getValidFrom()), later(oldUntil, template.getValidUntil()),
+                date -> days.contains(date.getDayOfWeek()));
+        return AvailabilityTemplateDto.fromEntity(updatedTemplate);
+    }
+
+    @Override
+    @Transactional
+    public void deleteTemplate(User doctorUser, Long templateId) {
+        AvailabilityTemplate template = findTemplateById(templateId);
+        verifyDoctorOwnership(doctorUser, template.getDoctor());
+        templateRepository.delete(template);
+        slotMaterializer.materializeDoctor(template.getDoctor().getId(), template.getValidFrom(), template.getValidUntil(),
+                date -> date.getDayOfWeek() == template.getDayOfWeek());
+    }
+
+    @Override
+    @Transactional
+    public AvailabilityExceptionDto addException(User doctorUser, CreateAvailabilityExceptionDto createDto) {
+        Doctor doctor = findDoctorByUser(doctorUser);
+        if (exceptionRepository.existsByDoctorAndDate(doctor, createDto.getDate())) {
+            throw new IllegalArgumentException("An exception already exists for " + createDto.getDate() + ".");
+        }
+        AvailabilityException exception = AvailabilityException.builder()
+                .doctor(doctor)
+                .date(createDto.getDate())
+                .reason(createDto.getReason())
+                .build();
+
+        AvailabilityException savedException = exceptionRepository.save(exception);
+        slotMaterializer.materializeDoctor(doctor.getId(), exception.getDate(), exception.getDate(), date -> true);
+        return AvailabilityExceptionDto.fromEntity(savedException);
+    }
+
+    @Override
+    public List<AvailabilityExceptionDto> getExceptions(User doctorUser) {
+        Doctor doctor = findDoctorByUser(doctorUser);
+        return exceptionRepository.findByDoctorAndDateGreaterThanEqualOrderByDateAsc(doctor, LocalDate.now()).stream()
+                .map(AvailabilityExceptionDto::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public void deleteException(User doctorUser, Long exceptionId) {
+        AvailabilityException exception = exceptionRepository.findById(exceptionId)
+                .orElseThrow(() -> new IllegalArgumentException("Availability exception not found."));
+        verifyDoctorOwnership(doctorUser, exception.getDoctor());
+        exceptionRepository.delete(exception);
+        slotMaterializer.materializeDoctor(exception.getDoctor().getId(), exception.getDate(), exception.getDate(), date -> true);
+    }
+
+    private void applyTo(AvailabilityTemplate template, CreateAvailabilityTemplateDto dto) {
+        if (dto.getValidFrom() != null && dto.getValidUntil() != null && dto.getValidUntil().isBefore(dto.getValidFrom())) {
+            throw new IllegalArgumentException("validUntil cannot be before validFrom.");
+        }
+        SlotRange range = SlotGrid.parse(dto.getTimeSlot());
+        if (dto.getSlotMinutes() != null && SlotGrid.slotsFor(dto.getSlotMinutes()) > range.length()) {
+            throw new IllegalArgumentException("Slots cannot be longer than the time block.");
+        }
+        template.setDayOfWeek(dto.getDayOfWeek());
+        template.setTimeSlot(SlotGrid.format(range));
+        template.setStartSlot(range.start());
+        template.setEndSlot(range.end());
+        template.setSlotMinutes(dto.getSlotMinutes());
+        template.setValidFrom(dto.getValidFrom());
+        template.setValidUntil(dto.getValidUntil());
+    }
+
+    // null means unbounded in both helpers
+    private static LocalDate earlier(LocalDate a, LocalDate b) {
+        return a == null || b == null ? null : (a.isBefore(b) ? a : b);
+    }
+
+    private static LocalDate later(LocalDate a, LocalDate b) {
+        return a == null || b == null ? null : (a.isAfter(b) ? a : b);
+    }
+
+    private Doctor findDoctorByUser(User user) {
+        return doctorRepository.findByUser(user)
+                .orElseThrow(() -> new IllegalArgumentException("Doctor profile not found."));
+    }
+
+    private AvailabilityTemplate findTemplateById(Long templateId) {
+        return templateRepository.findById(templateId)
+                .orElseThrow(() -> new IllegalArgumentException("Availability template not found."));
+    }
+
+    private void verifyDoctorOwnership(User doctorUser, Doctor doctor) {
+        if (!doctor.getUser().getId().equals(doctorUser.getId())) {
+            throw new AccessDeniedException("You do not have permission to modify this availability.");
+        }
+    }
+}
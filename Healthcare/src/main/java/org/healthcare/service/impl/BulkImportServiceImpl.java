@@ -0,0 +1,399 @@
+package org.healthcare.service.impl;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.healthcare.dto.ImportReportDto;
+import org.healthcare.dto.ImportUserRowDto;
+import org.healthcare.dto.RegisterDoctorDto;
+import org.healthcare.dto.RegisterPatientDto;
+import org.healthcare.events.DoctorDirectoryChangedEvent;
+import org.healthcare.models.Role;
+import org.healthcare.service.BulkImportService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Streams users out of a CSV or JSON file and writes them in chunks:
+ * one IN query per chunk for existing emails, passwords hashed in parallel, then JDBC
+ * batch inserts for users and profiles (multi-row INSERTs with rewriteBatchedStatements).
+ * Rows are checked with the same rules as the registration endpoints; a bad row is
+ * reported and skipped, it never aborts the run.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class BulkImportServiceImpl implements BulkImportService {
+
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[abxy]?\\$\\d{2}\\$[./A-Za-z0-9]{53}$");
+
+    private static final String INSERT_USER =
+            "INSERT INTO users (email, password, role, token_version, created_at, updated_at) VALUES (?, ?, ?, 0, ?, ?)";
+    private static final String INSERT_PATIENT =
+            "INSERT INTO patients (user_id, name, age, dob, blood_group, phone_number, address, gender) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_DOCTOR =
+            "INSERT INTO doctors (user_id, name, specialization, exp, qualification, rating) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${import.hashing-threads:0}")
+    private int hashingThreads;
+
+    @Value("${import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    // Separate from the login hashing pool so an import cannot starve sign-ins
+    private ExecutorService hashingExecutor;
+
+    @PreDestroy
+    void shutdown() {
+        if (hashingExecutor != null) {
+            hashingExecutor.shutdown();
+        }
+    }
+
+    @Override
+    public ImportReportDto importCsv(InputStream input) throws IOException {
+        Run run = new Run();
+        CsvRecordReader reader = new CsvRecordReader(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+        List<String> header = reader.next();
+        if (header == null) {
+            return run.report();
+        }
+        header = header.stream().map(String::trim).toList();
+
+        List<String> fields;
+        while ((fields = reader.next()) != null) {
+            long line = reader.getRecordLine();
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < header.size() && i < fields.size(); i++) {
+                String value = fields.get(i).trim();
+                if (!value.isEmpty()) {
+                    values.put(header.get(i), value);
+                }
+            }
+            try {
+                run.add(line, objectMapper.convertValue(values, ImportUserRowDto.class));
+            } catch (IllegalArgumentException e) {
+                run.rejectUnreadable(line, values.get("email"), "Unreadable row: " + rootMessage(e));
+            }
+        }
+        return finish(run);
+    }
+
+    @Override
+    public ImportReportDto importJson(InputStream input) throws IOException {
+        Run run = new Run();
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of users");
+            }
+            long index = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                index++;
+                // Read the whole object first so a bad one cannot derail the parser
+                JsonNode node = objectMapper.readTree(parser);
+                try {
+                    run.add(index, objectMapper.treeToValue(node, ImportUserRowDto.class));
+                } catch (JsonProcessingException | IllegalArgumentException e) {
+                    run.rejectUnreadable(index, node.path("email").asText(null), "Unreadable row: " + rootMessage(e));
+                }
+            }
+        }
+        return finish(run);
+    }
+
+    private ImportReportDto finish(Run run) {
+        run.flush();
+        if (run.imported > 0) {
+            // Rows went in over JDBC, so the directory cannot tell which doctors are new
+            eventPublisher.publishEvent(new DoctorDirectoryChangedEvent(null));
+        }
+        return run.report();
+    }
+
+    /**
+     * State of one import: the pending chunk and the running totals.
+     */
+    private class Run {
+        private final long startedAt = System.nanoTime();
+        private final Set<String> seenEmails = new HashSet<>();
+        private final List<PendingRow> chunk = new ArrayList<>();
+        private final List<ImportReportDto.RowError> errors = new ArrayList<>();
+        private int totalRows;
+        private int imported;
+        private int failed;
+
+        void add(long row, ImportUserRowDto dto) {
+            totalRows++;
+            String error = validate(dto);
+            if (error != null) {
+                reject(row, dto.getEmail(), error);
+                return;
+            }
+            if (!seenEmails.add(dto.getEmail().toLowerCase(Locale.ROOT))) {
+                reject(row, dto.getEmail(), "Duplicate email in file");
+                return;
+            }
+            chunk.add(new PendingRow(row, dto));
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void rejectUnreadable(long row, String email, String message) {
+            totalRows++;
+            reject(row, email, message);
+        }
+
+        void reject(long row, String email, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportReportDto.RowError(row, email, message));
+            }
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<PendingRow> rows = dropExistingEmails(new ArrayList<>(chunk));
+            chunk.clear();
+            if (rows.isEmpty()) {
+                return;
+            }
+            hashPasswords(rows);
+            try {
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> insert(rows));
+                imported += rows.size();
+            } catch (DataAccessException e) {
+                // Isolate the offending rows instead of losing the whole chunk
+                log.warn("Batch insert of {} rows failed, retrying one by one: {}", rows.size(), rootMessage(e));
+                for (PendingRow row : rows) {
+                    try {
+                        new TransactionTemplate(transactionManager).executeWithoutResult(status -> insert(List.of(row)));
+                        imported++;
+                    } catch (DataAccessException rowError) {
+                        reject(row.row, row.dto.getEmail(), "Insert failed: " + rootMessage(rowError));
+                    }
+                }
+            }
+        }
+
+        ImportReportDto report() {
+            long elapsedMs = Math.max(1, (System.nanoTime() - startedAt) / 1_000_000);
+            return ImportReportDto.builder()
+                    .totalRows(totalRows)
+                    .imported(imported)
+                    .failed(failed)
+                    .elapsedMs(elapsedMs)
+                    .rowsPerSecond(totalRows * 1000L / elapsedMs)
+                    .errors(errors)
+                    .build();
+        }
+
+        private List<PendingRow> dropExistingEmails(List<PendingRow> rows) {
+            Set<String> existing = new HashSet<>();
+            namedParameterJdbcTemplate.query("SELECT email FROM users WHERE email IN (:emails)",
+                    Map.of("emails", rows.stream().map(row -> row.dto.getEmail()).toList()),
+                    rs -> {
+                        existing.add(rs.getString(1).toLowerCase(Locale.ROOT));
+                    });
+            if (existing.isEmpty()) {
+                return rows;
+            }
+            List<PendingRow> fresh = new ArrayList<>(rows.size());
+            for (PendingRow row : rows) {
+                if (existing.contains(row.dto.getEmail().toLowerCase(Locale.ROOT))) {
+                    reject(row.row, row.dto.getEmail(), "Email is already taken");
+                } else {
+                    fresh.add(row);
+                }
+            }
+            return fresh;
+        }
+    }
+
+    /**
+     * Validates a row against the same constraints as the registration DTOs.
+     * @return The problems found, or null if the row is valid.
+     */
+    private String validate(ImportUserRowDto dto) {
+        if (dto.getRole() == Role.ROLE_PATIENT) {
+            RegisterPatientDto patient = new RegisterPatientDto();
+            patient.setEmail(dto.getEmail());
+            patient.setPassword(dto.getPassword());
+            patient.setName(dto.getName());
+            patient.setAge(dto.getAge() != null ? dto.getAge() : 0);
+            patient.setDob(dto.getDob());
+            patient.setBloodGroup(dto.getBloodGroup());
+            patient.setPhoneNumber(dto.getPhoneNumber() != null ? dto.getPhoneNumber() : 0);
+            patient.setAddress(dto.getAddress());
+            patient.setGender(dto.getGender());
+            List<String> problems = new ArrayList<>();
+            // The registration DTO holds these as primitives, where @NotNull cannot see a
+            // missing value; the patient columns are NOT NULL, so the row is rejected here
+            if (dto.getAge() == null) {
+                problems.add("age: must not be null");
+            }
+            if (dto.getPhoneNumber() == null) {
+                problems.add("phoneNumber: must not be null");
+            }
+            String violations = describeViolations(validator.validate(patient));
+            if (violations != null) {
+                problems.add(violations);
+            }
+            return problems.isEmpty() ? null : String.join(", ", problems);
+        }
+        if (dto.getRole() == Role.ROLE_DOCTOR) {
+            RegisterDoctorDto doctor = new RegisterDoctorDto();
+            doctor.setEmail(dto.getEmail());
+            doctor.setPassword(dto.getPassword());
+            doctor.setName(dto.getName());
+            doctor.setSpecialization(dto.getSpecialization());
+            return describeViolations(validator.validate(doctor));
+        }
+        return "role must be ROLE_PATIENT or ROLE_DOCTOR";
+    }
+
+    private static String describeViolations(Set<? extends ConstraintViolation<?>> violations) {
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.collectingAndThen(Collectors.toList(), list -> list.isEmpty() ? null : String.join(", ", list)));
+    }
+
+    /**
+     * Hashes plain passwords in parallel; existing BCrypt hashes from the source system are kept.
+     */
+    private void hashPasswords(List<PendingRow> rows) {
+        ExecutorService executor = hashingExecutor();
+        CompletableFuture.allOf(rows.stream()
+                        .filter(row -> !BCRYPT_HASH.matcher(row.dto.getPassword()).matches())
+                        .map(row -> CompletableFuture.runAsync(
+                                () -> row.passwordHash = passwordEncoder.encode(row.dto.getPassword()), executor))
+                        .toArray(CompletableFuture[]::new))
+                .join();
+        for (PendingRow row : rows) {
+            if (row.passwordHash == null) {
+                row.passwordHash = row.dto.getPassword();
+            }
+        }
+    }
+
+    private void insert(List<PendingRow> rows) {
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(INSERT_USER, rows.stream()
+                .map(row -> new Object[]{row.dto.getEmail(), row.passwordHash, row.dto.getRole().name(), now, now})
+                .toList());
+
+        // IDENTITY keys are not returned from a batch, so read them back in one query
+        Map<String, Long> userIds = new HashMap<>();
+        namedParameterJdbcTemplate.query("SELECT id, email FROM users WHERE email IN (:emails)",
+                Map.of("emails", rows.stream().map(row -> row.dto.getEmail()).toList()),
+                rs -> {
+                    userIds.put(rs.getString(2).toLowerCase(Locale.ROOT), rs.getLong(1));
+                });
+
+        List<Object[]> patients = new ArrayList<>();
+        List<Object[]> doctors = new ArrayList<>();
+        for (PendingRow row : rows) {
+            ImportUserRowDto dto = row.dto;
+            Long userId = userIds.get(dto.getEmail().toLowerCase(Locale.ROOT));
+            if (dto.getRole() == Role.ROLE_PATIENT) {
+                patients.add(new Object[]{userId, dto.getName(), dto.getAge(), Date.valueOf(dto.getDob()), dto.getBloodGroup(),
+                        dto.getPhoneNumber(), dto.getAddress(), dto.getGender().name()});
+            } else {
+                doctors.add(new Object[]{userId, dto.getName(), dto.getSpecialization(),
+                        dto.getExp() != null ? dto.getExp() : 0, dto.getQualification(),
+                        dto.getRating() != null ? dto.getRating() : 0f});
+            }
+        }
+        if (!patients.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_PATIENT, patients);
+        }
+        if (!doctors.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_DOCTOR, doctors);
+        }
+    }
+
+    private synchronized ExecutorService hashingExecutor() {
+        if (hashingExecutor == null) {
+            int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+            AtomicInteger threadNumber = new AtomicInteger();
+            hashingExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "import-hashing-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return hashingExecutor;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        // Jackson appends the source location on a second line; keep the report to one line per row
+        String message = String.valueOf(root.getMessage());
+        int newline = message.indexOf('\n');
+        return newline < 0 ? message : message.substring(0, newline);
+    }
+
+    private static final class PendingRow {
+        private final long row;
+        private final ImportUserRowDto dto;
+        private String passwordHash;
+
+        PendingRow(long row, ImportUserRowDto dto) {
+            this.row = row;
+            this.dto = dto;
+        }
+    }
+}
@@ -21,7 +21,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -107,12 +106,7 @@ public class ConsultationServiceImpl implements ConsultationService {
         Patient patient = patientRepository.findByUser(patientUser)
                 .orElseThrow(() -> new IllegalArgumentException("Patient profile not found for the current user."));
 
-        // 2. Fetch all consultations for that patient from the repository
-        List<Consultation> consultations = consultationRepository.findByPatientOrderByDateDesc(patient);
-
-        // 3. Convert the list of entities to a list of DTOs and return
-        return consultations.stream()
-                .map(ConsultationDto::fromEntity)
-                .collect(Collectors.toList());
+        // 2. Read all consultations for that patient straight into DTOs
+        return consultationRepository.findForPatient(patient.getId());
     }
 }
\ No newline at end of file
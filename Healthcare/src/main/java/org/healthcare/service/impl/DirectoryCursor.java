@@ -0,0 +1,28 @@
+package org.healthcare.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for the doctor directory: the (rating, id) of the last doctor on
+ * the previous page, Base64url-encoded so clients treat it as a token.
+ */
+record DirectoryCursor(float rating, long id) {
+
+    static DirectoryCursor of(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            return new DirectoryCursor(Float.parseFloat(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
+
+    String encode() {
+        // Float.toString round-trips exactly, so the next page resumes at the same row
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((rating + ":" + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -4,12 +4,21 @@ import lombok.RequiredArgsConstructor;
 import org.healthcare.dto.availability.CreateAvailabilityDto;
 import org.healthcare.dto.availability.UpdateAvailabilityDto;
 import org.healthcare.dto.availability.AvailabilityDto;
+import org.healthcare.dto.availability.FreeSlotDto;
+import org.healthcare.events.DoctorDirectoryChangedEvent;
+import org.healthcare.events.SlotsChangedEvent;
+import org.healthcare.exception.SlotUnavailableException;
 import org.healthcare.models.Doctor;
 import org.healthcare.models.DoctorAvailability;
 import org.healthcare.models.User;
 import org.healthcare.repository.DoctorAvailabilityRepository;
 import org.healthcare.repository.DoctorRepository;
+import org.healthcare.scheduling.SlotCalendar;
+import org.healthcare.scheduling.SlotGrid;
+import org.healthcare.scheduling.SlotLocks;
+import org.healthcare.scheduling.SlotRange;
 import org.healthcare.service.DoctorAvailabilityService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,27 +34,41 @@ public class DoctorAvailabilityServiceImpl implements DoctorAvailabilityService
 
     private final DoctorAvailabilityRepository availabilityRepository;
     private final DoctorRepository doctorRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SlotCalendar slotCalendar;
+    private final SlotLocks slotLocks;
+
+    private static final int MAX_FREE_SLOTS = 50;
 
     @Override
     @Transactional
     public AvailabilityDto addAvailability(User doctorUser, CreateAvailabilityDto createDto) {
         Doctor doctor = findDoctorByUser(doctorUser);
+        SlotRange range = SlotGrid.parse(createDto.getTimeSlot());
+        slotLocks.lockUntilCompletion(doctor.getId(), createDto.getDate());
+
+        if (slotCalendar.day(doctor.getId(), createDto.getDate()).overlapsOffered(range)) {
+            throw new SlotUnavailableException("Time slot " + SlotGrid.format(range) + " overlaps one you already have on " + createDto.getDate() + ".");
+        }
 
         DoctorAvailability newSlot = DoctorAvailability.builder()
                 .doctor(doctor)
                 .date(createDto.getDate())
-                .timeSlot(createDto.getTimeSlot())
+                .timeSlot(SlotGrid.format(range))
+                .startSlot(range.start())
+                .endSlot(range.end())
                 .isAvailable(createDto.getIsAvailable())
                 .build();
 
         DoctorAvailability savedSlot = availabilityRepository.save(newSlot);
+        publishSlotsChanged(savedSlot);
         return AvailabilityDto.fromEntity(savedSlot);
     }
 
     @Override
     public List<AvailabilityDto> getAvailabilityForDate(User doctorUser, LocalDate date) {
         Doctor doctor = findDoctorByUser(doctorUser);
-        return availabilityRepository.findByDoctorAndDate(doctor, date).stream()
+        return availabilityRepository.findByDoctorAndDateOrderByStartSlotAsc(doctor, date).stream()
                 .map(AvailabilityDto::fromEntity)
                 .collect(Collectors.toList());
     }
@@ -55,9 +78,11 @@ public class DoctorAvailabilityServiceImpl implements DoctorAvailabilityService
     public AvailabilityDto updateAvailability(User doctorUser, Long availabilityId, UpdateAvailabilityDto updateDto) {
         DoctorAvailability slot = findSlotById(availabilityId);
         verifyDoctorOwnership(doctorUser, slot);
+        slotLocks.lockUntilCompletion(slot.getDoctor().getId(), slot.getDate());
 
         slot.setIsAvailable(updateDto.getIsAvailable());
         DoctorAvailability updatedSlot = availabilityRepository.save(slot);
+        publishSlotsChanged(updatedSlot);
         return AvailabilityDto.fromEntity(updatedSlot);
     }
 
@@ -66,7 +91,9 @@ public class DoctorAvailabilityServiceImpl implements DoctorAvailabilityService
     public void deleteAvailability(User doctorUser, Long availabilityId) {
         DoctorAvailability slot = findSlotById(availabilityId);
         verifyDoctorOwnership(doctorUser, slot);
+        slotLocks.lockUntilCompletion(slot.getDoctor().getId(), slot.getDate());
         availabilityRepository.delete(slot);
+        publishSlotsChanged(slot);
     }
 
     @Override
@@ -74,11 +101,31 @@ public class DoctorAvailabilityServiceImpl implements DoctorAvailabilityService
         Doctor doctor = findDoctorByUser(doctorUser);
 
         // Use the new repository method to fetch and sort all slots
-        return availabilityRepository.findByDoctorOrderByDateAscTimeSlotAsc(doctor).stream()
+        return availabilityRepository.findByDoctorOrderByDateAscStartSlotAsc(doctor).stream()
                 .map(AvailabilityDto::fromEntity)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public boolean isSlotFree(Long doctorId, LocalDate date, String timeSlot) {
+        return slotCalendar.isFree(doctorId, date, SlotGrid.parse(timeSlot));
+    }
+
+    @Override
+    public List<FreeSlotDto> getNextFreeSlots(Long doctorId, LocalDate from, int count, int minutes) {
+        if (count < 1 || count > MAX_FREE_SLOTS) {
+            throw new IllegalArgumentException("count must be between 1 and " + MAX_FREE_SLOTS + ".");
+        }
+        return slotCalendar.nextFree(doctorId, from, SlotGrid.slotsFor(minutes), count).stream()
+                .map(slot -> new FreeSlotDto(slot.date(), SlotGrid.format(slot.range())))
+                .collect(Collectors.toList());
+    }
+
+    private void publishSlotsChanged(DoctorAvailability slot) {
+        eventPublisher.publishEvent(new SlotsChangedEvent(slot.getDoctor().getId(), slot.getDate()));
+        eventPublisher.publishEvent(new DoctorDirectoryChangedEvent(slot.getDoctor().getId()));
+    }
+
     private Doctor findDoctorByUser(User user) {
         return doctorRepository.findByUser(user)
                 .orElseThrow(() -> new IllegalArgumentException("Doctor profile not found."));
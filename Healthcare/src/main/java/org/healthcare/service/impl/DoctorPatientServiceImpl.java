@@ -5,11 +5,9 @@ import org.healthcare.dto.PatientForDoctorDto;
 import org.healthcare.dto.PatientHistoryDto;
 import org.healthcare.dto.AppointmentDto;
 import org.healthcare.dto.ConsultationDto;
+import org.healthcare.dto.PatientProfileDto;
 import org.healthcare.models.Doctor;
 import org.healthcare.models.User;
-import org.healthcare.models.Appointment;
-import org.healthcare.models.Consultation;
-import org.healthcare.models.Patient;
 import org.healthcare.repository.DoctorRepository;
 import org.healthcare.repository.PatientRepository;
 import org.healthcare.repository.AppointmentRepository;
@@ -18,7 +16,6 @@ import org.healthcare.service.DoctorPatientService;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -33,32 +30,25 @@ public class DoctorPatientServiceImpl implements DoctorPatientService {
     public List<PatientForDoctorDto> getAssociatedPatients(User doctorUser) {
         Doctor doctor = findDoctorByUser(doctorUser);
 
-        // --- FIX: Use the new, efficient query instead of the slow stream ---
-        return appointmentRepository.findDistinctPatientsByDoctor(doctor).stream()
-                .map(PatientForDoctorDto::fromEntity)
-                .collect(Collectors.toList());
+        return appointmentRepository.findPatientsOfDoctor(doctor.getId());
     }
 
     @Override
     public PatientHistoryDto getPatientHistory(User doctorUser, Long patientId) {
         Doctor doctor = findDoctorByUser(doctorUser);
-        Patient patient = patientRepository.findById(patientId)
+        PatientProfileDto patientProfile = patientRepository.findProfileById(patientId)
                 .orElseThrow(() -> new IllegalArgumentException("Patient not found with ID: " + patientId));
 
         // Security Check: Verify this patient has had an appointment with this doctor
-        List<Appointment> appointments = appointmentRepository.findByDoctorAndPatientOrderByDateDesc(doctor, patient);
+        List<AppointmentDto> appointments = appointmentRepository.findForDoctorAndPatient(doctor.getId(), patientId);
         if (appointments.isEmpty()) {
             throw new AccessDeniedException("You do not have permission to view this patient's history.");
         }
 
         // Fetch all consultations for the patient
-        List<Consultation> consultations = consultationRepository.findByPatientOrderByDateDesc(patient);
+        List<ConsultationDto> consultations = consultationRepository.findForPatient(patientId);
 
-        // Convert to DTOs
-        List<AppointmentDto> appointmentDtos = appointments.stream().map(AppointmentDto::fromEntity).collect(Collectors.toList());
-        List<ConsultationDto> consultationDtos = consultations.stream().map(ConsultationDto::fromEntity).collect(Collectors.toList());
-
-        return PatientHistoryDto.from(patient, appointmentDtos, consultationDtos);
+        return PatientHistoryDto.from(patientProfile, appointments, consultations);
     }
 
     private Doctor findDoctorByUser(User user) {
@@ -2,21 +2,23 @@ package org.healthcare.service.impl;
 
 
 import org.healthcare.dto.ChangePasswordDto;
+import org.healthcare.dto.DoctorDirectoryPageDto;
 import org.healthcare.dto.DoctorPublicProfileDto;
-import org.healthcare.dto.DoctorDto;
 import org.healthcare.dto.DoctorProfileDto;
 import org.healthcare.dto.UpdateDoctorProfileDto;
 import org.healthcare.dto.availability.AvailabilityDto;
+import org.healthcare.events.DoctorDirectoryChangedEvent;
+import org.healthcare.events.UserAccountChangedEvent;
 import org.healthcare.repository.DoctorAvailabilityRepository;
 import org.healthcare.models.Doctor;
 import org.healthcare.models.User;
 import org.healthcare.repository.DoctorRepository;
 import org.healthcare.repository.UserRepository;
+import org.healthcare.security.services.PasswordHashingService;
 import org.healthcare.service.DoctorService;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -24,7 +26,10 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service implementation for doctor-related operations.
@@ -38,22 +43,14 @@ public class DoctorServiceImpl implements DoctorService {
     // --- DEPENDENCIES ---
     private final DoctorRepository doctorRepository;
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final DoctorAvailabilityRepository availabilityRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    /**
-     * Fetches a list of the top 3 rated doctors for public display.
-     * @return A list of DoctorDto objects.
-     */
-    @Override
-    public List<DoctorDto> getTopRatedDoctors() {
-        log.info("Fetching top 3 rated doctors.");
-        Pageable topThree = PageRequest.of(0, 3);
-        List<Doctor> doctors = doctorRepository.findTopRatedDoctors(topThree);
-        return doctors.stream()
-                .map(this::convertToPublicDto)
-                .collect(Collectors.toList());
-    }
+    private static final int MAX_DIRECTORY_PAGE_SIZE = 50;
+
+    @Value("${directory.page.slot-days:14}")
+    private int directorySlotDays;
 
     /**
      * Retrieves the full profile of the currently authenticated doctor.
@@ -83,23 +80,26 @@ public class DoctorServiceImpl implements DoctorService {
         doctor.setQualification(profileDto.getQualification());
 
         Doctor updatedDoctor = doctorRepository.save(doctor);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(currentUser.getId(), currentUser.getEmail(), currentUser.getTokenVersion()));
+        eventPublisher.publishEvent(new DoctorDirectoryChangedEvent(updatedDoctor.getId()));
         log.info("Updated profile for doctor ID: {}", updatedDoctor.getId());
         return DoctorProfileDto.fromEntity(updatedDoctor);
     }
 
     /**
-     * Changes the password for the currently authenticated user.
+     * Changes the password for the currently authenticated user. Both hashes are computed
+     * against the principal before any transaction starts, since they may queue on the
+     * hashing pool; the write is then one conditional UPDATE.
      * @param currentUser The authenticated User object.
      * @param passwordDto DTO containing the current and new passwords.
      */
 
     @Override
-    @Transactional
     public void changePassword(User currentUser, ChangePasswordDto passwordDto) {
         // --- LOGS FOR DEBUGGING ---
         log.info("Attempting password change for user: {}", currentUser.getEmail());
-        if (passwordEncoder == null) {
-            log.error("FATAL: PasswordEncoder is NULL.");
+        if (passwordHashingService == null) {
+            log.error("FATAL: PasswordHashingService is NULL.");
             // The method will crash on the next line, but this log will tell you why.
         }
         if (userRepository == null) {
@@ -107,17 +107,20 @@ public class DoctorServiceImpl implements DoctorService {
         }
         // --- END OF DEBUGGING LOGS ---
 
-        // 1. Verify the current password
-        if (!passwordEncoder.matches(passwordDto.getCurrentPassword(), currentUser.getPassword())) {
+        // 1. Verify the current password against the principal's hash
+        if (!passwordHashingService.matches(passwordDto.getCurrentPassword(), currentUser.getPassword())) {
             log.warn("Password change failed: Incorrect current password for user {}", currentUser.getEmail());
             throw new BadCredentialsException("Incorrect current password provided.");
         }
 
-        // 2. Encode and set the new password
-        currentUser.setPassword(passwordEncoder.encode(passwordDto.getNewPassword()));
+        // 2. Encode the new password
+        String newHash = passwordHashingService.encode(passwordDto.getNewPassword());
 
-        // 3. Save the updated user
-        userRepository.save(currentUser);
+        // 3. Save it and invalidate every token issued so far, unless the account changed since the principal was loaded
+        if (userRepository.changePasswordIfUnchanged(currentUser.getId(), currentUser.getPassword(), currentUser.getTokenVersion(), newHash) != 1) {
+            throw new IllegalArgumentException("Your account changed while the password was being updated. Please try again.");
+        }
+        eventPublisher.publishEvent(new UserAccountChangedEvent(currentUser.getId(), currentUser.getEmail(), currentUser.getTokenVersion() + 1));
         log.info("Password changed successfully for user: {}", currentUser.getEmail());
     }
 
@@ -132,35 +135,88 @@ public class DoctorServiceImpl implements DoctorService {
                 .orElseThrow(() -> new IllegalArgumentException("Doctor profile not found for the current user."));
     }
 
+    /**
+     * Every doctor with their available slots over the next directory.page.slot-days days
+     * (templates can generate months of slots), from two queries in total:
+     * one for the doctors and one for all of their slots, grouped in memory.
+     * @return The public directory.
+     */
     @Override
+    @Transactional(readOnly = true)
     public List<DoctorPublicProfileDto> getAllDoctorsForPatients() {
-        List<Doctor> allDoctors = doctorRepository.findAll();
-
-        return allDoctors.stream().map(doctor -> {
-            // Fetch only available slots for today and the future
-            List<AvailabilityDto> availableSlots = availabilityRepository
-                    // Ensure your repository has this method
-                    .findByDoctorAndDateAfterAndIsAvailableTrue(doctor, LocalDate.now().minusDays(1))
-                    .stream()
-                    .map(AvailabilityDto::fromEntity)
-                    .collect(Collectors.toList());
-
-            return DoctorPublicProfileDto.fromEntity(doctor, availableSlots);
-        }).collect(Collectors.toList());
+        List<Doctor> allDoctors = doctorRepository.findAllByOrderByIdAsc();
+
+        Map<Long, List<AvailabilityDto>> slotsByDoctor;
+        LocalDate today = LocalDate.now();
+        try (Stream<AvailabilityDto> slots = availabilityRepository.streamAllAvailableBetween(today, today.plusDays(directorySlotDays))) {
+            slotsByDoctor = slots.collect(Collectors.groupingBy(AvailabilityDto::getDoctorId));
+        }
+
+        return allDoctors.stream()
+                .map(doctor -> DoctorPublicProfileDto.fromEntity(doctor, slotsByDoctor.getOrDefault(doctor.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * A single doctor as they appear in the public directory.
+     * @param doctorId The doctor's id.
+     * @return The doctor with their available slots over the same window, or empty if they no longer exist.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<DoctorPublicProfileDto> getDoctorForPatients(Long doctorId) {
+        return doctorRepository.findById(doctorId)
+                .map(doctor -> DoctorPublicProfileDto.fromEntity(doctor,
+                        availabilityRepository.findAvailableForDoctorBetween(doctorId, LocalDate.now(), LocalDate.now().plusDays(directorySlotDays))));
     }
 
     /**
-     * Converts a Doctor entity to its public-facing DTO representation.
-     * @param doctor The Doctor entity.
-     * @return A DoctorDto object.
+     * One page of the public directory, highest rated first. Keyset pagination on
+     * (rating, id) keeps every page an index range scan, however deep the client goes.
+     * Slots are limited to availableOn when it is set, otherwise to the next few days.
+     * @param cursor The nextCursor of the previous page, or null for the first page.
+     * @param size Doctors per page, capped at 50.
+     * @return The page and the cursor for the next one.
      */
-    private DoctorDto convertToPublicDto(Doctor doctor) {
-        return DoctorDto.builder()
-                .id(doctor.getId())
-                .name(doctor.getName())
-                .specialization(doctor.getSpecialization())
-                .rating(doctor.getRating())
-                .exp(doctor.getExp())
+    @Override
+    @Transactional(readOnly = true)
+    public DoctorDirectoryPageDto getDoctorDirectoryPage(String specialization, Integer minExp, Float minRating,
+                                                         LocalDate availableOn, String cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1.");
+        }
+        int pageSize = Math.min(size, MAX_DIRECTORY_PAGE_SIZE);
+        DirectoryCursor after = cursor != null && !cursor.isBlank() ? DirectoryCursor.of(cursor) : null;
+
+        // One extra row tells us whether there is a next page
+        List<Doctor> doctors = doctorRepository.findDirectoryPage(
+                specialization != null && !specialization.isBlank() ? specialization : null,
+                minExp,
+                minRating != null ? (double) minRating : null,
+                availableOn,
+                after != null ? (double) after.rating() : null,
+                after != null ? after.id() : null,
+                pageSize + 1);
+        boolean hasMore = doctors.size() > pageSize;
+        if (hasMore) {
+            doctors = doctors.subList(0, pageSize);
+        }
+        if (doctors.isEmpty()) {
+            return DoctorDirectoryPageDto.builder().doctors(List.of()).build();
+        }
+
+        LocalDate from = availableOn != null ? availableOn : LocalDate.now();
+        LocalDate to = availableOn != null ? availableOn : from.plusDays(directorySlotDays);
+        Map<Long, List<AvailabilityDto>> slotsByDoctor = availabilityRepository
+                .findAvailableForDoctorsBetween(doctors.stream().map(Doctor::getId).toList(), from, to).stream()
+                .collect(Collectors.groupingBy(AvailabilityDto::getDoctorId));
+
+        Doctor last = doctors.get(doctors.size() - 1);
+        return DoctorDirectoryPageDto.builder()
+                .doctors(doctors.stream()
+                        .map(doctor -> DoctorPublicProfileDto.fromEntity(doctor, slotsByDoctor.getOrDefault(doctor.getId(), List.of())))
+                        .collect(Collectors.toList()))
+                .nextCursor(hasMore ? new DirectoryCursor(last.getRating(), last.getId()).encode() : null)
                 .build();
     }
 }
\ No newline at end of file
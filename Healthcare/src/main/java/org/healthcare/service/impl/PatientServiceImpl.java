@@ -4,16 +4,19 @@ package org.healthcare.service.impl;
 import lombok.RequiredArgsConstructor;
 import org.healthcare.dto.PatientProfileDto;
 import org.healthcare.dto.UpdatePatientProfileDto;
+import org.healthcare.events.UserAccountChangedEvent;
 import org.healthcare.models.Patient;
 import org.healthcare.models.User;
 import org.healthcare.repository.PatientRepository;
 import org.healthcare.service.PatientService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
 public  class PatientServiceImpl implements PatientService {
     private final PatientRepository patientRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     private Patient findPatientByUser(User user) {
         return patientRepository.findByUser(user)
@@ -35,6 +38,7 @@ public  class PatientServiceImpl implements PatientService {
        // patient.setGender(profileDto.getGender());
 
         Patient updatedPatient = patientRepository.save(patient);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(currentUser.getId(), currentUser.getEmail(), currentUser.getTokenVersion()));
         return PatientProfileDto.fromEntity(updatedPatient);
     }
 }
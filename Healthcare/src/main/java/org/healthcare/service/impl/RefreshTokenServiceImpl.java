@@ -0,0 +1,239 @@
+package org.healthcare.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.healthcare.dto.RefreshedSessionDto;
+import org.healthcare.dto.UserInfoDto;
+import org.healthcare.exception.TokenRefreshException;
+import org.healthcare.models.RefreshToken;
+import org.healthcare.models.Role;
+import org.healthcare.models.User;
+import org.healthcare.repository.RefreshTokenRepository;
+import org.healthcare.security.jwt.JwtUtils;
+import org.healthcare.security.jwt.TokenVersionTable;
+import org.healthcare.service.RefreshTokenService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Opaque, rotating refresh tokens. Only the SHA-256 of a token is stored, both in the
+ * refresh_tokens table and in a bounded in-memory index in front of it, so a refresh
+ * normally costs one map lookup and one conditional UPDATE. The table stays the source
+ * of truth: index misses fall back to it, and the UPDATE only succeeds for the hash it
+ * replaces, so a token can be used exactly once even across instances.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder TOKEN_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtUtils jwtUtils;
+    private final TokenVersionTable tokenVersionTable;
+
+    @Value("${security.refresh-token.index-size:100000}")
+    private long indexSize;
+
+    @Value("${security.refresh-token.sweep-batch-size:500}")
+    private int sweepBatchSize;
+
+    private Cache<String, Session> index;
+
+    @PostConstruct
+    void init() {
+        index = Caffeine.newBuilder()
+                .maximumSize(indexSize)
+                .expireAfter(new SessionExpiry())
+                .build();
+    }
+
+    /**
+     * Starts a new session for a user who has just authenticated.
+     * @param user The authenticated user.
+     * @return The raw refresh token, to be handed to the client once.
+     */
+    @Override
+    public String createRefreshToken(User user) {
+        String rawToken = newRawToken();
+        String hash = hash(rawToken);
+        RefreshToken refreshToken = RefreshToken.builder()
+                .user(user)
+                .token(hash)
+                .expiryDate(nextExpiry())
+                .tokenVersion(user.getTokenVersion())
+                .build();
+        refreshTokenRepository.save(refreshToken);
+
+        index.put(hash, new Session(refreshToken.getId(), user.getId(), user.getEmail(), user.getRole(),
+                refreshToken.getTokenVersion(), refreshToken.getExpiryDate()));
+        return rawToken;
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token.
+     * The presented token stops working as soon as this returns.
+     * @param rawToken The refresh token from the client's cookie.
+     * @return The new token pair and the user it belongs to.
+     */
+    @Override
+    public RefreshedSessionDto rotateRefreshToken(String rawToken) {
+        String hash = hash(rawToken);
+        Session session = index.getIfPresent(hash);
+        if (session == null) {
+            session = refreshTokenRepository.findWithUserByToken(hash)
+                    .map(this::toSession)
+                    .orElseThrow(() -> new TokenRefreshException(label(hash), "Refresh token is not recognised. Please sign in again."));
+        }
+
+        if (session.getExpiryDate().isBefore(Instant.now())) {
+            index.invalidate(hash);
+            throw new TokenRefreshException(label(hash), "Refresh token was expired. Please sign in again.");
+        }
+        if (!tokenVersionTable.isCurrent(session.getUserId(), session.getTokenVersion())) {
+            // Credentials changed since this session started
+            index.invalidate(hash);
+            refreshTokenRepository.deleteByToken(hash);
+            throw new TokenRefreshException(label(hash), "Refresh token was revoked. Please sign in again.");
+        }
+
+        String newRawToken = newRawToken();
+        String newHash = hash(newRawToken);
+        Instant newExpiry = nextExpiry();
+        index.invalidate(hash);
+        if (refreshTokenRepository.rotate(session.getId(), hash, newHash, newExpiry) != 1) {
+            throw new TokenRefreshException(label(hash), "Refresh token was already used. Please sign in again.");
+        }
+        Session rotated = session.withExpiryDate(newExpiry);
+        index.put(newHash, rotated);
+
+        User user = User.builder()
+                .id(rotated.getUserId())
+                .email(rotated.getEmail())
+                .role(rotated.getRole())
+                .tokenVersion(rotated.getTokenVersion())
+                .build();
+        return RefreshedSessionDto.builder()
+                .refreshToken(newRawToken)
+                .accessToken(jwtUtils.generateAccessToken(user))
+                .user(UserInfoDto.fromUser(user))
+                .build();
+    }
+
+    @Override
+    public void revokeRefreshToken(String rawToken) {
+        String hash = hash(rawToken);
+        index.invalidate(hash);
+        refreshTokenRepository.deleteByToken(hash);
+    }
+
+    /**
+     * Deletes expired sessions in id batches so no single statement holds locks on a large
+     * range of the table. Expired index entries are evicted by the index itself.
+     * @return The number of rows deleted.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${security.refresh-token.sweep-interval-ms:3600000}",
+            initialDelayString = "${security.refresh-token.sweep-interval-ms:3600000}")
+    public int purgeExpiredTokens() {
+        Instant now = Instant.now();
+        int deleted = 0;
+        List<Long> ids;
+        do {
+            ids = refreshTokenRepository.findExpiredIds(now, PageRequest.of(0, sweepBatchSize));
+            if (!ids.isEmpty()) {
+                refreshTokenRepository.deleteAllByIdInBatch(ids);
+                deleted += ids.size();
+            }
+        } while (ids.size() == sweepBatchSize);
+
+        if (deleted > 0) {
+            log.info("Purged {} expired refresh tokens", deleted);
+        }
+        return deleted;
+    }
+
+    private Session toSession(RefreshToken refreshToken) {
+        User user = refreshToken.getUser();
+        return new Session(refreshToken.getId(), user.getId(), user.getEmail(), user.getRole(),
+                refreshToken.getTokenVersion(), refreshToken.getExpiryDate());
+    }
+
+    private Instant nextExpiry() {
+        return Instant.now().plusMillis(jwtUtils.getRefreshToken().getExpirationMs());
+    }
+
+    private static String newRawToken() {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        return TOKEN_ENCODER.encodeToString(bytes);
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Enough to correlate log lines without echoing anything usable back
+    private static String label(String hash) {
+        return hash.substring(0, 8);
+    }
+
+    /**
+     * What the index keeps per session: enough to issue an access token without a query.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class Session {
+        private final Long id;
+        private final Long userId;
+        private final String email;
+        private final Role role;
+        private final int tokenVersion;
+        private final Instant expiryDate;
+
+        Session withExpiryDate(Instant expiryDate) {
+            return new Session(id, userId, email, role, tokenVersion, expiryDate);
+        }
+    }
+
+    private static final class SessionExpiry implements Expiry<String, Session> {
+        @Override
+        public long expireAfterCreate(String key, Session session, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), session.getExpiryDate()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Session session, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, session, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Session session, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
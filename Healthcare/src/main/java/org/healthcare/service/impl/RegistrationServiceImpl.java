@@ -0,0 +1,80 @@
+package org.healthcare.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.healthcare.dto.RegisterDoctorDto;
+import org.healthcare.dto.RegisterPatientDto;
+import org.healthcare.events.DoctorDirectoryChangedEvent;
+import org.healthcare.models.Doctor;
+import org.healthcare.models.Patient;
+import org.healthcare.models.Role;
+import org.healthcare.models.User;
+import org.healthcare.repository.DoctorRepository;
+import org.healthcare.repository.PatientRepository;
+import org.healthcare.repository.UserRepository;
+import org.healthcare.service.RegistrationService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Persists a new user together with its profile in one transaction.
+ * The password arrives already hashed, so no BCrypt work happens while the transaction is open.
+ */
+@Service
+@RequiredArgsConstructor
+public class RegistrationServiceImpl implements RegistrationService {
+
+    private final UserRepository userRepository;
+    private final PatientRepository patientRepository;
+    private final DoctorRepository doctorRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public User registerPatient(RegisterPatientDto registerDto, String passwordHash) {
+        // Create user
+        User user = User.builder()
+                .email(registerDto.getEmail())
+                .password(passwordHash)
+                .role(Role.ROLE_PATIENT)
+                .build();
+
+        User savedUser = userRepository.save(user);
+
+        // Create patient profile
+        Patient patient = Patient.builder()
+                .user(savedUser)
+                .name(registerDto.getName())
+                .age(registerDto.getAge())
+                .bloodGroup(registerDto.getBloodGroup())
+                .phoneNumber(registerDto.getPhoneNumber())
+                .address(registerDto.getAddress())
+                .gender(registerDto.getGender())
+                .build();
+
+        patientRepository.save(patient);
+        return savedUser;
+    }
+
+    @Override
+    @Transactional
+    public User registerDoctor(RegisterDoctorDto registerDto, String passwordHash) {
+        // Create user
+        User user = User.builder()
+                .email(registerDto.getEmail())
+                .password(passwordHash)
+                .role(Role.ROLE_DOCTOR)
+                .build();
+
+        User savedUser = userRepository.save(user);
+
+        Doctor doctor = Doctor.builder()
+                .user(savedUser)
+                .name(registerDto.getName())
+                .build();
+
+        Doctor savedDoctor = doctorRepository.save(doctor);
+        eventPublisher.publishEvent(new DoctorDirectoryChangedEvent(savedDoctor.getId()));
+        return savedUser;
+    }
+}
@@ -0,0 +1,215 @@
+package org.healthcare.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.healthcare.dto.JoinWaitlistDto;
+import org.healthcare.dto.WaitlistEntryDto;
+import org.healthcare.events.SlotFreedEvent;
+import org.healthcare.exception.SlotUnavailableException;
+import org.healthcare.models.Doctor;
+import org.healthcare.models.Patient;
+import org.healthcare.models.User;
+import org.healthcare.models.WaitlistEntry;
+import org.healthcare.repository.DoctorRepository;
+import org.healthcare.repository.PatientRepository;
+import org.healthcare.repository.WaitlistRepository;
+import org.healthcare.scheduling.FreeSlot;
+import org.healthcare.scheduling.SlotCalendar;
+import org.healthcare.scheduling.SlotGrid;
+import org.healthcare.scheduling.SlotHold;
+import org.healthcare.scheduling.SlotHolds;
+import org.healthcare.scheduling.Waiter;
+import org.healthcare.scheduling.WaitlistQueues;
+import org.healthcare.service.NotificationService;
+import org.healthcare.service.WaitlistService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class WaitlistServiceImpl implements WaitlistService {
+
+    private static final int DEFAULT_MINUTES = 30;
+
+    private final WaitlistRepository waitlistRepository;
+    private final PatientRepository patientRepository;
+    private final DoctorRepository doctorRepository;
+    private final NotificationService notificationService;
+    private final SlotCalendar slotCalendar;
+    private final SlotHolds slotHolds;
+    private final WaitlistQueues waitlistQueues;
+
+    @Value("${waitlist.offer-ttl-minutes:15}")
+    private long offerTtlMinutes;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void loadQueues() {
+        int lapsed = waitlistRepository.expireAllOffers();
+        List<Waiter> waiters = waitlistRepository.findWaitersFrom(LocalDate.now());
+        waitlistQueues.load(waiters);
+        log.info("Waitlist loaded: {} waiting patients, {} offers lapsed with the restart", waiters.size(), lapsed);
+    }
+
+    @Override
+    @Transactional
+    public WaitlistEntryDto joinWaitlist(User patientUser, JoinWaitlistDto joinDetails) {
+        Patient patient = findPatientByUser(patientUser);
+        Doctor doctor = doctorRepository.findById(joinDetails.getDoctorId())
+                .orElseThrow(() -> new IllegalArgumentException("Doctor not found."));
+        LocalDate date = joinDetails.getDate();
+        int lengthSlots = SlotGrid.slotsFor(joinDetails.getMinutes() != null ? joinDetails.getMinutes() : DEFAULT_MINUTES);
+
+        if (waitlistRepository.existsByPatientAndDoctorAndDateAndStatus(patient, doctor, date, WaitlistEntry.Status.Waiting)) {
+            throw new IllegalArgumentException("You are already on the waitlist for this day.");
+        }
+        if (firstFree(doctor.getId(), date, lengthSlots) != null) {
+            throw new IllegalArgumentException("Dr. " + doctor.getName() + " has free slots on " + date + ". Please book one of those instead.");
+        }
+
+        WaitlistEntry entry = waitlistRepository.save(WaitlistEntry.builder()
+                .patient(patient)
+                .doctor(doctor)
+                .date(date)
+                .minutes(lengthSlots * SlotGrid.SLOT_MINUTES)
+                .status(WaitlistEntry.Status.Waiting)
+                .build());
+        Waiter waiter = new Waiter(entry.getWaitlistId(), patient.getId(), doctor.getId(), date, entry.getMinutes());
+        afterCommit(() -> waitlistQueues.add(waiter));
+        return WaitlistEntryDto.fromEntity(entry);
+    }
+
+    @Override
+    public List<WaitlistEntryDto> getMyWaitlist(User patientUser) {
+        Patient patient = findPatientByUser(patientUser);
+        return waitlistRepository.findByPatientAndStatusInAndDateGreaterThanEqualOrderByDateAscWaitlistIdAsc(
+                        patient, EnumSet.of(WaitlistEntry.Status.Waiting, WaitlistEntry.Status.Offered), LocalDate.now())
+                .stream()
+                .map(WaitlistEntryDto::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public void leaveWaitlist(Long waitlistId, User patientUser) {
+        Patient patient = findPatientByUser(patientUser);
+        WaitlistEntry entry = waitlistRepository.findById(waitlistId)
+                .orElseThrow(() -> new IllegalArgumentException("Waitlist entry not found."));
+        if (!entry.getPatient().getId().equals(patient.getId())) {
+            throw new AccessDeniedException("You do not have permission to modify this waitlist entry.");
+        }
+        WaitlistEntry.Status previous = entry.getStatus();
+        entry.setStatus(WaitlistEntry.Status.Left);
+        waitlistRepository.save(entry);
+        if (previous == WaitlistEntry.Status.Waiting) {
+            afterCommit(() -> waitlistQueues.remove(waitlistId));
+        } else if (previous == WaitlistEntry.Status.Offered) {
+            // An offered slot that is turned down goes to the next patient
+            slotHolds.cancel(entry.getHoldId(), patient.getId());
+        }
+    }
+
+    /**
+     * Offers the freed time to the day's waitlist, longest-waiting first among the patients
+     * whose wanted length fits, until nothing more fits. Runs after the cancellation has
+     * committed and the slot calendar has reloaded the day, in a transaction of its own.
+     * A freed hold that was an offer closes that offer first.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onSlotFreed(SlotFreedEvent event) {
+        Long doctorId = event.getDoctorId();
+        LocalDate date = event.getDate();
+        if (event.getHoldId() != null && waitlistRepository.expireOffer(event.getHoldId()) > 0) {
+            log.debug("Waitlist offer with hold {} lapsed", event.getHoldId());
+        }
+        Waiter waiter;
+        while ((waiter = waitlistQueues.poll(doctorId, date, length -> firstFree(doctorId, date, length) != null)) != null) {
+            FreeSlot slot = firstFree(doctorId, date, waiter.lengthSlots());
+            if (slot == null) {
+                // Taken by a booking since the poll
+                waitlistQueues.add(waiter);
+                continue;
+            }
+            WaitlistEntry entry = waitlistRepository.findById(waiter.waitlistId()).orElse(null);
+            if (entry == null || entry.getStatus() != WaitlistEntry.Status.Waiting) {
+                continue;
+            }
+            SlotHold hold;
+            try {
+                hold = slotHolds.offer(waiter.patientId(), doctorId, date, slot.range(), Duration.ofMinutes(offerTtlMinutes));
+            } catch (SlotUnavailableException e) {
+                // The day is busy with another change, which will free or take slots in turn
+                waitlistQueues.add(waiter);
+                break;
+            }
+            entry.setStatus(WaitlistEntry.Status.Offered);
+            entry.setHoldId(hold.id());
+            entry.setOfferedTimeSlot(SlotGrid.format(hold.range()));
+            entry.setOfferExpiresAt(hold.expiresAt());
+            waitlistRepository.save(entry);
+
+            LocalTime until = LocalTime.ofInstant(hold.expiresAt(), ZoneId.systemDefault()).truncatedTo(ChronoUnit.MINUTES);
+            String message = "A slot has opened up with Dr. " + entry.getDoctor().getName() + " on " + date + " at "
+                    + entry.getOfferedTimeSlot() + ". It is held for you until " + until + "; book it with hold " + hold.id() + ".";
+            notificationService.createNotification(entry.getPatient().getUser(), message);
+            log.debug("Offered {} on {} with doctor {} to waitlist entry {}", entry.getOfferedTimeSlot(), date, doctorId, entry.getWaitlistId());
+        }
+    }
+
+    /**
+     * Waiting and offered entries for days that have passed will never be booked.
+     */
+    @Scheduled(cron = "${waitlist.prune-cron:0 5 0 * * *}")
+    @Transactional
+    public void expirePastEntries() {
+        LocalDate today = LocalDate.now();
+        int expired = waitlistRepository.expireOpenBefore(today);
+        waitlistQueues.pruneBefore(today);
+        log.info("Expired {} waitlist entries for past days", expired);
+    }
+
+    /**
+     * Applies a queue change once the entry it mirrors has committed, so a rollback
+     * leaves the queue as it was.
+     */
+    private static void afterCommit(Runnable change) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private FreeSlot firstFree(Long doctorId, LocalDate date, int lengthSlots) {
+        return slotCalendar.nextFree(doctorId, date, lengthSlots, 1).stream()
+                .filter(slot -> slot.date().equals(date))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private Patient findPatientByUser(User user) {
+        return patientRepository.findByUser(user)
+                .orElseThrow(() -> new IllegalArgumentException("Patient profile not found."));
+    }
+}
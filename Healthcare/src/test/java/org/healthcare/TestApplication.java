@@ -0,0 +1,41 @@
+package org.healthcare;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the application once per test JVM against an in-memory H2 database in MySQL
+ * mode, for tests that need the real repositories, Hibernate and the query counter.
+ * Tests share the database, so each one seeds and cleans up the rows it uses.
+ */
+public final class TestApplication
+{
+    private static ConfigurableApplicationContext context;
+
+    private TestApplication()
+    {
+    }
+
+    public static synchronized ConfigurableApplicationContext context()
+    {
+        if (context == null) {
+            context = new SpringApplicationBuilder(App.class)
+                    .web(WebApplicationType.NONE)
+                    // As command-line arguments, so they win over application.properties
+                    .run("--spring.datasource.url=jdbc:h2:mem:healthcare;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+                            "--spring.datasource.username=sa",
+                            "--spring.datasource.password=",
+                            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                            "--spring.jpa.hibernate.ddl-auto=create",
+                            "--spring.jpa.show-sql=false",
+                            "--access-log.enabled=false");
+        }
+        return context;
+    }
+
+    public static <T> T bean(Class<T> type)
+    {
+        return context().getBean(type);
+    }
+}
@@ -0,0 +1,208 @@
+package org.healthcare.controller;
+
+import junit.framework.TestCase;
+import org.healthcare.TestApplication;
+import org.healthcare.metrics.QueryBudget;
+import org.healthcare.metrics.QueryCounter;
+import org.healthcare.models.Appointment;
+import org.healthcare.models.Consultation;
+import org.healthcare.models.Doctor;
+import org.healthcare.models.Patient;
+import org.healthcare.models.Role;
+import org.healthcare.models.User;
+import org.healthcare.repository.AppointmentRepository;
+import org.healthcare.repository.ConsultationRepository;
+import org.healthcare.repository.DoctorRepository;
+import org.healthcare.repository.PatientRepository;
+import org.healthcare.repository.UserRepository;
+import org.healthcare.service.AppointmentService;
+import org.healthcare.service.ConsultationService;
+import org.healthcare.service.DoctorPatientService;
+
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the service call behind each list endpoint against the test database, counting the
+ * statements Hibernate prepares, once with a single row and again with several. The count
+ * must not grow with the rows returned and must fit the endpoint's @QueryBudget.
+ */
+public class ListEndpointQueryBudgetTest extends TestCase
+{
+    private static final AtomicInteger ACCOUNTS = new AtomicInteger();
+    private static final int MORE_ROWS = 4;
+
+    private QueryCounter queryCounter;
+    private AppointmentRepository appointmentRepository;
+    private ConsultationRepository consultationRepository;
+    private AppointmentService appointmentService;
+    private ConsultationService consultationService;
+    private DoctorPatientService doctorPatientService;
+
+    private User doctorUser;
+    private Doctor doctor;
+    private User patientUser;
+    private Patient patient;
+    private int slot;
+
+    @Override
+    protected void setUp()
+    {
+        queryCounter = TestApplication.bean(QueryCounter.class);
+        appointmentRepository = TestApplication.bean(AppointmentRepository.class);
+        consultationRepository = TestApplication.bean(ConsultationRepository.class);
+        appointmentService = TestApplication.bean(AppointmentService.class);
+        consultationService = TestApplication.bean(ConsultationService.class);
+        doctorPatientService = TestApplication.bean(DoctorPatientService.class);
+
+        // A fresh doctor and patient per test, so rows left by other tests never show up
+        UserRepository userRepository = TestApplication.bean(UserRepository.class);
+        int account = ACCOUNTS.incrementAndGet();
+        doctorUser = userRepository.save(user("budget-doctor-" + account, Role.ROLE_DOCTOR));
+        doctor = TestApplication.bean(DoctorRepository.class).save(Doctor.builder()
+                .user(doctorUser).name("Doctor " + account).specialization("Cardiology").build());
+        patient = savePatient(account);
+        patientUser = patient.getUser();
+    }
+
+    public void testUpcomingAppointments()
+    {
+        assertFlat(PatientAppointmentController.class, "getUpcomingAppointments",
+                () -> appointmentService.getUpcomingAppointmentsForPatient(patientUser).size(),
+                () -> appointment(patient, LocalDate.now().plusDays(1), Appointment.Status.Booked));
+    }
+
+    public void testAppointmentHistory()
+    {
+        assertFlat(PatientAppointmentController.class, "getAppointmentHistory",
+                () -> appointmentService.getAppointmentHistoryForPatient(patientUser).size(),
+                () -> appointment(patient, LocalDate.now().minusDays(1), Appointment.Status.Completed));
+    }
+
+    public void testDoctorAppointmentFeed()
+    {
+        // Without a window the feed includes past appointments, e.g. ones still Waiting
+        assertFlat(AppointmentController.class, "getDoctorAppointments",
+                () -> appointmentService.getAppointmentsForDoctor(doctorUser, null, null, null, null, 20).getAppointments().size(),
+                () -> appointment(patient, LocalDate.now().minusDays(3), Appointment.Status.Waiting));
+    }
+
+    public void testPatientConsultations()
+    {
+        assertFlat(PatientConsultationController.class, "getAllMyConsultations",
+                () -> consultationService.getAllConsultationsForPatient(patientUser).size(),
+                this::consultation);
+    }
+
+    public void testDoctorsPatients()
+    {
+        assertFlat(DoctorPatientController.class, "getMyPatients",
+                () -> doctorPatientService.getAssociatedPatients(doctorUser).size(),
+                () -> appointment(savePatient(ACCOUNTS.incrementAndGet()), LocalDate.now().minusDays(1), Appointment.Status.Completed));
+    }
+
+    public void testPatientHistory()
+    {
+        assertFlat(DoctorPatientController.class, "getPatientHistory",
+                () -> {
+                    var history = doctorPatientService.getPatientHistory(doctorUser, patient.getId());
+                    return history.getAppointments().size() + history.getConsultations().size();
+                },
+                this::consultation);
+    }
+
+    /**
+     * Counts the statements of one call after adding a row, then after adding MORE_ROWS more.
+     */
+    private void assertFlat(Class<?> controller, String endpoint, Supplier<Integer> call, Runnable addRow)
+    {
+        addRow.run();
+        int[] withOne = counted(call);
+        for (int i = 0; i < MORE_ROWS; i++) {
+            addRow.run();
+        }
+        int[] withMore = counted(call);
+
+        assertTrue(endpoint + " did not return the added rows", withMore[1] > withOne[1]);
+        assertEquals(endpoint + " ran more statements with more rows", withOne[0], withMore[0]);
+        int budget = budgetOf(controller, endpoint);
+        assertTrue(endpoint + " ran " + withMore[0] + " statements, budget is " + budget, withMore[0] <= budget);
+    }
+
+    /**
+     * @return The statement count and the number of results.
+     */
+    private int[] counted(Supplier<Integer> call)
+    {
+        queryCounter.start(Integer.MAX_VALUE);
+        int results;
+        QueryCounter.Report report;
+        try {
+            results = call.get();
+        } finally {
+            report = queryCounter.stop();
+        }
+        return new int[]{report.getCount(), results};
+    }
+
+    private void appointment(Patient of, LocalDate date, Appointment.Status status)
+    {
+        appointmentRepository.save(newAppointment(of, date, status));
+    }
+
+    private Appointment newAppointment(Patient of, LocalDate date, Appointment.Status status)
+    {
+        int start = 36 + 2 * slot++;
+        return Appointment.builder()
+                .doctor(doctor)
+                .patient(of)
+                .date(date)
+                .timeSlot(String.format("%02d:%02d-%02d:%02d", start / 4, start % 4 * 15, (start + 2) / 4, (start + 2) % 4 * 15))
+                .startSlot(start)
+                .endSlot(start + 2)
+                .status(status)
+                .reason("Checkup")
+                .build();
+    }
+
+    private void consultation()
+    {
+        LocalDate date = LocalDate.now().minusDays(1);
+        Appointment appointment = appointmentRepository.save(newAppointment(patient, date, Appointment.Status.Completed));
+        consultationRepository.save(Consultation.builder()
+                .appointment(appointment)
+                .patient(patient)
+                .doctor(doctor)
+                .date(date)
+                .symptoms("Cough")
+                .status(Consultation.Status.Completed)
+                .build());
+    }
+
+    /**
+     * Saves a patient with a new account; the patient's user is persisted along with it.
+     */
+    private static Patient savePatient(int account)
+    {
+        return TestApplication.bean(PatientRepository.class).save(Patient.builder()
+                .user(user("budget-patient-" + account, Role.ROLE_PATIENT)).name("Patient " + account).age(30).dob(LocalDate.of(1995, 1, 1)).bloodGroup("O+")
+                .phoneNumber(9_000_000_000L).address("Pune").gender(Patient.Gender.Female).build());
+    }
+
+    private static User user(String name, Role role)
+    {
+        return User.builder().email(name + "@example.com").password("x").role(role).build();
+    }
+
+    private static int budgetOf(Class<?> controller, String endpoint)
+    {
+        for (Method method : controller.getDeclaredMethods()) {
+            if (method.getName().equals(endpoint)) {
+                return method.getAnnotation(QueryBudget.class).value();
+            }
+        }
+        throw new AssertionError(controller.getSimpleName() + " has no " + endpoint);
+    }
+}
@@ -0,0 +1,124 @@
+package org.healthcare.directory;
+
+import junit.framework.TestCase;
+import org.healthcare.TestApplication;
+import org.healthcare.scheduling.SlotGrid;
+import org.healthcare.scheduling.SlotRange;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Rebuilds the facet index from doctor and doctor_availability rows, as the nightly run does,
+ * and times the rebuild and the filter for different doctor and slot counts.
+ * Runs with -Pbenchmarks only.
+ */
+public class DoctorFacetIndexBenchmarkTest extends TestCase
+{
+    private static final String[] SPECIALIZATIONS = {"Cardiology", "Neurology", "Dermatology", "Orthopedics", "Pediatrics", "Psychiatry"};
+    private static final String[] SLOTS = {"09:00-09:30", "09:30-10:00", "10:00-10:30", "10:30-11:00", "11:00-11:30",
+            "11:30-12:00", "14:00-14:30", "14:30-15:00", "15:00-15:30", "15:30-16:00"};
+    private static final int HORIZON_DAYS = 30;
+
+    private JdbcTemplate jdbc;
+    private DoctorFacetIndex index;
+
+    @Override
+    protected void setUp()
+    {
+        jdbc = TestApplication.bean(JdbcTemplate.class);
+        index = TestApplication.bean(DoctorFacetIndex.class);
+    }
+
+    @Override
+    protected void tearDown()
+    {
+        clear();
+        index.rebuild();
+    }
+
+    public void testRebuildAndFilterByDoctorAndSlotCount()
+    {
+        Map<String, List<String>> selection = Map.of(
+                DoctorFacetIndex.SPECIALIZATION, List.of("Cardiology", "Neurology"),
+                DoctorFacetIndex.EXPERIENCE, List.of("5-9", "10-19"),
+                DoctorFacetIndex.RATING, List.of("4-4.5", "4.5-5"),
+                DoctorFacetIndex.AVAILABILITY, List.of(DoctorFacetIndex.NEXT_7_DAYS));
+        for (int doctors : new int[]{10_000, 50_000}) {
+            for (int slotsPerDoctor : new int[]{1, 20}) {
+                clear();
+                seed(doctors, slotsPerDoctor);
+
+                long buildStart = System.nanoTime();
+                index.rebuild();
+                long buildMs = (System.nanoTime() - buildStart) / 1_000_000;
+                assertEquals(doctors, index.filter(Map.of(), 0).getTotal());
+
+                for (int i = 0; i < 200; i++) {
+                    index.filter(selection, 20);
+                }
+                long[] timings = new long[500];
+                for (int i = 0; i < timings.length; i++) {
+                    long start = System.nanoTime();
+                    index.filter(selection, 20);
+                    timings[i] = System.nanoTime() - start;
+                }
+                Arrays.sort(timings);
+                System.out.printf("Facet index, %d doctors, %d slots each: rebuild=%d ms, filter p50=%d us, p99=%d us%n",
+                        doctors, slotsPerDoctor, buildMs, timings[timings.length / 2] / 1000, timings[timings.length * 99 / 100] / 1000);
+            }
+        }
+    }
+
+    /**
+     * Inserts doctors with their user rows, each with slots spread over the next 30 days;
+     * half of the slots are free.
+     */
+    private void seed(int doctors, int slotsPerDoctor)
+    {
+        Random random = new Random(doctors);
+        List<Object[]> users = new ArrayList<>(doctors);
+        List<Object[]> profiles = new ArrayList<>(doctors);
+        for (long id = 1; id <= doctors; id++) {
+            users.add(new Object[]{id, "benchmark-doctor-" + id + "@example.com"});
+            profiles.add(new Object[]{id, id, "Doctor " + id, SPECIALIZATIONS[random.nextInt(SPECIALIZATIONS.length)],
+                    random.nextInt(30), random.nextInt(50) / 10f});
+        }
+        jdbc.batchUpdate("INSERT INTO users (id, email, password, role, token_version) VALUES (?, ?, 'x', 'ROLE_DOCTOR', 0)", users);
+        jdbc.batchUpdate("INSERT INTO doctors (id, user_id, name, specialization, exp, rating) VALUES (?, ?, ?, ?, ?, ?)", profiles);
+
+        LocalDate today = LocalDate.now();
+        List<Object[]> slots = new ArrayList<>(10_000);
+        for (long id = 1; id <= doctors; id++) {
+            for (int slot = 0; slot < slotsPerDoctor; slot++) {
+                LocalDate date = today.plusDays(random.nextInt(HORIZON_DAYS));
+                SlotRange range = SlotGrid.parse(SLOTS[random.nextInt(SLOTS.length)]);
+                slots.add(new Object[]{id, Date.valueOf(date), SlotGrid.format(range), range.start(), range.end(), random.nextBoolean()});
+                if (slots.size() == 10_000) {
+                    insertSlots(slots);
+                }
+            }
+        }
+        insertSlots(slots);
+    }
+
+    private void insertSlots(List<Object[]> slots)
+    {
+        jdbc.batchUpdate("INSERT INTO doctor_availability (doctor_id, date, time_slot, start_slot, end_slot, is_available) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", slots);
+        slots.clear();
+    }
+
+    private void clear()
+    {
+        jdbc.update("DELETE FROM doctor_availability WHERE doctor_id IN (SELECT id FROM doctors WHERE name LIKE 'Doctor %')");
+        jdbc.update("DELETE FROM doctors WHERE name LIKE 'Doctor %'");
+        jdbc.update("DELETE FROM users WHERE email LIKE 'benchmark-doctor-%'");
+    }
+}
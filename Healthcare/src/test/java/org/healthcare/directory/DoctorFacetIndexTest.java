@@ -0,0 +1,102 @@
+package org.healthcare.directory;
+
+import junit.framework.TestCase;
+import org.healthcare.dto.DoctorDto;
+import org.healthcare.dto.DoctorFacetResultDto;
+import org.healthcare.models.Doctor;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class DoctorFacetIndexTest extends TestCase
+{
+    private DoctorFacetIndex index;
+
+    @Override
+    protected void setUp()
+    {
+        index = new DoctorFacetIndex(null, null);
+        index.load(List.of(
+                doctor(1, "Cardiology", 3, 4.6f),
+                doctor(2, "Cardiology", 12, 4.2f),
+                doctor(3, "Neurology", 7, 4.8f),
+                doctor(4, "Neurology", 25, 2.5f),
+                doctor(5, "Dermatology", 12, 4.7f)), Set.of(1L, 3L, 5L));
+    }
+
+    public void testUnfilteredCountsEveryDoctor()
+    {
+        DoctorFacetResultDto result = index.filter(Map.of(), 10);
+        assertEquals(5, result.getTotal());
+        assertEquals(List.of(3L, 5L, 1L, 2L, 4L), ids(result));
+        assertEquals(Map.of("Cardiology", 2, "Neurology", 2, "Dermatology", 1), result.getFacets().get(DoctorFacetIndex.SPECIALIZATION));
+        assertEquals(Map.of("next-7-days", 3), result.getFacets().get(DoctorFacetIndex.AVAILABILITY));
+    }
+
+    public void testFacetsAreAndedAndValuesOred()
+    {
+        DoctorFacetResultDto result = index.filter(Map.of(
+                DoctorFacetIndex.SPECIALIZATION, List.of("Cardiology", "Neurology"),
+                DoctorFacetIndex.AVAILABILITY, List.of(DoctorFacetIndex.NEXT_7_DAYS)), 10);
+        assertEquals(List.of(3L, 1L), ids(result));
+
+        // A facet's counts ignore its own selection but apply the others
+        assertEquals(Map.of("Cardiology", 1, "Neurology", 1, "Dermatology", 1), result.getFacets().get(DoctorFacetIndex.SPECIALIZATION));
+        assertEquals(Map.of("next-7-days", 2), result.getFacets().get(DoctorFacetIndex.AVAILABILITY));
+        // Values with no matches under the current filters are still listed, with 0
+        assertEquals(Map.of("0-4", 1, "5-9", 1, "10-19", 0, "20-plus", 0), result.getFacets().get(DoctorFacetIndex.EXPERIENCE));
+    }
+
+    public void testIncrementalUpdates()
+    {
+        // Doctor 2 gets a slot, doctor 1's last slot is booked, doctor 6 joins
+        index.put(doctor(2, "Cardiology", 12, 4.2f), true);
+        index.put(doctor(1, "Cardiology", 3, 4.6f), false);
+        index.put(doctor(6, "Psychiatry", 1, 0f), true);
+        Map<String, List<String>> availableSoon = Map.of(DoctorFacetIndex.AVAILABILITY, List.of(DoctorFacetIndex.NEXT_7_DAYS));
+        assertEquals(List.of(3L, 5L, 2L, 6L), ids(index.filter(availableSoon, 10)));
+
+        index.remove(3L);
+        DoctorFacetResultDto result = index.filter(availableSoon, 10);
+        assertEquals(List.of(5L, 2L, 6L), ids(result));
+        assertEquals(Map.of("Cardiology", 1, "Dermatology", 1, "Neurology", 0, "Psychiatry", 1), result.getFacets().get(DoctorFacetIndex.SPECIALIZATION));
+    }
+
+    public void testGrowsPastInitialCapacity()
+    {
+        for (long id = 10; id < 200; id++) {
+            index.put(doctor(id, "Pediatrics", 5, 3.5f), id % 2 == 0);
+        }
+        DoctorFacetResultDto result = index.filter(Map.of(DoctorFacetIndex.SPECIALIZATION, List.of("Pediatrics"),
+                DoctorFacetIndex.AVAILABILITY, List.of(DoctorFacetIndex.NEXT_7_DAYS)), 0);
+        assertEquals(95, result.getTotal());
+        assertEquals(195, index.filter(Map.of(), 0).getTotal());
+    }
+
+    public void testUnknownFacetIsRejected()
+    {
+        try {
+            index.filter(Map.of("city", List.of("Pune")), 10);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    private static Doctor doctor(long id, String specialization, int exp, float rating)
+    {
+        return Doctor.builder()
+                .id(id)
+                .name("Doctor " + id)
+                .specialization(specialization)
+                .exp(exp)
+                .rating(rating)
+                .build();
+    }
+
+    private static List<Long> ids(DoctorFacetResultDto result)
+    {
+        return result.getDoctors().stream().map(DoctorDto::getId).toList();
+    }
+}
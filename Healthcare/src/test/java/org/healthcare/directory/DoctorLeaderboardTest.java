@@ -0,0 +1,41 @@
+package org.healthcare.directory;
+
+import junit.framework.TestCase;
+import org.healthcare.TestApplication;
+import org.healthcare.events.DoctorDirectoryChangedEvent;
+import org.healthcare.models.Doctor;
+import org.healthcare.models.Role;
+import org.healthcare.models.User;
+import org.healthcare.repository.DoctorRepository;
+import org.healthcare.repository.UserRepository;
+
+public class DoctorLeaderboardTest extends TestCase
+{
+    public void testVersionMovesOnlyWhenTheLeaderboardChanges()
+    {
+        DoctorLeaderboard leaderboard = TestApplication.bean(DoctorLeaderboard.class);
+        DoctorRepository doctorRepository = TestApplication.bean(DoctorRepository.class);
+        User user = TestApplication.bean(UserRepository.class).save(User.builder()
+                .email("leaderboard-" + System.nanoTime() + "@example.com").password("x").role(Role.ROLE_DOCTOR).build());
+        Doctor doctor = doctorRepository.save(Doctor.builder()
+                .user(user).name("Ranked").specialization("Leaderboard").rating(4.5f).build());
+
+        // A new doctor joins the ranking
+        String before = leaderboard.getVersionTag();
+        leaderboard.onDoctorDirectoryChanged(new DoctorDirectoryChangedEvent(doctor.getId()));
+        String joined = leaderboard.getVersionTag();
+        assertFalse(before.equals(joined));
+        assertEquals("Ranked", leaderboard.top(1, "Leaderboard").get(0).getName());
+
+        // Availability changes publish the same event, but nothing ranked changed
+        leaderboard.onDoctorDirectoryChanged(new DoctorDirectoryChangedEvent(doctor.getId()));
+        leaderboard.onDoctorDirectoryChanged(new DoctorDirectoryChangedEvent(null));
+        assertEquals(joined, leaderboard.getVersionTag());
+
+        doctor.setRating(3.5f);
+        doctorRepository.save(doctor);
+        leaderboard.onDoctorDirectoryChanged(new DoctorDirectoryChangedEvent(doctor.getId()));
+        assertFalse(joined.equals(leaderboard.getVersionTag()));
+        assertEquals(3.5f, leaderboard.top(1, "Leaderboard").get(0).getRating());
+    }
+}
@@ -0,0 +1,60 @@
+package org.healthcare.directory;
+
+import junit.framework.TestCase;
+import org.healthcare.models.Doctor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Search latency over a large directory. Runs with -Pbenchmarks only.
+ */
+public class DoctorSearchIndexBenchmarkTest extends TestCase
+{
+    private static final String[] FIRST_NAMES = {"Asha", "Rahul", "Meera", "Vikram", "Priya", "Arjun", "Kavya", "Rohan", "Sneha", "Nikhil"};
+    private static final String[] LAST_NAMES = {"Sharma", "Verma", "Iyer", "Reddy", "Nair", "Gupta", "Mehta", "Kapoor", "Joshi", "Banerjee"};
+    private static final String[] SPECIALIZATIONS = {"Cardiology", "Neurology", "Dermatology", "Orthopedics", "Pediatrics", "Psychiatry"};
+    private static final String[] QUALIFICATIONS = {"MBBS", "MBBS, MD", "MBBS, MS", "MBBS, DNB"};
+
+    public void testSearchLatencyAtFiftyThousandDoctors()
+    {
+        List<Doctor> doctors = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 1; i <= 50_000; i++) {
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + " " + Integer.toString(i, 36);
+            doctors.add(doctor(i, name, SPECIALIZATIONS[random.nextInt(SPECIALIZATIONS.length)],
+                    QUALIFICATIONS[random.nextInt(QUALIFICATIONS.length)], random.nextInt(50) / 10f));
+        }
+        DoctorSearchIndex large = new DoctorSearchIndex(null);
+        large.load(doctors);
+        String[] queries = {"sharma", "card", "neurolgy", "priya nair", "mbbs md", "p", "rohan pediatrics", "kapor"};
+
+        for (int i = 0; i < 2_000; i++) {
+            large.search(queries[i % queries.length], 10);
+        }
+        long[] timings = new long[4_000];
+        for (int i = 0; i < timings.length; i++) {
+            long start = System.nanoTime();
+            assertFalse(large.search(queries[i % queries.length], 10).isEmpty());
+            timings[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(timings);
+        long p50 = timings[timings.length / 2];
+        long p99 = timings[timings.length * 99 / 100];
+        System.out.printf("Doctor search at 50k doctors: p50=%d us, p99=%d us%n", p50 / 1000, p99 / 1000);
+    }
+
+    private static Doctor doctor(long id, String name, String specialization, String qualification, float rating)
+    {
+        return Doctor.builder()
+                .id(id)
+                .name(name)
+                .specialization(specialization)
+                .qualification(qualification)
+                .rating(rating)
+                .build();
+    }
+}
@@ -0,0 +1,94 @@
+package org.healthcare.directory;
+
+import junit.framework.TestCase;
+import org.healthcare.dto.DoctorDto;
+import org.healthcare.models.Doctor;
+
+import java.util.List;
+
+public class DoctorSearchIndexTest extends TestCase
+{
+    private DoctorSearchIndex index;
+
+    @Override
+    protected void setUp()
+    {
+        index = new DoctorSearchIndex(null);
+        index.put(doctor(1, "Asha Sharma", "Cardiology", "MBBS, MD", 4.1f));
+        index.put(doctor(2, "Rahul Verma", "Neurology", "MBBS, DM", 4.8f));
+        index.put(doctor(3, "Meera Iyer", "Cardiology", "MBBS, DM Cardiology", 4.9f));
+        index.put(doctor(4, "Cardin Nair", "Dermatology", "MBBS", 3.0f));
+    }
+
+    public void testNameMatchOutranksSpecializationMatch()
+    {
+        assertEquals(List.of(2L), ids(index.search("verma", 10)));
+        // Meera matches in specialization and qualification, Asha only in specialization
+        assertEquals(List.of(3L, 1L), ids(index.search("cardiology", 10)));
+    }
+
+    public void testLastWordMatchesAsPrefix()
+    {
+        // Cardin is a name match, so it outranks the better rated cardiologists
+        assertEquals(List.of(4L, 3L, 1L), ids(index.search("card", 10)));
+        assertEquals(List.of(1L), ids(index.search("sharma card", 10)));
+        assertTrue(index.search("shar cardiology", 10).isEmpty());
+    }
+
+    public void testOneTypoIsTolerated()
+    {
+        assertEquals(List.of(2L), ids(index.search("neurolgy", 10)));
+        assertEquals(List.of(2L), ids(index.search("vemra", 10)));
+        assertEquals(List.of(3L, 1L), ids(index.search("cradiology", 10)));
+        assertTrue(index.search("nerlgy", 10).isEmpty());
+    }
+
+    public void testRatingBreaksTiesBetweenEqualMatches()
+    {
+        index.put(doctor(5, "Kavya Mehta", "Pediatrics", "MBBS", 2.0f));
+        index.put(doctor(6, "Rohan Mehta", "Pediatrics", "MBBS", 4.5f));
+        assertEquals(List.of(6L, 5L), ids(index.search("mehta", 10)));
+    }
+
+    public void testUpdatesReplaceOldTerms()
+    {
+        index.put(doctor(2, "Rahul Verma", "Psychiatry", "MBBS, MD", 4.8f));
+        assertTrue(index.search("neurology", 10).isEmpty());
+        assertEquals(List.of(2L), ids(index.search("psychiatry", 10)));
+
+        index.remove(2L);
+        assertTrue(index.search("verma", 10).isEmpty());
+    }
+
+    public void testAccentsAndCaseAreFolded()
+    {
+        index.put(doctor(7, "José Álvarez", "Neurology", "MD", 4.0f));
+        assertEquals(List.of(7L), ids(index.search("JOSE alvarez", 10)));
+    }
+
+    public void testOneEditDistance()
+    {
+        assertTrue(DoctorSearchIndex.isOneEditAway("cardiology", "cardiolgy"));
+        assertTrue(DoctorSearchIndex.isOneEditAway("cardiology", "cardiologyy"));
+        assertTrue(DoctorSearchIndex.isOneEditAway("cardiology", "cradiology"));
+        assertTrue(DoctorSearchIndex.isOneEditAway("cardiology", "cardiolpgy"));
+        assertFalse(DoctorSearchIndex.isOneEditAway("cardiology", "crdiolgy"));
+        assertFalse(DoctorSearchIndex.isOneEditAway("cardiology", "neurology"));
+    }
+
+    private static Doctor doctor(long id, String name, String specialization, String qualification, float rating)
+    {
+        return Doctor.builder()
+                .id(id)
+                .name(name)
+                .specialization(specialization)
+                .qualification(qualification)
+                .rating(rating)
+                .build();
+    }
+
+    private static List<Long> ids(List<DoctorDto> doctors)
+    {
+        return doctors.stream().map(DoctorDto::getId).toList();
+    }
+}
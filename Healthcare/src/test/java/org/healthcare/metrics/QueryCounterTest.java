@@ -0,0 +1,62 @@
+package org.healthcare.metrics;
+
+import junit.framework.TestCase;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Map;
+
+public class QueryCounterTest extends TestCase
+{
+    private static final String PER_ROW = "select * from doctor_availability where doctor_id=?";
+
+    private QueryCounter queryCounter;
+
+    @Override
+    protected void setUp()
+    {
+        queryCounter = new QueryCounter();
+    }
+
+    public void testRepeatedStatementsAreReported()
+    {
+        queryCounter.start(3);
+        queryCounter.inspect("select * from doctors");
+        for (int i = 0; i < 5; i++) {
+            queryCounter.inspect(PER_ROW);
+        }
+        QueryCounter.Report report = queryCounter.stop();
+
+        assertEquals(6, report.getCount());
+        assertTrue(report.isOverBudget());
+        List<Map.Entry<String, Integer>> repeated = report.getRepeatedStatements(3);
+        assertEquals(1, repeated.size());
+        assertEquals(PER_ROW, repeated.get(0).getKey());
+        assertEquals(5, repeated.get(0).getValue().intValue());
+    }
+
+    public void testNothingIsCountedOutsideARequest()
+    {
+        assertEquals("select 1", queryCounter.inspect("select 1"));
+        assertNull(queryCounter.stop());
+    }
+
+    public void testStrictModeFailsTheFirstStatementOverBudget() throws Exception
+    {
+        Field strict = QueryCounter.class.getDeclaredField("strict");
+        strict.setAccessible(true);
+        strict.set(queryCounter, true);
+
+        queryCounter.start(2);
+        queryCounter.inspect(PER_ROW);
+        queryCounter.inspect(PER_ROW);
+        try {
+            queryCounter.inspect(PER_ROW);
+            fail("Third statement should exceed a budget of 2");
+        } catch (QueryBudgetExceededException expected) {
+            // the request fails here, so a test hitting the endpoint fails too
+        }
+        queryCounter.inspect(PER_ROW);
+        assertEquals(4, queryCounter.stop().getCount());
+    }
+}
@@ -0,0 +1,46 @@
+package org.healthcare.scheduling;
+
+import junit.framework.TestCase;
+
+import java.time.LocalDate;
+
+/**
+ * Earliest-slot query latency as the number of doctors grows. Runs with -Pbenchmarks only.
+ */
+public class EarliestSlotIndexBenchmarkTest extends TestCase
+{
+    private static final String[] SPECIALIZATIONS = {"Cardiology", "Neurology", "Dermatology", "Orthopedics", "Pediatrics"};
+    private static final int DAYS = 30;
+    private static final int QUERIES = 20_000;
+
+    public void testQueryTimeDoesNotGrowWithDoctors()
+    {
+        for (int doctors : new int[]{1_000, 10_000, 50_000}) {
+            EarliestSlotIndex index = index(doctors);
+
+            long checksum = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < QUERIES; i++) {
+                LocalDate from = LocalDate.now().plusDays(1 + i % DAYS);
+                checksum += index.earliest(SPECIALIZATIONS[i % SPECIALIZATIONS.length], from, null, 10).size();
+            }
+            double micros = (System.nanoTime() - start) / 1000.0 / QUERIES;
+            assertEquals(10L * QUERIES, checksum);
+            System.out.printf("earliest 10 of %d doctors x %d days: %.1f us per query%n", doctors, DAYS, micros);
+        }
+    }
+
+    private static EarliestSlotIndex index(int doctors)
+    {
+        EarliestSlotIndex index = new EarliestSlotIndex(null, null, 30);
+        for (long id = 1; id <= doctors; id++) {
+            index.putDoctor(id, "Doctor " + id, SPECIALIZATIONS[(int) (id % SPECIALIZATIONS.length)]);
+            for (int d = 1; d <= DAYS; d++) {
+                int hour = 6 + (int) ((id * 7 + d) % 12);
+                String offered = String.format("%02d:00-%02d:00", hour, hour + 1);
+                index.index(id, LocalDate.now().plusDays(d), DaySchedule.builder().offer(SlotGrid.parse(offered), true).build());
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,105 @@
+package org.healthcare.scheduling;
+
+import junit.framework.TestCase;
+import org.healthcare.dto.availability.EarliestSlotDto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class EarliestSlotIndexTest extends TestCase
+{
+    private static final LocalDate DAY_1 = LocalDate.now().plusDays(1);
+    private static final LocalDate DAY_2 = LocalDate.now().plusDays(2);
+
+    private EarliestSlotIndex index;
+
+    @Override
+    protected void setUp()
+    {
+        index = new EarliestSlotIndex(null, null, 30);
+        index.putDoctor(1L, "Ada", "Cardiology");
+        index.putDoctor(2L, "Ben", "Cardiology");
+        index.putDoctor(3L, "Cy", "Neurology");
+        index.index(1L, DAY_1, day("11:00-12:00"));
+        index.index(1L, DAY_2, day("08:00-09:00"));
+        index.index(2L, DAY_1, day("09:00-10:00"));
+        index.index(3L, DAY_2, day("07:00-08:00"));
+    }
+
+    public void testEarliestFirstAndOnePerDoctor()
+    {
+        List<EarliestSlotDto> slots = index.earliest(null, null, null, 10);
+        assertEquals(List.of(2L, 1L, 3L), doctorIds(slots));
+        assertEquals(DAY_1, slots.get(1).getDate());
+        assertEquals("11:00-11:30", slots.get(1).getTimeSlot());
+        assertEquals("Ada", slots.get(1).getDoctorName());
+
+        assertEquals(List.of(2L, 1L), doctorIds(index.earliest("Cardiology", null, null, 10)));
+        assertEquals(List.of(2L), doctorIds(index.earliest("Cardiology", null, null, 1)));
+        assertTrue(index.earliest("Dermatology", null, null, 10).isEmpty());
+    }
+
+    public void testDateRange()
+    {
+        List<EarliestSlotDto> slots = index.earliest(null, DAY_2, null, 10);
+        assertEquals(List.of(3L, 1L), doctorIds(slots));
+        assertEquals("08:00-08:30", slots.get(1).getTimeSlot());
+        assertEquals(List.of(2L, 1L), doctorIds(index.earliest(null, null, DAY_1, 10)));
+    }
+
+    public void testBookingMovesTheDoctorOn()
+    {
+        // Doctor 2's only free hour on day 1 is booked, then doctor 1's first half hour
+        index.index(2L, DAY_1, day("09:00-10:00").withBooking(SlotGrid.parse("09:00-10:00")));
+        index.index(1L, DAY_1, day("11:00-12:00").withBooking(SlotGrid.parse("11:00-11:30")));
+        List<EarliestSlotDto> slots = index.earliest("Cardiology", null, null, 10);
+        assertEquals(List.of(1L), doctorIds(slots));
+        assertEquals("11:30-12:00", slots.get(0).getTimeSlot());
+
+        // Cancelled again
+        index.index(2L, DAY_1, day("09:00-10:00"));
+        assertEquals(List.of(2L, 1L), doctorIds(index.earliest("Cardiology", null, null, 10)));
+    }
+
+    public void testSpecializationChangeMovesEntries()
+    {
+        index.putDoctor(2L, "Ben", "Neurology");
+        assertEquals(List.of(1L), doctorIds(index.earliest("Cardiology", null, null, 10)));
+        assertEquals(List.of(2L, 3L), doctorIds(index.earliest("Neurology", null, null, 10)));
+
+        index.removeDoctor(3L);
+        assertEquals(List.of(2L), doctorIds(index.earliest("Neurology", null, null, 10)));
+        assertEquals(List.of(2L, 1L), doctorIds(index.earliest(null, null, null, 10)));
+    }
+
+    public void testFewerDoctorsThanAskedFor()
+    {
+        // Doctor 1 loses day 1 but keeps day 2, doctor 2 loses its only day
+        index.index(1L, DAY_1, DaySchedule.EMPTY);
+        index.index(2L, DAY_1, DaySchedule.EMPTY);
+        assertEquals(List.of(1L), doctorIds(index.earliest("Cardiology", null, null, 10)));
+        assertEquals(List.of(3L, 1L), doctorIds(index.earliest(null, null, null, 10)));
+
+        // Back with a slot, and moved to another specialization while it has one
+        index.index(2L, DAY_2, day("06:00-07:00"));
+        assertEquals(List.of(2L, 1L), doctorIds(index.earliest("Cardiology", null, null, 10)));
+        index.putDoctor(2L, "Ben", "Neurology");
+        assertEquals(List.of(2L, 3L), doctorIds(index.earliest("Neurology", null, null, 10)));
+        assertEquals(List.of(1L), doctorIds(index.earliest("Cardiology", null, null, 10)));
+
+        index.removeDoctor(1L);
+        assertTrue(index.earliest("Cardiology", null, null, 10).isEmpty());
+        assertEquals(List.of(2L, 3L), doctorIds(index.earliest(null, null, null, 10)));
+    }
+
+    private static DaySchedule day(String offered)
+    {
+        return DaySchedule.builder().offer(SlotGrid.parse(offered), true).build();
+    }
+
+    private static List<Long> doctorIds(List<EarliestSlotDto> slots)
+    {
+        return slots.stream().map(EarliestSlotDto::getDoctorId).collect(Collectors.toList());
+    }
+}
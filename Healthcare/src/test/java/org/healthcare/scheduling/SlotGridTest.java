@@ -0,0 +1,68 @@
+package org.healthcare.scheduling;
+
+import junit.framework.TestCase;
+
+import java.util.List;
+
+public class SlotGridTest extends TestCase
+{
+    public void testParsesLegacyFormatsToCanonicalRanges()
+    {
+        assertEquals("09:00-09:30", SlotGrid.format(SlotGrid.parse("09:00-09:30")));
+        assertEquals("09:00-09:30", SlotGrid.format(SlotGrid.parse("9:00 - 9:30")));
+        assertEquals("13:00-14:00", SlotGrid.format(SlotGrid.parse("1:00 PM - 2:00 PM")));
+        assertEquals("11:00-12:00", SlotGrid.format(SlotGrid.parse("11am to 12pm")));
+        assertEquals("10:00-10:30", SlotGrid.format(SlotGrid.parse("10:00")));
+        assertEquals("23:00-24:00", SlotGrid.format(SlotGrid.parse("23:00-00:00")));
+    }
+
+    public void testWidensOffGridTimesToTheGrid()
+    {
+        assertEquals("09:00-09:45", SlotGrid.format(SlotGrid.parse("09:10-09:40")));
+    }
+
+    public void testRejectsUnparseableOrBackwardRanges()
+    {
+        for (String text : new String[]{"morning", "10:30-10:00", "25:00-26:00", "13pm-2pm", ""}) {
+            try {
+                SlotGrid.parse(text);
+                fail("Expected " + text + " to be rejected");
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+
+    public void testFreeMeansAvailableAndNotBooked()
+    {
+        DaySchedule day = DaySchedule.builder()
+                .offer(SlotGrid.parse("09:00-12:00"), true)
+                .offer(SlotGrid.parse("14:00-15:00"), false)
+                .book(SlotGrid.parse("10:00-10:30"))
+                .build();
+
+        assertTrue(day.isFree(SlotGrid.parse("09:00-10:00")));
+        assertFalse(day.isFree(SlotGrid.parse("09:30-10:15")));
+        assertFalse(day.isFree(SlotGrid.parse("11:30-12:30")));
+        assertFalse(day.isFree(SlotGrid.parse("14:00-14:30")));
+        assertTrue(day.overlapsBooking(SlotGrid.parse("10:15-11:00")));
+        assertFalse(day.overlapsBooking(SlotGrid.parse("10:30-11:00")));
+        assertTrue(day.overlapsOffered(SlotGrid.parse("14:45-16:00")));
+        assertFalse(day.overlapsOffered(SlotGrid.parse("12:00-14:00")));
+    }
+
+    public void testFreeStartsSkipsBookingsAndRunsAcrossTheWordBoundary()
+    {
+        // 16:00 is slot 64, the first slot of the second word
+        DaySchedule day = DaySchedule.builder()
+                .offer(SlotGrid.parse("09:00-10:30"), true)
+                .offer(SlotGrid.parse("15:30-17:00"), true)
+                .book(SlotGrid.parse("09:30-10:00"))
+                .build();
+
+        List<Integer> starts = day.freeStarts(2, 0, 10);
+        assertEquals(List.of(36, 40, 62, 64, 66), starts);
+        assertEquals(List.of(62), day.freeStarts(6, 0, 10));
+        assertEquals(List.of(63, 65), day.freeStarts(2, 63, 10));
+        assertEquals(List.of(36), day.freeStarts(2, 0, 1));
+    }
+}
@@ -0,0 +1,203 @@
+package org.healthcare.scheduling;
+
+import junit.framework.TestCase;
+import org.healthcare.TestApplication;
+import org.healthcare.dto.BookAppointmentDto;
+import org.healthcare.exception.SlotUnavailableException;
+import org.healthcare.models.Doctor;
+import org.healthcare.models.DoctorAvailability;
+import org.healthcare.models.Patient;
+import org.healthcare.models.Role;
+import org.healthcare.models.User;
+import org.healthcare.repository.DoctorAvailabilityRepository;
+import org.healthcare.repository.DoctorRepository;
+import org.healthcare.repository.PatientRepository;
+import org.healthcare.repository.UserRepository;
+import org.healthcare.service.AppointmentService;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Concurrent bookings through AppointmentService against H2, on one hot doctor-day and
+ * spread over unrelated doctors. Reports throughput and how many attempts were rejected
+ * with 409, split by cause. Runs with -Pbenchmarks only.
+ */
+public class SlotLocksBenchmarkTest extends TestCase
+{
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 50;
+    // Half-hour slots in the 09:00-17:00 block each doctor offers
+    private static final int SLOTS_PER_DAY = 16;
+    private static final AtomicInteger ACCOUNTS = new AtomicInteger();
+
+    private AppointmentService appointmentService;
+    private final LocalDate date = LocalDate.now().plusDays(1);
+
+    @Override
+    protected void setUp()
+    {
+        appointmentService = TestApplication.bean(AppointmentService.class);
+    }
+
+    public void testHotDoctorDay() throws Exception
+    {
+        Long doctorId = saveDoctor().getId();
+
+        // Every thread tries every slot of the same day, so all attempts queue on one lock
+        Outcome outcome = contend("Hot doctor-day", (thread, attempt) -> doctorId, attempt -> attempt % SLOTS_PER_DAY);
+
+        assertEquals(SLOTS_PER_DAY, outcome.booked.get());
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD - SLOTS_PER_DAY, outcome.taken.get());
+        assertEquals(0, outcome.busy.get());
+    }
+
+    public void testUnrelatedDoctors() throws Exception
+    {
+        // Each thread books its own doctors' free slots, so no two attempts share a day
+        int doctorsPerThread = (ATTEMPTS_PER_THREAD + SLOTS_PER_DAY - 1) / SLOTS_PER_DAY;
+        List<Long> doctorIds = new ArrayList<>();
+        for (int i = 0; i < THREADS * doctorsPerThread; i++) {
+            doctorIds.add(saveDoctor().getId());
+        }
+        Outcome outcome = contend("Unrelated doctors",
+                (thread, attempt) -> doctorIds.get(thread * doctorsPerThread + attempt / SLOTS_PER_DAY), attempt -> attempt % SLOTS_PER_DAY);
+
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD, outcome.booked.get());
+        assertEquals(0, outcome.taken.get() + outcome.busy.get());
+    }
+
+    /**
+     * Another instance's booking is invisible to this instance's calendar and locks; only
+     * uk_appointment_active_slot stops the same start slot from being booked twice.
+     */
+    public void testUniqueKeyRejectsABookingTheCalendarMissed()
+    {
+        Doctor doctor = saveDoctor();
+        Patient other = savePatient();
+        SlotRange range = SlotGrid.parse("10:00-10:30");
+        TestApplication.bean(JdbcTemplate.class).update(
+                "INSERT INTO appointment (doctor_id, patient_id, date, time_slot, start_slot, end_slot, active_slot, status) " +
+                "VALUES (?, ?, ?, ?, ?, ?, TRUE, 'Booked')",
+                doctor.getId(), other.getId(), Date.valueOf(date), SlotGrid.format(range), range.start(), range.end());
+
+        try {
+            // Slot 2 of the day is 10:00-10:30
+            appointmentService.bookAppointment(savePatient().getUser(), booking(doctor.getId(), 2));
+            fail("Booked a slot that is already taken");
+        } catch (SlotUnavailableException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("has just been taken"));
+        }
+    }
+
+    /**
+     * Every thread books as its own patient, waits at a start gate, then makes its attempts
+     * back to back.
+     */
+    private Outcome contend(String name, DoctorOf doctorOf, IntFunction<Integer> slotOf) throws Exception
+    {
+        List<User> patients = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            patients.add(savePatient().getUser());
+        }
+        Outcome outcome = new Outcome();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> threads = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                threads.add(pool.submit(() -> {
+                    start.await();
+                    for (int attempt = 0; attempt < ATTEMPTS_PER_THREAD; attempt++) {
+                        BookAppointmentDto booking = booking(doctorOf.of(thread, attempt), slotOf.apply(attempt));
+                        try {
+                            appointmentService.bookAppointment(patients.get(thread), booking);
+                            outcome.booked.incrementAndGet();
+                        } catch (SlotUnavailableException e) {
+                            (e.getMessage().contains("busy") ? outcome.busy : outcome.taken).incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            long startedAt = System.nanoTime();
+            start.countDown();
+            for (Future<?> thread : threads) {
+                thread.get(120, TimeUnit.SECONDS);
+            }
+            long nanos = System.nanoTime() - startedAt;
+
+            int attempts = THREADS * ATTEMPTS_PER_THREAD;
+            System.out.printf("%s, %d attempts on %d threads: %.0f attempts/s, %d booked, 409 rate %.1f%% (%d taken, %d lock timeouts)%n",
+                    name, attempts, THREADS, attempts * 1e9 / nanos, outcome.booked.get(),
+                    100.0 * (outcome.taken.get() + outcome.busy.get()) / attempts, outcome.taken.get(), outcome.busy.get());
+            return outcome;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private BookAppointmentDto booking(Long doctorId, int slot)
+    {
+        int start = SlotGrid.parse("09:00-09:30").start() + slot * 2;
+        BookAppointmentDto booking = new BookAppointmentDto();
+        booking.setDoctorId(doctorId);
+        booking.setDate(date);
+        booking.setTimeSlot(SlotGrid.format(new SlotRange(start, start + 2)));
+        booking.setReason("Checkup");
+        return booking;
+    }
+
+    /**
+     * A doctor offering 09:00-17:00 on the benchmark's day, already in the slot calendar.
+     */
+    private Doctor saveDoctor()
+    {
+        int account = ACCOUNTS.incrementAndGet();
+        User user = TestApplication.bean(UserRepository.class).save(User.builder()
+                .email("locks-doctor-" + account + "@example.com").password("x").role(Role.ROLE_DOCTOR).build());
+        Doctor doctor = TestApplication.bean(DoctorRepository.class).save(Doctor.builder()
+                .user(user).name("Doctor " + account).specialization("Cardiology").build());
+        SlotRange hours = SlotGrid.parse("09:00-17:00");
+        TestApplication.bean(DoctorAvailabilityRepository.class).save(DoctorAvailability.builder()
+                .doctor(doctor).date(date).timeSlot(SlotGrid.format(hours))
+                .startSlot(hours.start()).endSlot(hours.end()).isAvailable(true).build());
+        TestApplication.bean(SlotCalendar.class).reloadDoctor(doctor.getId());
+        return doctor;
+    }
+
+    /**
+     * Saves a patient with a new account; the patient's user is persisted along with it.
+     */
+    private static Patient savePatient()
+    {
+        int account = ACCOUNTS.incrementAndGet();
+        User user = User.builder().email("locks-patient-" + account + "@example.com").password("x").role(Role.ROLE_PATIENT).build();
+        return TestApplication.bean(PatientRepository.class).save(Patient.builder()
+                .user(user).name("Patient " + account).age(30).dob(LocalDate.of(1995, 1, 1)).bloodGroup("O+")
+                .phoneNumber(9_000_000_000L).address("Pune").gender(Patient.Gender.Female).build());
+    }
+
+    private interface DoctorOf
+    {
+        Long of(int thread, int attempt);
+    }
+
+    private static final class Outcome
+    {
+        final AtomicInteger booked = new AtomicInteger();
+        final AtomicInteger taken = new AtomicInteger();
+        final AtomicInteger busy = new AtomicInteger();
+    }
+}
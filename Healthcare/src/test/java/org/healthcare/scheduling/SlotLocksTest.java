@@ -0,0 +1,147 @@
+package org.healthcare.scheduling;
+
+import junit.framework.TestCase;
+import org.healthcare.exception.SlotUnavailableException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntFunction;
+
+public class SlotLocksTest extends TestCase
+{
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 15);
+    private static final SlotRange HOT_SLOT = SlotGrid.parse("09:00-09:30");
+    private static final int BOOKERS = 5000;
+    private static final int THREADS = 200;
+
+    public void testExactlyOneWinnerOnAHotSlot() throws Exception
+    {
+        Map<Long, DaySchedule> days = new ConcurrentHashMap<>();
+        days.put(1L, open());
+
+        AtomicInteger winners = new AtomicInteger();
+        contend(new SlotLocks(1024, 5000), days, i -> 1L, winners);
+
+        assertEquals(1, winners.get());
+        assertTrue(days.get(1L).isBooked(HOT_SLOT));
+    }
+
+    public void testUnrelatedDoctorsAllWin() throws Exception
+    {
+        Map<Long, DaySchedule> days = new ConcurrentHashMap<>();
+        for (long doctorId = 0; doctorId < BOOKERS; doctorId++) {
+            days.put(doctorId, open());
+        }
+
+        AtomicInteger winners = new AtomicInteger();
+        contend(new SlotLocks(1024, 5000), days, i -> (long) i, winners);
+
+        assertEquals(BOOKERS, winners.get());
+    }
+
+    public void testTransactionLockIsHeldUntilCompletion() throws Exception
+    {
+        SlotLocks locks = new SlotLocks(16, 50);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            locks.lockUntilCompletion(1L, DAY);
+            assertFalse(lockedFromAnotherThread(locks));
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertTrue(lockedFromAnotherThread(locks));
+    }
+
+    public void testRequiresATransaction()
+    {
+        try {
+            new SlotLocks(16, 50).lockUntilCompletion(1L, DAY);
+            fail("Expected lockUntilCompletion to need a transaction");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    /**
+     * Every booker waits at a start gate, then runs the same check-then-book sequence as
+     * AppointmentServiceImpl: lock the day, test the slot, record the booking, unlock.
+     */
+    private static void contend(SlotLocks locks, Map<Long, DaySchedule> days,
+                                IntFunction<Long> doctorOf, AtomicInteger winners) throws Exception
+    {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                pool.execute(() -> {
+                    ready.countDown();
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            ready.await();
+            Future<?>[] bookings = new Future<?>[BOOKERS];
+            for (int i = 0; i < BOOKERS; i++) {
+                Long doctorId = doctorOf.apply(i);
+                bookings[i] = pool.submit(() -> {
+                    ReentrantLock lock = locks.lock(doctorId, DAY);
+                    try {
+                        DaySchedule day = days.get(doctorId);
+                        if (day.isFree(HOT_SLOT)) {
+                            Thread.yield();
+                            days.put(doctorId, day.withBooking(HOT_SLOT));
+                            winners.incrementAndGet();
+                        }
+                    } finally {
+                        lock.unlock();
+                    }
+                });
+            }
+            start.countDown();
+            for (Future<?> booking : bookings) {
+                booking.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static boolean lockedFromAnotherThread(SlotLocks locks) throws Exception
+    {
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            return other.submit(() -> {
+                try {
+                    locks.lock(1L, DAY).unlock();
+                    return true;
+                } catch (SlotUnavailableException e) {
+                    return false;
+                }
+            }).get();
+        } finally {
+            other.shutdownNow();
+        }
+    }
+
+    private static DaySchedule open()
+    {
+        return DaySchedule.builder().offer(SlotGrid.parse("09:00-12:00"), true).build();
+    }
+}
@@ -0,0 +1,48 @@
+package org.healthcare.scheduling;
+
+import junit.framework.TestCase;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Planning time for a large materializer run. Runs with -Pbenchmarks only.
+ */
+public class SlotMaterializerBenchmarkTest extends TestCase
+{
+    // A Monday
+    private static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+
+    /**
+     * Plans a year of weekday 15-minute slots, 09:00-17:00, for 1000 doctors, in batches of
+     * 50 doctors as SlotMaterializer does.
+     */
+    public void testPlanAYearForAThousandDoctors()
+    {
+        List<SlotMaterializer.Rule> rules = new ArrayList<>();
+        long templateId = 1;
+        for (DayOfWeek day : EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY)) {
+            rules.add(new SlotMaterializer.Rule(templateId++, day, SlotGrid.parse("09:00-17:00"), 1, null, null));
+        }
+        LocalDate to = MONDAY.plusDays(364);
+
+        long startedAt = System.nanoTime();
+        long planned = 0;
+        for (int batch = 0; batch < 1000 / 50; batch++) {
+            SlotMaterializer.Plan plan = new SlotMaterializer.Plan();
+            for (long doctorId = batch * 50L; doctorId < (batch + 1) * 50L; doctorId++) {
+                SlotMaterializer.plan(plan, doctorId, rules, Set.of(), Map.of(), Map.of(), MONDAY, to, date -> true);
+            }
+            planned += plan.inserts.size();
+        }
+        long millis = (System.nanoTime() - startedAt) / 1_000_000;
+
+        assertEquals(1000L * 261 * 32, planned);
+        System.out.printf("Planned %d slots for 1000 doctors over a year in %d ms%n", planned, millis);
+    }
+}
@@ -0,0 +1,161 @@
+package org.healthcare.scheduling;
+
+import junit.framework.TestCase;
+import org.healthcare.TestApplication;
+import org.healthcare.models.AvailabilityTemplate;
+import org.healthcare.models.Doctor;
+import org.healthcare.models.Role;
+import org.healthcare.models.User;
+import org.healthcare.repository.AvailabilityTemplateRepository;
+import org.healthcare.repository.DoctorRepository;
+import org.healthcare.repository.UserRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class SlotMaterializerTest extends TestCase
+{
+    // A Monday
+    private static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+    private static final Long DOCTOR = 7L;
+
+    private static SlotMaterializer.Rule mondayMornings()
+    {
+        return new SlotMaterializer.Rule(1L, DayOfWeek.MONDAY, SlotGrid.parse("09:00-10:00"), 2, null, null);
+    }
+
+    public void testExpandsTemplatesOnMatchingDaysOnly()
+    {
+        SlotMaterializer.Plan plan = plan(List.of(mondayMornings()), Set.of(), Map.of(), Map.of(), MONDAY, MONDAY.plusDays(13));
+
+        assertEquals(4, plan.inserts.size());
+        assertEquals(MONDAY, plan.inserts.get(0).date());
+        assertEquals("09:00-09:30", SlotGrid.format(plan.inserts.get(0).range()));
+        assertEquals("09:30-10:00", SlotGrid.format(plan.inserts.get(1).range()));
+        assertEquals(MONDAY.plusDays(7), plan.inserts.get(2).date());
+        assertTrue(plan.deletes.isEmpty());
+    }
+
+    public void testIsIdempotentAndRespectsExceptions()
+    {
+        Map<LocalDate, List<SlotMaterializer.ExistingRow>> rows = Map.of(MONDAY, List.of(
+                new SlotMaterializer.ExistingRow(10, SlotGrid.parse("09:00-09:30"), 1L),
+                new SlotMaterializer.ExistingRow(11, SlotGrid.parse("09:30-10:00"), 1L)));
+
+        assertTrue(plan(List.of(mondayMornings()), Set.of(), rows, Map.of(), MONDAY, MONDAY).inserts.isEmpty());
+        assertTrue(plan(List.of(mondayMornings()), Set.of(), rows, Map.of(), MONDAY, MONDAY).deletes.isEmpty());
+
+        SlotMaterializer.Plan holiday = plan(List.of(mondayMornings()), Set.of(MONDAY), rows, Map.of(), MONDAY, MONDAY);
+        assertEquals(2, holiday.deletes.size());
+        assertTrue(holiday.inserts.isEmpty());
+    }
+
+    public void testKeepsBookedAndManualRowsAndSkipsOverlaps()
+    {
+        Map<LocalDate, List<SlotMaterializer.ExistingRow>> rows = Map.of(MONDAY, List.of(
+                new SlotMaterializer.ExistingRow(10, SlotGrid.parse("09:00-09:30"), 99L),
+                new SlotMaterializer.ExistingRow(11, SlotGrid.parse("09:30-10:00"), null)));
+        Map<LocalDate, DaySchedule.Builder> bookings = Map.of(MONDAY, DaySchedule.builder().book(SlotGrid.parse("09:00-09:30")));
+
+        // Template 99 is gone, but its row is booked; the manual row stays; both block the new slots
+        SlotMaterializer.Plan plan = plan(List.of(mondayMornings()), Set.of(), rows, bookings, MONDAY, MONDAY);
+        assertTrue(plan.deletes.isEmpty());
+        assertTrue(plan.inserts.isEmpty());
+    }
+
+    public void testChangedTemplateReplacesOnlyItsOwnRows()
+    {
+        Map<LocalDate, List<SlotMaterializer.ExistingRow>> rows = Map.of(MONDAY, List.of(
+                new SlotMaterializer.ExistingRow(10, SlotGrid.parse("09:00-09:30"), 1L),
+                new SlotMaterializer.ExistingRow(11, SlotGrid.parse("09:30-10:00"), 1L),
+                new SlotMaterializer.ExistingRow(12, SlotGrid.parse("14:00-15:00"), null)));
+        SlotMaterializer.Rule hourly = new SlotMaterializer.Rule(1L, DayOfWeek.MONDAY, SlotGrid.parse("09:00-11:00"), 4, null, null);
+
+        SlotMaterializer.Plan plan = plan(List.of(hourly), Set.of(), rows, Map.of(), MONDAY, MONDAY);
+        assertEquals(List.of(10L, 11L), plan.deletes.stream().map(SlotMaterializer.PlannedDelete::availabilityId).toList());
+        assertEquals(List.of("09:00-10:00", "10:00-11:00"),
+                plan.inserts.stream().map(row -> SlotGrid.format(row.range())).toList());
+    }
+
+    /**
+     * Runs the real materializer against H2 while another thread holds one of a second
+     * doctor's days. Only that doctor waits and is skipped; the first is written.
+     */
+    public void testLockedDoctorDoesNotHoldUpOthers() throws Exception
+    {
+        JdbcTemplate jdbc = TestApplication.bean(JdbcTemplate.class);
+        SlotLocks slotLocks = TestApplication.bean(SlotLocks.class);
+        SlotMaterializer materializer = TestApplication.bean(SlotMaterializer.class);
+        AvailabilityTemplateRepository templates = TestApplication.bean(AvailabilityTemplateRepository.class);
+        Doctor free = saveDoctor("materializer-free");
+        Doctor busy = saveDoctor("materializer-busy");
+        DayOfWeek weekday = LocalDate.now().plusDays(1).getDayOfWeek();
+        for (Doctor doctor : List.of(free, busy)) {
+            templates.save(AvailabilityTemplate.builder().doctor(doctor).dayOfWeek(weekday).timeSlot("09:00-10:00")
+                    .startSlot(SlotGrid.parse("09:00-10:00").start()).endSlot(SlotGrid.parse("09:00-10:00").end()).slotMinutes(30).build());
+        }
+
+        // A day of the busy doctor whose stripe none of the free doctor's days share
+        LocalDate held = null;
+        for (LocalDate date = LocalDate.now().plusDays(1); held == null; date = date.plusDays(7)) {
+            int stripe = slotLocks.stripe(busy.getId(), date);
+            boolean shared = false;
+            for (LocalDate other = LocalDate.now().plusDays(1); !other.isAfter(materializer.horizonEnd()); other = other.plusDays(7)) {
+                shared |= slotLocks.stripe(free.getId(), other) == stripe;
+            }
+            held = shared ? null : date;
+        }
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        LocalDate heldDay = held;
+        Thread holder = new Thread(() -> {
+            ReentrantLock lock = slotLocks.lock(busy.getId(), heldDay);
+            locked.countDown();
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+        });
+        holder.start();
+        try {
+            locked.await();
+            materializer.materializeHorizon();
+        } finally {
+            done.countDown();
+            holder.join();
+        }
+
+        String count = "SELECT COUNT(*) FROM doctor_availability WHERE doctor_id = ?";
+        assertTrue(jdbc.queryForObject(count, Integer.class, free.getId()) > 0);
+        assertEquals(0, (int) jdbc.queryForObject(count, Integer.class, busy.getId()));
+
+        // Picked up by the next run
+        materializer.materializeHorizon();
+        assertEquals(jdbc.queryForObject(count, Integer.class, free.getId()), jdbc.queryForObject(count, Integer.class, busy.getId()));
+    }
+
+    private static SlotMaterializer.Plan plan(List<SlotMaterializer.Rule> rules, Set<LocalDate> blocked,
+                                              Map<LocalDate, List<SlotMaterializer.ExistingRow>> rows,
+                                              Map<LocalDate, DaySchedule.Builder> bookings, LocalDate from, LocalDate to)
+    {
+        SlotMaterializer.Plan plan = new SlotMaterializer.Plan();
+        SlotMaterializer.plan(plan, DOCTOR, rules, blocked, rows, bookings, from, to, date -> true);
+        return plan;
+    }
+
+    private static Doctor saveDoctor(String name)
+    {
+        User user = TestApplication.bean(UserRepository.class).save(User.builder().email(name + "-" + System.nanoTime() + "@example.com").password("x").role(Role.ROLE_DOCTOR).build());
+        return TestApplication.bean(DoctorRepository.class).save(Doctor.builder()
+                .user(user).name(name).specialization("Cardiology").build());
+    }
+}
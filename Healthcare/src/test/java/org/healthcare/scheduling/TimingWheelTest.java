@@ -0,0 +1,107 @@
+package org.healthcare.scheduling;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class TimingWheelTest extends TestCase
+{
+    public void testExpiresOnTheDeadlineTick()
+    {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 1_000);
+        wheel.schedule("a", 1_250);
+        wheel.schedule("b", 1_300);
+        List<String> expired = new ArrayList<>();
+
+        wheel.advance(1_299, expired::add);
+        assertEquals(List.of(), expired);
+        wheel.advance(1_300, expired::add);
+        assertEquals(List.of("a", "b"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    public void testPastDeadlinesExpireOnTheNextTick()
+    {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 1_000);
+        wheel.schedule("late", 500);
+        List<String> expired = new ArrayList<>();
+        wheel.advance(1_099, expired::add);
+        assertEquals(List.of(), expired);
+        wheel.advance(1_100, expired::add);
+        assertEquals(List.of("late"), expired);
+    }
+
+    public void testCancel()
+    {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 0);
+        TimingWheel.Timeout<String> kept = wheel.schedule("kept", 5_000);
+        TimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", 5_000);
+        assertTrue(wheel.cancel(cancelled));
+        assertFalse(wheel.cancel(cancelled));
+
+        List<String> expired = new ArrayList<>();
+        wheel.advance(10_000, expired::add);
+        assertEquals(List.of("kept"), expired);
+        assertFalse(wheel.cancel(kept));
+    }
+
+    public void testEveryLevelAndBeyondExpiresOnTime()
+    {
+        // Starts mid-turn on every level, so cascades happen at uneven offsets
+        long start = 123_456_789L;
+        TimingWheel<Long> wheel = new TimingWheel<>(1, start);
+        long[] delays = {1, 63, 64, 65, 4_095, 4_096, 4_097, 262_143, 262_144, 300_001,
+                16_777_215, 16_777_216, 20_000_000};
+        for (long delay : delays) {
+            wheel.schedule(start + delay, start + delay);
+        }
+        long[] now = {start};
+        List<Long> late = new ArrayList<>();
+        int[] count = {0};
+        while (wheel.size() > 0) {
+            now[0] += 997;
+            wheel.advance(now[0], deadline -> {
+                count[0]++;
+                if (deadline > now[0] || deadline <= now[0] - 997) {
+                    late.add(deadline);
+                }
+            });
+        }
+        assertEquals(delays.length, count[0]);
+        assertEquals(List.of(), late);
+    }
+
+    public void testManyHolds()
+    {
+        int holds = 500_000;
+        long ttl = 300_000;
+        TimingWheel<Long> wheel = new TimingWheel<>(1_000, 0);
+        Random random = new Random(7);
+
+        // Holds arrive over ten minutes and expire five minutes later
+        List<TimingWheel.Timeout<Long>> timeouts = new ArrayList<>(holds);
+        for (int i = 0; i < holds; i++) {
+            long deadline = random.nextInt(600_000) + ttl;
+            timeouts.add(wheel.schedule(deadline, deadline));
+        }
+        // A fifth are converted into bookings first
+        for (int i = 0; i < holds; i += 5) {
+            wheel.cancel(timeouts.get(i));
+        }
+        assertEquals(holds - holds / 5, wheel.size());
+
+        long[] expired = {0};
+        long[] now = {0};
+        while (now[0] < 600_000 + ttl + 1_000) {
+            now[0] += 1_000;
+            wheel.advance(now[0], deadline -> {
+                assertTrue(deadline <= now[0] && deadline > now[0] - 1_000);
+                expired[0]++;
+            });
+        }
+        assertEquals(holds - holds / 5, expired[0]);
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,94 @@
+package org.healthcare.scheduling;
+
+import junit.framework.TestCase;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class WaitlistQueuesTest extends TestCase
+{
+    private static final LocalDate DAY = LocalDate.now().plusDays(3);
+
+    private WaitlistQueues queues;
+
+    @Override
+    protected void setUp()
+    {
+        queues = new WaitlistQueues();
+        queues.load(List.of(
+                new Waiter(1L, 101L, 7L, DAY, 60),
+                new Waiter(2L, 102L, 7L, DAY, 30),
+                new Waiter(3L, 103L, 7L, DAY, 30),
+                new Waiter(4L, 104L, 7L, DAY.plusDays(1), 30),
+                new Waiter(5L, 105L, 8L, DAY, 30)));
+    }
+
+    public void testLongestWaitingWhoseLengthFits()
+    {
+        // An hour is free: the first patient to join wants exactly that
+        assertEquals(Long.valueOf(1), queues.poll(7L, DAY, length -> length <= 4).waitlistId());
+        // Only half an hour is free: the one-hour waiter would be skipped anyway
+        assertEquals(Long.valueOf(2), queues.poll(7L, DAY, length -> length <= 2).waitlistId());
+        assertEquals(Long.valueOf(3), queues.poll(7L, DAY, length -> length <= 2).waitlistId());
+        assertNull(queues.poll(7L, DAY, length -> length <= 2));
+        assertEquals(1, queues.size(7L, DAY.plusDays(1)));
+    }
+
+    public void testLongerLengthsAreNotAskedAboutOnceOneDoesNotFit()
+    {
+        List<Integer> asked = new ArrayList<>();
+        assertNull(queues.poll(7L, DAY, length -> {
+            asked.add(length);
+            return false;
+        }));
+        assertEquals(List.of(2), asked);
+        assertEquals(3, queues.size(7L, DAY));
+    }
+
+    public void testPutBackKeepsItsTurn()
+    {
+        Waiter first = queues.poll(7L, DAY, length -> length <= 2);
+        queues.add(new Waiter(6L, 106L, 7L, DAY, 30));
+        queues.add(first);
+        assertEquals(first, queues.poll(7L, DAY, length -> length <= 2));
+    }
+
+    public void testRemoveAndPrune()
+    {
+        assertTrue(queues.remove(2L));
+        assertFalse(queues.remove(2L));
+        assertEquals(Long.valueOf(3), queues.poll(7L, DAY, length -> length <= 2).waitlistId());
+
+        queues.pruneBefore(DAY.plusDays(1));
+        assertEquals(0, queues.size(7L, DAY));
+        assertEquals(0, queues.size(8L, DAY));
+        assertFalse(queues.remove(1L));
+        assertEquals(1, queues.size(7L, DAY.plusDays(1)));
+    }
+
+    public void testPopularDoctor()
+    {
+        int waiting = 48_000;
+        queues = new WaitlistQueues();
+        List<Waiter> all = new ArrayList<>(waiting);
+        int[] lengths = {15, 30, 45, 60, 90, 120};
+        for (long id = 1; id <= waiting; id++) {
+            all.add(new Waiter(id, id, 7L, DAY, lengths[(int) (id % lengths.length)]));
+        }
+        queues.load(all);
+
+        // Half-hour cancellations only ever suit the 15 and 30 minute waiters, in joining order
+        long previous = 0;
+        Waiter waiter;
+        int offered = 0;
+        while ((waiter = queues.poll(7L, DAY, length -> length <= 2)) != null) {
+            assertTrue(waiter.minutes() <= 30);
+            assertTrue(waiter.waitlistId() > previous);
+            previous = waiter.waitlistId();
+            offered++;
+        }
+        assertEquals(waiting / 3, offered);
+        assertEquals(waiting - waiting / 3, queues.size(7L, DAY));
+    }
+}
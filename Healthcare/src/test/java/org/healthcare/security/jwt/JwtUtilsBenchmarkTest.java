@@ -0,0 +1,78 @@
+package org.healthcare.security.jwt;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import junit.framework.TestCase;
+import org.springframework.security.core.userdetails.User;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+/**
+ * Compares the per-request authentication cost of the original JwtUtils flow
+ * (key decoded, parser built and signature verified twice per request) with the
+ * cached parser and verified-claims cache. Runs with -Pbenchmarks only.
+ */
+public class JwtUtilsBenchmarkTest extends TestCase
+{
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final int ITERATIONS = 20_000;
+
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        jwtUtils = new JwtUtils();
+        set("jwtSecret", SECRET);
+        set("jwtExpirationMs", 60_000);
+        set("jwtRefreshExpirationMs", 120_000);
+        set("jwtClaimsCacheSize", 1_000L);
+        jwtUtils.init();
+        token = jwtUtils.generateTokenFromUsername(new User("doctor@example.com", "x", List.of()));
+    }
+
+    public void testPerRequestAuthCost()
+    {
+        // Warm up both paths so the JIT has compiled them before measuring.
+        for (int i = 0; i < ITERATIONS / 10; i++) {
+            uncachedRequest();
+            jwtUtils.getVerifiedClaims(token);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertNotNull(uncachedRequest());
+        }
+        long before = (System.nanoTime() - start) / ITERATIONS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertNotNull(jwtUtils.getVerifiedClaims(token).getSubject());
+        }
+        long after = (System.nanoTime() - start) / ITERATIONS;
+
+        System.out.printf("JWT auth per request: before=%d ns, after=%d ns%n", before, after);
+    }
+
+    /**
+     * What AuthTokenFilter used to do per request: validateJwtToken followed by
+     * getUserNameFromJwtToken, each decoding the key and building a new parser.
+     */
+    private String uncachedRequest()
+    {
+        Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET))).build()
+                .parseClaimsJws(token);
+        return Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET))).build()
+                .parseClaimsJws(token).getBody().getSubject();
+    }
+
+    private void set(String name, Object value) throws Exception
+    {
+        Field field = JwtUtils.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(jwtUtils, value);
+    }
+}
@@ -0,0 +1,60 @@
+package org.healthcare.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import junit.framework.TestCase;
+import org.springframework.security.core.userdetails.User;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+/**
+ * Checks the verified-claims cache returns the claims a full verification would,
+ * and never accepts a token whose signature does not verify.
+ */
+public class JwtUtilsTest extends TestCase
+{
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        jwtUtils = new JwtUtils();
+        set("jwtSecret", SECRET);
+        set("jwtExpirationMs", 60_000);
+        set("jwtRefreshExpirationMs", 120_000);
+        set("jwtClaimsCacheSize", 1_000L);
+        jwtUtils.init();
+        token = jwtUtils.generateTokenFromUsername(new User("doctor@example.com", "x", List.of()));
+    }
+
+    public void testCachedClaimsMatchVerifiedClaims()
+    {
+        Claims first = jwtUtils.getVerifiedClaims(token);
+        Claims second = jwtUtils.getVerifiedClaims(token);
+        assertEquals("doctor@example.com", first.getSubject());
+        assertSame(first, second);
+        assertEquals("doctor@example.com", jwtUtils.getUserNameFromJwtToken(token));
+    }
+
+    public void testTamperedTokenIsRejected()
+    {
+        jwtUtils.getVerifiedClaims(token);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        try {
+            jwtUtils.getVerifiedClaims(tampered);
+            fail("Tampered token must not be accepted");
+        } catch (io.jsonwebtoken.JwtException expected) {
+            // signature mismatch surfaces the same way it did before caching
+        }
+    }
+
+    private void set(String name, Object value) throws Exception
+    {
+        Field field = JwtUtils.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(jwtUtils, value);
+    }
+}
@@ -0,0 +1,96 @@
+package org.healthcare.security.jwt;
+
+import junit.framework.TestCase;
+import org.healthcare.TestApplication;
+import org.healthcare.dto.LoginDto;
+import org.healthcare.models.Role;
+import org.healthcare.models.User;
+import org.healthcare.repository.UserRepository;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Signs the same user in twice, on the current schema and on one upgraded from the
+ * one-session-per-user mapping.
+ */
+public class RefreshTokenMigrationTest extends TestCase
+{
+    private static final AtomicInteger ACCOUNTS = new AtomicInteger();
+    private static final String PASSWORD = "secret-password";
+
+    private JdbcTemplate jdbcTemplate;
+    private AuthController authController;
+
+    @Override
+    protected void setUp()
+    {
+        jdbcTemplate = TestApplication.bean(JdbcTemplate.class);
+        authController = TestApplication.bean(AuthController.class);
+    }
+
+    // Sessions left behind would break the legacy unique key the next test creates
+    @Override
+    protected void tearDown()
+    {
+        jdbcTemplate.update("DELETE FROM refresh_tokens WHERE user_id IN (SELECT id FROM users WHERE email LIKE 'sessions-%')");
+    }
+
+    public void testSignInTwice() throws Exception
+    {
+        User user = saveUser();
+
+        assertEquals(200, signIn(user).getStatusCode().value());
+        assertEquals(200, signIn(user).getStatusCode().value());
+        assertEquals(2, sessionsOf(user));
+    }
+
+    public void testDropsTheLegacyUniqueKey() throws Exception
+    {
+        // What ddl-auto=update leaves behind from the old @OneToOne mapping
+        jdbcTemplate.execute("CREATE UNIQUE INDEX uk_refresh_tokens_legacy_user ON refresh_tokens (user_id)");
+        try {
+            User before = saveUser();
+            assertEquals(200, signIn(before).getStatusCode().value());
+            try {
+                signIn(before);
+                fail("The legacy key allowed a second session");
+            } catch (ExecutionException expected) {
+            }
+
+            TestApplication.bean(RefreshTokenMigration.class).migrate();
+        } finally {
+            jdbcTemplate.execute("DROP INDEX IF EXISTS uk_refresh_tokens_legacy_user");
+        }
+
+        User after = saveUser();
+        assertEquals(200, signIn(after).getStatusCode().value());
+        assertEquals(200, signIn(after).getStatusCode().value());
+        assertEquals(2, sessionsOf(after));
+    }
+
+    private ResponseEntity<?> signIn(User user) throws Exception
+    {
+        LoginDto login = new LoginDto();
+        login.setEmail(user.getEmail());
+        login.setPassword(PASSWORD);
+        return authController.signin(login).get();
+    }
+
+    private int sessionsOf(User user)
+    {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM refresh_tokens WHERE user_id = ?", Integer.class, user.getId());
+    }
+
+    private static User saveUser()
+    {
+        return TestApplication.bean(UserRepository.class).save(User.builder()
+                .email("sessions-" + ACCOUNTS.incrementAndGet() + "@example.com")
+                .password(TestApplication.bean(PasswordEncoder.class).encode(PASSWORD))
+                .role(Role.ROLE_PATIENT)
+                .build());
+    }
+}
@@ -0,0 +1,65 @@
+package org.healthcare.security.jwt;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import junit.framework.TestCase;
+import org.healthcare.repository.RevokedTokenRepository;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Per-request cost of the deny-list check. Runs with -Pbenchmarks only.
+ */
+public class TokenRevocationListBenchmarkTest extends TestCase
+{
+    private static final int ITERATIONS = 1_000_000;
+
+    private TokenRevocationList revocationList;
+    private Instant expiresAt;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        RevokedTokenRepository repository = (RevokedTokenRepository) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{RevokedTokenRepository.class},
+                (proxy, method, args) -> method.getReturnType() == boolean.class ? Boolean.FALSE : null);
+        revocationList = new TokenRevocationList(repository, new SimpleMeterRegistry());
+        set("jwtExpirationMs", 86_400_000L);
+        set("partitionMinutes", 60L);
+        set("expectedPerPartition", 1_000);
+        set("falsePositiveRate", 0.001);
+        set("sweepBatchSize", 100);
+        revocationList.init();
+        expiresAt = Instant.now().plus(Duration.ofHours(2));
+    }
+
+    public void testCheckCost()
+    {
+        for (int i = 0; i < 1_000; i++) {
+            revocationList.revoke(UUID.randomUUID().toString(), expiresAt);
+        }
+        String tokenId = UUID.randomUUID().toString();
+        long expiresAtMs = expiresAt.toEpochMilli();
+        for (int i = 0; i < ITERATIONS / 10; i++) {
+            revocationList.isRevoked(tokenId, expiresAtMs);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertFalse(revocationList.isRevoked(tokenId, expiresAtMs));
+        }
+        long perCheck = (System.nanoTime() - start) / ITERATIONS;
+
+        System.out.printf("Revocation check: %d ns, estimated FPR %.5f%n", perCheck, revocationList.estimatedFalsePositiveRate());
+    }
+
+    private void set(String name, Object value) throws Exception
+    {
+        Field field = TokenRevocationList.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(revocationList, value);
+    }
+}
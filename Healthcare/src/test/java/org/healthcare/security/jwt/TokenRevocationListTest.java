@@ -0,0 +1,74 @@
+package org.healthcare.security.jwt;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import junit.framework.TestCase;
+import org.healthcare.repository.RevokedTokenRepository;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Checks the deny-list answers exactly for revoked ids and never for others.
+ */
+public class TokenRevocationListTest extends TestCase
+{
+    private TokenRevocationList revocationList;
+    private Instant expiresAt;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        // Writes to the table are not under test; every call returns the type's default
+        RevokedTokenRepository repository = (RevokedTokenRepository) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{RevokedTokenRepository.class},
+                (proxy, method, args) -> method.getReturnType() == boolean.class ? Boolean.FALSE : null);
+        revocationList = new TokenRevocationList(repository, new SimpleMeterRegistry());
+        set("jwtExpirationMs", 86_400_000L);
+        set("partitionMinutes", 60L);
+        set("expectedPerPartition", 1_000);
+        set("falsePositiveRate", 0.001);
+        set("sweepBatchSize", 100);
+        revocationList.init();
+        expiresAt = Instant.now().plus(Duration.ofHours(2));
+    }
+
+    public void testRevokedTokensAreDenied()
+    {
+        String revoked = UUID.randomUUID().toString();
+        revocationList.revoke(revoked, expiresAt);
+
+        assertTrue(revocationList.isRevoked(revoked, expiresAt.toEpochMilli()));
+        assertFalse(revocationList.isRevoked(UUID.randomUUID().toString(), expiresAt.toEpochMilli()));
+        assertFalse(revocationList.isRevoked(null, expiresAt.toEpochMilli()));
+    }
+
+    public void testRevokedTokenInAnotherWindowIsNotConfused()
+    {
+        String revoked = UUID.randomUUID().toString();
+        revocationList.revoke(revoked, expiresAt);
+
+        Instant otherWindow = expiresAt.plus(Duration.ofHours(3));
+        assertFalse(revocationList.isRevoked(revoked, otherWindow.toEpochMilli()));
+    }
+
+    public void testFullPartitionStaysExact()
+    {
+        for (int i = 0; i < 5_000; i++) {
+            revocationList.revoke(UUID.randomUUID().toString(), expiresAt);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertFalse(revocationList.isRevoked(UUID.randomUUID().toString(), expiresAt.toEpochMilli()));
+        }
+        assertTrue(revocationList.memoryBytes() > 0);
+    }
+
+    private void set(String name, Object value) throws Exception
+    {
+        Field field = TokenRevocationList.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(revocationList, value);
+    }
+}
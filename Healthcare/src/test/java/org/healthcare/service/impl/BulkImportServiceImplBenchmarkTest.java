@@ -0,0 +1,44 @@
+package org.healthcare.service.impl;
+
+import junit.framework.TestCase;
+import org.healthcare.TestApplication;
+import org.healthcare.dto.ImportReportDto;
+import org.healthcare.service.BulkImportService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Import throughput against H2 with the configured chunk size, with passwords that are
+ * already BCrypt hashes and with plain passwords that must be hashed. Runs with
+ * -Pbenchmarks only.
+ */
+public class BulkImportServiceImplBenchmarkTest extends TestCase
+{
+    public void testImportPreHashedPatients() throws Exception
+    {
+        String hash = TestApplication.bean(PasswordEncoder.class).encode("password1");
+        run("pre-hashed patients", 20_000, hash);
+    }
+
+    public void testImportPlainPasswordPatients() throws Exception
+    {
+        run("plain-password patients", 200, "password1");
+    }
+
+    private static void run(String name, int rows, String password) throws Exception
+    {
+        String prefix = "bench-" + System.nanoTime() + "-";
+        StringBuilder csv = new StringBuilder(BulkImportServiceImplTest.HEADER).append('\n');
+        for (int i = 0; i < rows; i++) {
+            csv.append(String.join(",", "ROLE_PATIENT", prefix + i + "@example.com", password, "Patient " + i, "30",
+                    "1995-01-01", "O+", "9000000000", "Pune", "Female")).append('\n');
+        }
+
+        ImportReportDto report = TestApplication.bean(BulkImportService.class)
+                .importCsv(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+        assertEquals(rows, report.getImported());
+        System.out.printf("Imported %d %s in %d ms: %d rows/s%n", rows, name, report.getElapsedMs(), report.getRowsPerSecond());
+    }
+}
@@ -0,0 +1,177 @@
+package org.healthcare.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import junit.framework.TestCase;
+import org.healthcare.TestApplication;
+import org.healthcare.dto.ImportReportDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Runs imports against H2 with a small chunk size, recording the size of every batch of
+ * user inserts.
+ */
+public class BulkImportServiceImplTest extends TestCase
+{
+    static final String HEADER = "role,email,password,name,age,dob,bloodGroup,phoneNumber,address,gender";
+    private static final AtomicInteger FILES = new AtomicInteger();
+
+    // Hashed once; rows carrying a BCrypt hash are imported without hashing again
+    private static String passwordHash;
+
+    private RecordingJdbcTemplate jdbcTemplate;
+    private String prefix;
+
+    @Override
+    protected void setUp()
+    {
+        jdbcTemplate = new RecordingJdbcTemplate(TestApplication.bean(DataSource.class));
+        prefix = "import-" + FILES.incrementAndGet() + "-" + System.nanoTime() + "-";
+        if (passwordHash == null) {
+            passwordHash = TestApplication.bean(PasswordEncoder.class).encode("password1");
+        }
+    }
+
+    public void testInsertsInChunksAndSkipsTakenEmails() throws Exception
+    {
+        StringBuilder csv = new StringBuilder(HEADER).append('\n');
+        for (int i = 0; i < 25; i++) {
+            csv.append(patientCsv(prefix + i + "@example.com", "Patient " + i, "30", "9000000000")).append('\n');
+        }
+
+        ImportReportDto report = service(10).importCsv(stream(csv.toString()));
+        assertEquals(25, report.getTotalRows());
+        assertEquals(25, report.getImported());
+        assertEquals(0, report.getFailed());
+        assertEquals(List.of(10, 10, 5), jdbcTemplate.userBatches);
+        assertEquals(25, (int) jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM patients p JOIN users u ON u.id = p.user_id WHERE u.email LIKE ?", Integer.class, prefix + "%"));
+
+        // The same file again: every email is taken, nothing is inserted
+        jdbcTemplate.userBatches.clear();
+        ImportReportDto again = service(10).importCsv(stream(csv.toString()));
+        assertEquals(0, again.getImported());
+        assertEquals(25, again.getFailed());
+        assertEquals("Email is already taken", again.getErrors().get(0).getMessage());
+        assertTrue(jdbcTemplate.userBatches.isEmpty());
+    }
+
+    public void testRejectsDuplicateEmailsInTheFile() throws Exception
+    {
+        String json = "[" + patientJson(prefix + "a@example.com") + "," + patientJson((prefix + "A@example.com").toUpperCase())
+                + "," + patientJson(prefix + "b@example.com") + "]";
+
+        ImportReportDto report = service(10).importJson(stream(json));
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(2, report.getErrors().get(0).getRow());
+        assertEquals("Duplicate email in file", report.getErrors().get(0).getMessage());
+    }
+
+    public void testRetriesRowByRowWhenABatchFails() throws Exception
+    {
+        // Too long for the name column; only the insert can tell
+        String longName = "N".repeat(300);
+        StringBuilder csv = new StringBuilder(HEADER).append('\n');
+        for (int i = 0; i < 5; i++) {
+            csv.append(patientCsv(prefix + i + "@example.com", i == 2 ? longName : "Patient " + i, "30", "9000000000")).append('\n');
+        }
+
+        ImportReportDto report = service(10).importCsv(stream(csv.toString()));
+        assertEquals(4, report.getImported());
+        assertEquals(1, report.getFailed());
+        // CSV rows are reported by file line, after the header
+        assertEquals(4, report.getErrors().get(0).getRow());
+        assertTrue(report.getErrors().get(0).getMessage(), report.getErrors().get(0).getMessage().startsWith("Insert failed: "));
+        // The failed batch, then one insert per row
+        assertEquals(List.of(5, 1, 1, 1, 1, 1), jdbcTemplate.userBatches);
+        // The failed row's user was rolled back with its profile
+        assertEquals(4, (int) jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE email LIKE ?", Integer.class, prefix + "%"));
+    }
+
+    public void testRejectsPatientsWithoutAgeOrPhoneNumber() throws Exception
+    {
+        String csv = HEADER + "\n"
+                + patientCsv(prefix + "no-age@example.com", "No Age", "", "9000000000") + "\n"
+                + patientCsv(prefix + "no-phone@example.com", "No Phone", "30", "") + "\n"
+                + patientCsv(prefix + "ok@example.com", "Complete", "30", "9000000000") + "\n";
+
+        ImportReportDto report = service(10).importCsv(stream(csv));
+        assertEquals(1, report.getImported());
+        assertEquals(List.of("age: must not be null", "phoneNumber: must not be null"),
+                report.getErrors().stream().map(ImportReportDto.RowError::getMessage).collect(Collectors.toList()));
+    }
+
+    /**
+     * A service over the recording JdbcTemplate, with the given chunk size.
+     */
+    private BulkImportServiceImpl service(int chunkSize) throws Exception
+    {
+        BulkImportServiceImpl service = new BulkImportServiceImpl(
+                jdbcTemplate,
+                new NamedParameterJdbcTemplate(jdbcTemplate),
+                TestApplication.bean(PlatformTransactionManager.class),
+                TestApplication.bean(PasswordEncoder.class),
+                TestApplication.bean(Validator.class),
+                TestApplication.bean(ObjectMapper.class),
+                TestApplication.context());
+        set(service, "chunkSize", chunkSize);
+        set(service, "hashingThreads", 2);
+        set(service, "maxReportedErrors", 100);
+        return service;
+    }
+
+    static String patientCsv(String email, String name, String age, String phoneNumber)
+    {
+        return String.join(",", "ROLE_PATIENT", email, passwordHash, name, age, "1995-01-01", "O+", phoneNumber, "Pune", "Female");
+    }
+
+    private static String patientJson(String email)
+    {
+        return "{\"role\":\"ROLE_PATIENT\",\"email\":\"" + email + "\",\"password\":\"" + passwordHash + "\",\"name\":\"Patient\","
+                + "\"age\":30,\"dob\":\"1995-01-01\",\"bloodGroup\":\"O+\",\"phoneNumber\":9000000000,\"address\":\"Pune\",\"gender\":\"Female\"}";
+    }
+
+    private static ByteArrayInputStream stream(String content)
+    {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void set(Object target, String field, int value) throws Exception
+    {
+        Field declared = target.getClass().getDeclaredField(field);
+        declared.setAccessible(true);
+        declared.setInt(target, value);
+    }
+
+    private static final class RecordingJdbcTemplate extends JdbcTemplate
+    {
+        final List<Integer> userBatches = new ArrayList<>();
+
+        RecordingJdbcTemplate(DataSource dataSource)
+        {
+            super(dataSource);
+        }
+
+        @Override
+        public int[] batchUpdate(String sql, List<Object[]> batchArgs)
+        {
+            if (sql.startsWith("INSERT INTO users")) {
+                userBatches.add(batchArgs.size());
+            }
+            return super.batchUpdate(sql, batchArgs);
+        }
+    }
+}
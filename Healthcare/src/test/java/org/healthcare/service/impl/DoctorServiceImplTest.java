@@ -0,0 +1,84 @@
+package org.healthcare.service.impl;
+
+import junit.framework.TestCase;
+import org.healthcare.TestApplication;
+import org.healthcare.dto.ChangePasswordDto;
+import org.healthcare.models.Role;
+import org.healthcare.models.User;
+import org.healthcare.repository.UserRepository;
+import org.healthcare.service.DoctorService;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DoctorServiceImplTest extends TestCase
+{
+    private static final AtomicInteger ACCOUNTS = new AtomicInteger();
+
+    private UserRepository userRepository;
+    private PasswordEncoder passwordEncoder;
+    private DoctorService doctorService;
+
+    @Override
+    protected void setUp()
+    {
+        userRepository = TestApplication.bean(UserRepository.class);
+        passwordEncoder = TestApplication.bean(PasswordEncoder.class);
+        doctorService = TestApplication.bean(DoctorService.class);
+    }
+
+    public void testChangePasswordRaisesTheTokenVersion()
+    {
+        User principal = saveUser("old-password");
+
+        doctorService.changePassword(principal, change("old-password", "new-password"));
+
+        User saved = userRepository.findById(principal.getId()).orElseThrow();
+        assertTrue(passwordEncoder.matches("new-password", saved.getPassword()));
+        assertEquals(1, saved.getTokenVersion());
+    }
+
+    public void testChangePasswordRejectsAWrongOrStalePassword()
+    {
+        User principal = saveUser("old-password");
+        try {
+            doctorService.changePassword(principal, change("wrong-password", "new-password"));
+            fail("Changed the password without the current one");
+        } catch (BadCredentialsException expected) {
+        }
+
+        // Changed elsewhere after this principal was loaded
+        doctorService.changePassword(principal, change("old-password", "newer-password"));
+        try {
+            doctorService.changePassword(principal, change("old-password", "newest-password"));
+            fail("Changed the password from a stale principal");
+        } catch (IllegalArgumentException expected) {
+        }
+        User saved = userRepository.findById(principal.getId()).orElseThrow();
+        assertTrue(passwordEncoder.matches("newer-password", saved.getPassword()));
+        assertEquals(1, saved.getTokenVersion());
+    }
+
+    /**
+     * @return A detached copy, as the authenticated principal is.
+     */
+    private User saveUser(String password)
+    {
+        User user = userRepository.save(User.builder()
+                .email("password-" + ACCOUNTS.incrementAndGet() + "-" + System.nanoTime() + "@example.com")
+                .password(passwordEncoder.encode(password))
+                .role(Role.ROLE_DOCTOR)
+                .build());
+        return User.builder().id(user.getId()).email(user.getEmail()).password(user.getPassword())
+                .role(user.getRole()).tokenVersion(user.getTokenVersion()).build();
+    }
+
+    private static ChangePasswordDto change(String currentPassword, String newPassword)
+    {
+        ChangePasswordDto dto = new ChangePasswordDto();
+        dto.setCurrentPassword(currentPassword);
+        dto.setNewPassword(newPassword);
+        return dto;
+    }
+}